@@ -3,6 +3,7 @@ package com.fooddelivery.config;
 import com.fooddelivery.entity.Category;
 import com.fooddelivery.entity.MenuItem;
 import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.RestaurantOwner;
 import com.fooddelivery.entity.User;
 import com.fooddelivery.repository.CategoryRepository;
 import com.fooddelivery.repository.MenuItemRepository;
@@ -103,7 +104,7 @@ public class DataInitializer implements CommandLineRunner {
             restaurant.setDeliveryTime(30);
             restaurant.setDeliveryFee(5.0);
             restaurant.setMinimumOrder(10.0);
-            restaurant.setOwner(restaurantOwner);
+            restaurant.setOwner(RestaurantOwner.of(restaurantOwner));
             
             restaurantRepository.save(restaurant);
 
@@ -123,7 +124,7 @@ public class DataInitializer implements CommandLineRunner {
             restaurant2.setDeliveryTime(35);
             restaurant2.setDeliveryFee(7.0);
             restaurant2.setMinimumOrder(12.0);
-            restaurant2.setOwner(restaurantOwner);
+            restaurant2.setOwner(RestaurantOwner.of(restaurantOwner));
             restaurantRepository.save(restaurant2);
 
             Restaurant restaurant3 = new Restaurant();
@@ -141,7 +142,7 @@ public class DataInitializer implements CommandLineRunner {
             restaurant3.setDeliveryTime(25);
             restaurant3.setDeliveryFee(6.0);
             restaurant3.setMinimumOrder(9.0);
-            restaurant3.setOwner(restaurantOwner);
+            restaurant3.setOwner(RestaurantOwner.of(restaurantOwner));
             restaurantRepository.save(restaurant3);
             
             // Create Menu Items
@@ -2,12 +2,16 @@ package com.fooddelivery.config;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.fooddelivery.dto.ApiError;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.ConflictException;
 import com.fooddelivery.exception.NotFoundException;
 import com.fooddelivery.exception.PaymentException;
+import com.fooddelivery.exception.ServiceUnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -108,6 +112,45 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
 	}
 	
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<ApiError> handleBadRequest(BadRequestException ex, HttpServletRequest request) {
+		ApiError body = ApiError.builder()
+				.timestamp(LocalDateTime.now())
+				.status(HttpStatus.BAD_REQUEST.value())
+				.error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+				.message(ex.getMessage())
+				.path(request.getRequestURI())
+				.code("BAD_REQUEST")
+				.build();
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+	}
+	
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<ApiError> handleConflict(ConflictException ex, HttpServletRequest request) {
+		ApiError body = ApiError.builder()
+				.timestamp(LocalDateTime.now())
+				.status(HttpStatus.CONFLICT.value())
+				.error(HttpStatus.CONFLICT.getReasonPhrase())
+				.message(ex.getMessage())
+				.path(request.getRequestURI())
+				.code("CONFLICT")
+				.build();
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+	}
+	
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<ApiError> handleOptimisticLock(ObjectOptimisticLockingFailureException ex, HttpServletRequest request) {
+		ApiError body = ApiError.builder()
+				.timestamp(LocalDateTime.now())
+				.status(HttpStatus.CONFLICT.value())
+				.error(HttpStatus.CONFLICT.getReasonPhrase())
+				.message("This record was changed by someone else. Please reload and try again.")
+				.path(request.getRequestURI())
+				.code("CONCURRENT_MODIFICATION")
+				.build();
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+	}
+	
 	@ExceptionHandler(PaymentException.class)
 	public ResponseEntity<ApiError> handlePayment(PaymentException ex, HttpServletRequest request) {
 		ApiError body = ApiError.builder()
@@ -121,6 +164,19 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
 	}
 	
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<ApiError> handleUnavailable(ServiceUnavailableException ex, HttpServletRequest request) {
+		ApiError body = ApiError.builder()
+				.timestamp(LocalDateTime.now())
+				.status(HttpStatus.SERVICE_UNAVAILABLE.value())
+				.error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+				.message(ex.getMessage())
+				.path(request.getRequestURI())
+				.code("SERVICE_UNAVAILABLE")
+				.build();
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(body);
+	}
+	
 	@ExceptionHandler(IllegalArgumentException.class)
 	public ResponseEntity<ApiError> handleIllegalArgument(IllegalArgumentException ex, HttpServletRequest request) {
 		ApiError body = ApiError.builder()
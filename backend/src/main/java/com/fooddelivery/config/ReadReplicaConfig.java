@@ -0,0 +1,82 @@
+package com.fooddelivery.config;
+
+import com.fooddelivery.routing.ReadWriteRoutingDataSource;
+import com.fooddelivery.routing.ReadYourWritesTracker;
+import com.fooddelivery.routing.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas (--spring.profiles.active=read-replicas). The primary pool is built from the usual
+ * spring.datasource.* settings, each replica gets its own Hikari pool, and the DataSource handed to
+ * JPA routes every connection by the transaction's read-only flag.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+	
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+	
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties,
+			HikariDataSource primaryDataSource,
+			MeterRegistry meterRegistry,
+			@Value("${datasource.replicas.urls}") String urls,
+			@Value("${datasource.replicas.username:}") String username,
+			@Value("${datasource.replicas.password:}") String password,
+			@Value("${datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+			@Value("${datasource.replicas.max-lag-ms:5000}") long maxLagMs,
+			@Value("${datasource.replicas.lag-probe:heartbeat}") String lagProbe,
+			@Value("${datasource.replicas.probe-interval-ms:1000}") long probeIntervalMs) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		List<String> jdbcUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+		for (int i = 0; i < jdbcUrls.size(); i++) {
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + i);
+			replica.setJdbcUrl(jdbcUrls.get(i));
+			replica.setDriverClassName(properties.determineDriverClassName());
+			replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+			replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+			replica.setMaximumPoolSize(maximumPoolSize);
+			replica.setReadOnly(true);
+			// a dead replica should fail fast and let the monitor take it out
+			replica.setConnectionTimeout(2000);
+			replica.setInitializationFailTimeout(-1);
+			replicas.put(replica.getPoolName(), replica);
+		}
+		return new ReplicaLagMonitor(primaryDataSource, replicas, maxLagMs, "heartbeat".equals(lagProbe),
+				probeIntervalMs, meterRegistry);
+	}
+	
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryDataSource,
+			ReplicaLagMonitor replicaLagMonitor,
+			ReadYourWritesTracker readYourWritesTracker,
+			MeterRegistry meterRegistry) {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource,
+				replicaLagMonitor.dataSources(), replicaLagMonitor, readYourWritesTracker, meterRegistry);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+}
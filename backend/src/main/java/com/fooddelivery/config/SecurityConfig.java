@@ -1,6 +1,8 @@
 package com.fooddelivery.config;
 
+import com.fooddelivery.idempotency.IdempotencyFilter;
 import com.fooddelivery.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +26,7 @@ import java.util.Arrays;
 public class SecurityConfig {
 	
 	private final JwtAuthenticationFilter jwtAuthFilter;
+	private final IdempotencyFilter idempotencyFilter;
 	private final AuthenticationProvider authenticationProvider;
 	
 	@Bean
@@ -32,9 +35,12 @@ public class SecurityConfig {
 			.cors().and()
 			.csrf().disable()
 			.authorizeHttpRequests()
+				// SSE completion and timeout come back as async dispatches after the original request was authorized
+				.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 				.requestMatchers("/auth/**").permitAll()
-				.requestMatchers("/restaurants", "/restaurants/page", "/restaurants/search", "/restaurants/cuisine/**", "/restaurants/rating/**", "/restaurants/delivery-time/**").permitAll()
+				.requestMatchers("/restaurants", "/restaurants/page", "/restaurants/cursor", "/restaurants/search", "/restaurants/query", "/restaurants/cuisine/**", "/restaurants/rating/**", "/restaurants/delivery-time/**").permitAll()
 				.requestMatchers("/menu-items/restaurant/**", "/menu-items/**/category/**", "/menu-items/**/search", "/menu-items/**/vegetarian", "/menu-items/**/spicy", "/menu-items/**/price-range").permitAll()
+				.requestMatchers("/search/**").permitAll()
 				.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/actuator/**").permitAll()
 				.anyRequest().authenticated()
 			.and()
@@ -42,7 +48,9 @@ public class SecurityConfig {
 				.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
 			.and()
 				.authenticationProvider(authenticationProvider)
-				.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+				.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+				// after JWT so keys can be scoped to the caller
+				.addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class);
 		
 		return http.build();
 	}
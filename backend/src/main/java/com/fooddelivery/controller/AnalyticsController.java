@@ -0,0 +1,62 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.RestaurantRevenueDto;
+import com.fooddelivery.dto.RevenueBucketDto;
+import com.fooddelivery.dto.RollupRebuildStatusDto;
+import com.fooddelivery.entity.OrderRollup;
+import com.fooddelivery.service.OrderRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+	
+	private final OrderRollupService orderRollupService;
+	
+	// orders placed in [from, to), one entry per hour or day that had orders
+	@GetMapping("/revenue")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<List<RevenueBucketDto>> getRevenueSeries(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(defaultValue = "DAY") OrderRollup.Granularity granularity,
+			@RequestParam(required = false) Long restaurantId) {
+		List<RevenueBucketDto> series = orderRollupService.getRevenueSeries(from, to, granularity, restaurantId);
+		return ResponseEntity.ok(series);
+	}
+	
+	@GetMapping("/revenue/restaurants")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<List<RestaurantRevenueDto>> getRevenueByRestaurant(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+		List<RestaurantRevenueDto> totals = orderRollupService.getRevenueByRestaurant(from, to);
+		return ResponseEntity.ok(totals);
+	}
+	
+	@PostMapping("/rollups/rebuild")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<RollupRebuildStatusDto> startRebuild(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		RollupRebuildStatusDto status = orderRollupService.startRebuild(from, to);
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+	}
+	
+	@GetMapping("/rollups/rebuild")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<RollupRebuildStatusDto> getRebuildStatus() {
+		return ResponseEntity.ok(orderRollupService.getRebuildStatus());
+	}
+}
@@ -0,0 +1,59 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.DispatchStatsDto;
+import com.fooddelivery.dto.RiderDto;
+import com.fooddelivery.dto.RiderLocationRequest;
+import com.fooddelivery.dto.RiderRequest;
+import com.fooddelivery.service.DispatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/dispatch")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DispatchController {
+	
+	private final DispatchService dispatchService;
+	
+	@GetMapping("/riders")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<List<RiderDto>> getRiders() {
+		List<RiderDto> riders = dispatchService.getRiders();
+		return ResponseEntity.ok(riders);
+	}
+	
+	@PostMapping("/riders")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<RiderDto> registerRider(@Valid @RequestBody RiderRequest request) {
+		RiderDto rider = dispatchService.registerRider(request);
+		return ResponseEntity.ok(rider);
+	}
+	
+	@DeleteMapping("/riders/{id}")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<Void> deactivateRider(@PathVariable Long id) {
+		dispatchService.deactivateRider(id);
+		return ResponseEntity.noContent().build();
+	}
+	
+	// location pings from the rider app gateway
+	@PutMapping("/riders/{id}/location")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<Void> updateLocation(@PathVariable Long id, @Valid @RequestBody RiderLocationRequest request) {
+		dispatchService.updateLocation(id, request);
+		return ResponseEntity.noContent().build();
+	}
+	
+	@GetMapping("/stats")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<DispatchStatsDto> getStats() {
+		DispatchStatsDto stats = dispatchService.getStats();
+		return ResponseEntity.ok(stats);
+	}
+}
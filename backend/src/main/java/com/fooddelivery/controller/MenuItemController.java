@@ -1,12 +1,12 @@
 package com.fooddelivery.controller;
 
+import com.fooddelivery.dto.CursorPage;
 import com.fooddelivery.dto.MenuItemDto;
+import com.fooddelivery.dto.MenuItemFilter;
 import com.fooddelivery.dto.MenuItemRequest;
 import com.fooddelivery.service.MenuItemService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,14 +30,22 @@ public class MenuItemController {
 	}
 	
 	@GetMapping("/restaurant/{restaurantId}/page")
-	public ResponseEntity<Page<MenuItemDto>> getMenuItemsByRestaurantPage(@PathVariable Long restaurantId, Pageable pageable) {
-		List<MenuItemDto> list = menuItemService.getMenuItemsByRestaurant(restaurantId);
-		int page = pageable.getPageNumber();
-		int size = pageable.getPageSize();
-		int start = Math.min(page * size, list.size());
-		int end = Math.min(start + size, list.size());
-		Page<MenuItemDto> pageRes = new PageImpl<>(list.subList(start, end), PageRequest.of(page, size), list.size());
-		return ResponseEntity.ok(pageRes);
+	public ResponseEntity<Page<MenuItemDto>> getMenuItemsByRestaurantPage(
+			@PathVariable Long restaurantId,
+			MenuItemFilter filter,
+			Pageable pageable) {
+		Page<MenuItemDto> page = menuItemService.getMenuItemsPage(restaurantId, filter, pageable);
+		return ResponseEntity.ok(page);
+	}
+	
+	@GetMapping("/restaurant/{restaurantId}/cursor")
+	public ResponseEntity<CursorPage<MenuItemDto>> getMenuItemsByRestaurantCursor(
+			@PathVariable Long restaurantId,
+			MenuItemFilter filter,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+		CursorPage<MenuItemDto> page = menuItemService.getMenuItemsByCursor(restaurantId, filter, cursor, size);
+		return ResponseEntity.ok(page);
 	}
 	
 	@GetMapping("/restaurant/{restaurantId}/category/{categoryId}")
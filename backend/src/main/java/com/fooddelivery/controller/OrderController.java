@@ -1,20 +1,37 @@
 package com.fooddelivery.controller;
 
+import com.fooddelivery.dto.CursorPage;
 import com.fooddelivery.dto.OrderDto;
 import com.fooddelivery.dto.OrderRequest;
+import com.fooddelivery.dto.OrderStatusBatchRequest;
+import com.fooddelivery.dto.OrderStatusBatchResult;
+import com.fooddelivery.dto.OrderSubmissionDto;
+import com.fooddelivery.dto.OrderSummaryDto;
+import com.fooddelivery.dto.OrderTrackingEvent;
 import com.fooddelivery.entity.Order;
 import com.fooddelivery.entity.User;
+import com.fooddelivery.service.OrderExportService;
+import com.fooddelivery.service.OrderIngestionService;
 import com.fooddelivery.service.OrderService;
+import com.fooddelivery.tracking.OrderTrackingHub;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/orders")
@@ -23,15 +40,29 @@ import java.util.List;
 public class OrderController {
 	
 	private final OrderService orderService;
+	private final OrderIngestionService orderIngestionService;
+	private final OrderExportService orderExportService;
+	private final OrderTrackingHub orderTrackingHub;
 	
 	@PostMapping
 	@PreAuthorize("hasRole('USER')")
-	public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderRequest request, @AuthenticationPrincipal User user) {
+	public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest request, @AuthenticationPrincipal User user) {
 		Long userId = user.getId();
+		if (orderIngestionService.isEnabled()) {
+			OrderSubmissionDto submission = orderIngestionService.submit(request, userId);
+			return ResponseEntity.status(HttpStatus.ACCEPTED).body(submission);
+		}
 		OrderDto order = orderService.createOrder(request, userId);
 		return ResponseEntity.ok(order);
 	}
 	
+	@GetMapping("/submissions/{orderNumber}")
+	@PreAuthorize("hasRole('USER')")
+	public ResponseEntity<OrderSubmissionDto> getSubmission(@PathVariable String orderNumber, @AuthenticationPrincipal User user) {
+		OrderSubmissionDto submission = orderIngestionService.getSubmission(orderNumber, user.getId());
+		return ResponseEntity.ok(submission);
+	}
+	
 	@GetMapping("/{id}")
 	@PreAuthorize("hasAnyRole('USER','ADMIN')")
 	public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
@@ -39,29 +70,91 @@ public class OrderController {
 		return ResponseEntity.ok(order);
 	}
 	
+	// Server-Sent Events; reconnecting clients send Last-Event-ID to resume
+	@GetMapping("/{id}/events")
+	@PreAuthorize("hasAnyRole('USER','ADMIN')")
+	public ResponseEntity<SseEmitter> trackOrder(
+			@PathVariable Long id,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@AuthenticationPrincipal User user) {
+		// no topic for orders the caller may not see; the snapshot is read after opening so no event falls in between
+		orderService.checkTrackingAccess(id, user);
+		long snapshotSequence = orderTrackingHub.openOrderTopic(id);
+		OrderTrackingEvent snapshot = orderService.getTrackingSnapshot(id, user);
+		return ResponseEntity.ok(orderTrackingHub.subscribeToOrder(id, lastEventId, snapshot, snapshotSequence));
+	}
+	
+	@GetMapping("/user/events")
+	@PreAuthorize("hasRole('USER')")
+	public ResponseEntity<SseEmitter> trackUserOrders(
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@AuthenticationPrincipal User user) {
+		return ResponseEntity.ok(orderTrackingHub.subscribeToUser(user.getId(), lastEventId));
+	}
+	
 	@GetMapping("/user")
 	@PreAuthorize("hasRole('USER')")
-	public ResponseEntity<List<OrderDto>> getUserOrders(@AuthenticationPrincipal User user) {
+	public ResponseEntity<List<OrderSummaryDto>> getUserOrders(@AuthenticationPrincipal User user) {
 		Long userId = user.getId();
-		List<OrderDto> orders = orderService.getUserOrders(userId);
+		List<OrderSummaryDto> orders = orderService.getUserOrders(userId);
 		return ResponseEntity.ok(orders);
 	}
 	
 	@GetMapping("/user/page")
 	@PreAuthorize("hasRole('USER')")
-	public ResponseEntity<Page<OrderDto>> getUserOrdersPaginated(Pageable pageable, @AuthenticationPrincipal User user) {
+	public ResponseEntity<Page<OrderSummaryDto>> getUserOrdersPaginated(Pageable pageable, @AuthenticationPrincipal User user) {
 		Long userId = user.getId();
-		Page<OrderDto> orders = orderService.getUserOrders(userId, pageable);
+		Page<OrderSummaryDto> orders = orderService.getUserOrders(userId, pageable);
+		return ResponseEntity.ok(orders);
+	}
+	
+	@GetMapping("/user/cursor")
+	@PreAuthorize("hasRole('USER')")
+	public ResponseEntity<CursorPage<OrderSummaryDto>> getUserOrdersByCursor(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(defaultValue = "false") boolean includeTotal,
+			@AuthenticationPrincipal User user) {
+		CursorPage<OrderSummaryDto> orders = orderService.getUserOrders(user.getId(), cursor, size, includeTotal);
 		return ResponseEntity.ok(orders);
 	}
 	
 	@GetMapping("/restaurant/{restaurantId}")
 	@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<List<OrderDto>> getRestaurantOrders(@PathVariable Long restaurantId) {
-		List<OrderDto> orders = orderService.getRestaurantOrders(restaurantId);
+	public ResponseEntity<List<OrderSummaryDto>> getRestaurantOrders(@PathVariable Long restaurantId) {
+		List<OrderSummaryDto> orders = orderService.getRestaurantOrders(restaurantId);
+		return ResponseEntity.ok(orders);
+	}
+	
+	@GetMapping("/restaurant/{restaurantId}/cursor")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<CursorPage<OrderSummaryDto>> getRestaurantOrdersByCursor(
+			@PathVariable Long restaurantId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(defaultValue = "false") boolean includeTotal) {
+		CursorPage<OrderSummaryDto> orders = orderService.getRestaurantOrders(restaurantId, cursor, size, includeTotal);
 		return ResponseEntity.ok(orders);
 	}
 	
+	// streamed straight to the response, so the export size is not bounded by the heap
+	@GetMapping("/restaurant/{restaurantId}/export")
+	@PreAuthorize("hasRole('ADMIN')")
+	public void exportRestaurantOrders(
+			@PathVariable Long restaurantId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(required = false) Set<Order.OrderStatus> status,
+			@RequestParam(defaultValue = "NDJSON") OrderExportService.Format format,
+			HttpServletResponse response) throws IOException {
+		orderExportService.checkExport(restaurantId, from, to);
+		response.setContentType(format.contentType());
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"restaurant-" + restaurantId + "-orders." + format.extension() + "\"");
+		orderExportService.exportRestaurantOrders(restaurantId, from, to, status, format, response.getOutputStream());
+	}
+	
 	@PutMapping("/{id}/status")
 	@PreAuthorize("hasRole('ADMIN')")
 	public ResponseEntity<OrderDto> updateOrderStatus(
@@ -71,6 +164,13 @@ public class OrderController {
 		return ResponseEntity.ok(order);
 	}
 	
+	@PutMapping("/status")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<OrderStatusBatchResult> updateOrderStatuses(@Valid @RequestBody OrderStatusBatchRequest request) {
+		OrderStatusBatchResult result = orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus());
+		return ResponseEntity.ok(result);
+	}
+	
 	@PutMapping("/{id}/payment-status")
 	@PreAuthorize("hasRole('ADMIN')")
 	public ResponseEntity<OrderDto> updateOrderPaymentStatus(
@@ -1,6 +1,11 @@
 package com.fooddelivery.controller;
 
+import com.fooddelivery.dto.CursorPage;
+import com.fooddelivery.dto.DeliveryStatsDto;
+import com.fooddelivery.dto.KitchenStatusDto;
+import com.fooddelivery.dto.LiveOrderStatsDto;
 import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.dto.RestaurantQuery;
 import com.fooddelivery.dto.RestaurantRequest;
 import com.fooddelivery.service.RestaurantService;
 import lombok.RequiredArgsConstructor;
@@ -33,18 +38,55 @@ public class RestaurantController {
 		return ResponseEntity.ok(restaurants);
 	}
 	
+	@GetMapping("/cursor")
+	public ResponseEntity<CursorPage<RestaurantDto>> getAllRestaurantsByCursor(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(defaultValue = "false") boolean includeTotal) {
+		CursorPage<RestaurantDto> restaurants = restaurantService.getAllRestaurants(cursor, size, includeTotal);
+		return ResponseEntity.ok(restaurants);
+	}
+	
 	@GetMapping("/{id}")
 	public ResponseEntity<RestaurantDto> getRestaurantById(@PathVariable Long id) {
 		RestaurantDto restaurant = restaurantService.getRestaurantById(id);
 		return ResponseEntity.ok(restaurant);
 	}
 	
+	@GetMapping("/{id}/kitchen")
+	public ResponseEntity<KitchenStatusDto> getKitchenStatus(@PathVariable Long id) {
+		KitchenStatusDto status = restaurantService.getKitchenStatus(id);
+		return ResponseEntity.ok(status);
+	}
+	
+	@GetMapping("/{id}/delivery-stats")
+	public ResponseEntity<DeliveryStatsDto> getDeliveryStats(@PathVariable Long id) {
+		DeliveryStatsDto stats = restaurantService.getDeliveryStats(id);
+		return ResponseEntity.ok(stats);
+	}
+	
+	@GetMapping("/{id}/live-stats")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<LiveOrderStatsDto> getLiveStats(@PathVariable Long id) {
+		LiveOrderStatsDto stats = restaurantService.getLiveStats(id);
+		return ResponseEntity.ok(stats);
+	}
+	
 	@GetMapping("/search")
 	public ResponseEntity<List<RestaurantDto>> searchRestaurants(@RequestParam String q) {
 		List<RestaurantDto> restaurants = restaurantService.searchRestaurants(q);
 		return ResponseEntity.ok(restaurants);
 	}
 	
+	@GetMapping("/query")
+	public ResponseEntity<Page<RestaurantDto>> queryRestaurants(
+			RestaurantQuery query,
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size) {
+		Page<RestaurantDto> restaurants = restaurantService.queryRestaurants(query, page, size);
+		return ResponseEntity.ok(restaurants);
+	}
+	
 	@GetMapping("/cuisine/{cuisine}")
 	public ResponseEntity<List<RestaurantDto>> getRestaurantsByCuisine(@PathVariable String cuisine) {
 		List<RestaurantDto> restaurants = restaurantService.getRestaurantsByCuisine(cuisine);
@@ -0,0 +1,24 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.SuggestionDto;
+import com.fooddelivery.search.SuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SearchController {
+	
+	private final SuggestionService suggestionService;
+	
+	@GetMapping("/suggest")
+	public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam String q, @RequestParam(defaultValue = "8") int limit) {
+		List<SuggestionDto> suggestions = suggestionService.suggest(q, limit);
+		return ResponseEntity.ok(suggestions);
+	}
+}
@@ -0,0 +1,151 @@
+package com.fooddelivery.dispatch;
+
+import com.fooddelivery.repository.JdbcOrderAssignmentWriter;
+import com.fooddelivery.repository.JdbcOrderAssignmentWriter.Assignment;
+import com.fooddelivery.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns ready orders to riders in rounds. Each round takes the oldest unassigned ready orders, pairs
+ * each with its nearest available riders, and hands out pairs cheapest first, where the cost is the
+ * rider's travel time to the restaurant minus a credit for how long the order has been waiting. The
+ * round's assignments are written back as one batch; riders whose order was taken meanwhile are freed.
+ */
+@Component
+@Slf4j
+public class DispatchMatcher {
+
+	private final OrderRepository orderRepository;
+	private final JdbcOrderAssignmentWriter assignmentWriter;
+	private final RiderRegistry riderRegistry;
+	private final boolean enabled;
+	private final int batchSize;
+	private final double radiusKm;
+	private final int candidatesPerOrder;
+	private final double speedKmh;
+	private final double waitCredit;
+
+	private final Timer roundTimer;
+	private final Counter assigned;
+	private final Counter unmatched;
+
+	private volatile Round lastRound;
+
+	public record Round(LocalDateTime at, long millis, int assigned, int unmatched) {
+	}
+
+	private record Candidate(Long orderId, RiderState rider, double cost) {
+	}
+
+	public DispatchMatcher(OrderRepository orderRepository,
+			JdbcOrderAssignmentWriter assignmentWriter,
+			RiderRegistry riderRegistry,
+			MeterRegistry meterRegistry,
+			@Value("${dispatch.enabled:true}") boolean enabled,
+			@Value("${dispatch.batch-size:500}") int batchSize,
+			@Value("${dispatch.radius-km:5}") double radiusKm,
+			@Value("${dispatch.candidates-per-order:5}") int candidatesPerOrder,
+			@Value("${dispatch.rider-speed-kmh:20}") double speedKmh,
+			@Value("${dispatch.wait-credit:0.5}") double waitCredit) {
+		this.orderRepository = orderRepository;
+		this.assignmentWriter = assignmentWriter;
+		this.riderRegistry = riderRegistry;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.radiusKm = radiusKm;
+		this.candidatesPerOrder = candidatesPerOrder;
+		this.speedKmh = speedKmh;
+		this.waitCredit = waitCredit;
+		this.roundTimer = Timer.builder("dispatch.round").register(meterRegistry);
+		this.assigned = Counter.builder("dispatch.assigned").register(meterRegistry);
+		this.unmatched = Counter.builder("dispatch.unmatched").register(meterRegistry);
+	}
+
+	public Round lastRound() {
+		return lastRound;
+	}
+
+	@Scheduled(fixedDelayString = "${dispatch.interval-ms:5000}", initialDelayString = "${dispatch.interval-ms:5000}")
+	public void match() {
+		if (!enabled) {
+			return;
+		}
+		long start = System.nanoTime();
+		List<OrderRepository.DispatchOrderRow> orders = orderRepository.findUnassignedReadyOrders(PageRequest.of(0, batchSize));
+		if (orders.isEmpty()) {
+			lastRound = new Round(LocalDateTime.now(), (System.nanoTime() - start) / 1_000_000, 0, 0);
+			return;
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		List<Candidate> candidates = new ArrayList<>();
+		for (OrderRepository.DispatchOrderRow order : orders) {
+			if (order.getLatitude() == null || order.getLongitude() == null) {
+				continue; // restaurant has no pickup point
+			}
+			double waitedMinutes = order.getReadySince() == null ? 0
+					: Math.max(0, Duration.between(order.getReadySince(), now).toSeconds() / 60.0);
+			for (RiderState rider : riderRegistry.nearestAvailable(order.getLatitude(), order.getLongitude(),
+					radiusKm, candidatesPerOrder)) {
+				double travelMinutes = RiderRegistry.distanceKm(order.getLatitude(), order.getLongitude(), rider) / speedKmh * 60;
+				candidates.add(new Candidate(order.getOrderId(), rider, travelMinutes - waitCredit * waitedMinutes));
+			}
+		}
+		candidates.sort(Comparator.comparingDouble(Candidate::cost));
+
+		Map<Long, RiderState> chosen = new HashMap<>();
+		for (Candidate candidate : candidates) {
+			if (!chosen.containsKey(candidate.orderId()) && riderRegistry.claim(candidate.rider(), candidate.orderId())) {
+				chosen.put(candidate.orderId(), candidate.rider());
+			}
+		}
+
+		int written = write(chosen);
+		int missed = orders.size() - written;
+		assigned.increment(written);
+		unmatched.increment(missed);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		roundTimer.record(Duration.ofMillis(millis));
+		lastRound = new Round(now, millis, written, missed);
+		log.debug("Dispatch round assigned {} of {} ready orders in {} ms", written, orders.size(), millis);
+	}
+
+	private int write(Map<Long, RiderState> chosen) {
+		if (chosen.isEmpty()) {
+			return 0;
+		}
+		List<Assignment> assignments = new ArrayList<>(chosen.size());
+		chosen.forEach((orderId, rider) -> assignments.add(new Assignment(orderId, rider.getName(), rider.getPhone())));
+		Set<Long> confirmed;
+		try {
+			confirmed = assignmentWriter.assignAll(assignments);
+		} catch (DataAccessException ex) {
+			log.warn("Failed to write {} rider assignments: {}", assignments.size(), ex.getMessage());
+			confirmed = Set.of();
+		}
+		// taken by another node, or no longer ready
+		for (Map.Entry<Long, RiderState> entry : chosen.entrySet()) {
+			if (!confirmed.contains(entry.getKey())) {
+				riderRegistry.release(entry.getValue(), entry.getKey());
+			}
+		}
+		return confirmed.size();
+	}
+}
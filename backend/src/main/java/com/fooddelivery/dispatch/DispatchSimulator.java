@@ -0,0 +1,97 @@
+package com.fooddelivery.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Synthetic riders for load and behaviour testing, off unless dispatch.simulator.enabled=true. They
+ * exist only in the registry (negative ids, SIM phone numbers), wander around a centre point pinging
+ * on every tick, and finish a trip a fixed time after being assigned. They do get real ready orders,
+ * so only enable this against a test database.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.simulator.enabled", havingValue = "true")
+@Slf4j
+public class DispatchSimulator {
+
+	private final RiderRegistry riderRegistry;
+	private final int riderCount;
+	private final double centerLatitude;
+	private final double centerLongitude;
+	private final double radiusKm;
+	private final double stepKm;
+	private final long tripMs;
+
+	private final List<RiderState> riders = new ArrayList<>();
+
+	public DispatchSimulator(RiderRegistry riderRegistry,
+			@Value("${dispatch.simulator.riders:10000}") int riderCount,
+			@Value("${dispatch.simulator.center-latitude:12.9716}") double centerLatitude,
+			@Value("${dispatch.simulator.center-longitude:77.5946}") double centerLongitude,
+			@Value("${dispatch.simulator.radius-km:10}") double radiusKm,
+			@Value("${dispatch.simulator.step-km:0.05}") double stepKm,
+			@Value("${dispatch.simulator.trip-ms:120000}") long tripMs) {
+		this.riderRegistry = riderRegistry;
+		this.riderCount = riderCount;
+		this.centerLatitude = centerLatitude;
+		this.centerLongitude = centerLongitude;
+		this.radiusKm = radiusKm;
+		this.stepKm = stepKm;
+		this.tripMs = tripMs;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 1; i <= riderCount; i++) {
+			RiderState rider = riderRegistry.register((long) -i, "Sim Rider " + i, String.format("SIM%07d", i));
+			double distance = radiusKm * Math.sqrt(random.nextDouble());
+			double bearing = random.nextDouble() * 2 * Math.PI;
+			riderRegistry.ping(rider.getId(), centerLatitude + toLatitude(distance * Math.cos(bearing)),
+					centerLongitude + toLongitude(distance * Math.sin(bearing)), true);
+			riders.add(rider);
+		}
+		log.info("Dispatch simulator started {} riders around {}, {}", riderCount, centerLatitude, centerLongitude);
+	}
+
+	// every rider pings once per tick, from parallel threads like real traffic would
+	@Scheduled(fixedRateString = "${dispatch.simulator.ping-interval-ms:1000}",
+			initialDelayString = "${dispatch.simulator.ping-interval-ms:1000}")
+	public synchronized void tick() {
+		long start = System.nanoTime();
+		long tripEndedBefore = System.currentTimeMillis() - tripMs;
+		riders.parallelStream().forEach(rider -> {
+			Long orderId = rider.getOrderId();
+			if (orderId != null && rider.getAssignedAt() < tripEndedBefore) {
+				riderRegistry.release(rider, orderId);
+			}
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			double latitude = rider.getLatitude() + toLatitude((random.nextDouble() * 2 - 1) * stepKm);
+			double longitude = rider.getLongitude() + toLongitude((random.nextDouble() * 2 - 1) * stepKm);
+			// drift back towards the centre instead of leaving the area
+			if (GridIndex.distanceKm(centerLatitude, centerLongitude, latitude, longitude) > radiusKm) {
+				latitude = (latitude + centerLatitude) / 2;
+				longitude = (longitude + centerLongitude) / 2;
+			}
+			riderRegistry.ping(rider.getId(), latitude, longitude, null);
+		});
+		log.debug("Dispatch simulator sent {} pings in {} ms", riders.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static double toLatitude(double km) {
+		return km / 111.32;
+	}
+
+	private double toLongitude(double km) {
+		return km / (111.32 * Math.cos(Math.toRadians(centerLatitude)));
+	}
+}
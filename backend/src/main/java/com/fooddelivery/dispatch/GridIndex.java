@@ -0,0 +1,96 @@
+package com.fooddelivery.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Uniform latitude/longitude grid of rider positions. Moving a rider touches at most two cells, and a
+ * radius query only visits the cells of its bounding box, so neither depends on how many riders there are.
+ */
+final class GridIndex {
+
+	private static final double KM_PER_DEGREE = 111.32;
+
+	private final double cellDegrees;
+	private final long columns;
+	private final Map<Long, Set<RiderState>> cells = new ConcurrentHashMap<>();
+
+	GridIndex(double cellDegrees) {
+		this.cellDegrees = cellDegrees;
+		this.columns = (long) Math.ceil(360 / cellDegrees) + 1;
+	}
+
+	long cellOf(double latitude, double longitude) {
+		return row(latitude) * columns + column(longitude);
+	}
+
+	// callers hold the rider's lock, so a rider is never in two cells for long
+	void move(RiderState rider, long from, long to) {
+		if (from == to) {
+			return;
+		}
+		if (from != RiderState.NO_CELL) {
+			remove(rider, from);
+		}
+		cells.compute(to, (key, set) -> {
+			Set<RiderState> riders = set != null ? set : ConcurrentHashMap.newKeySet();
+			riders.add(rider);
+			return riders;
+		});
+	}
+
+	void remove(RiderState rider, long cell) {
+		cells.computeIfPresent(cell, (key, set) -> {
+			set.remove(rider);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	List<RiderState> within(double latitude, double longitude, double radiusKm, Predicate<RiderState> filter) {
+		double latSpan = radiusKm / KM_PER_DEGREE;
+		double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+		long minRow = row(latitude - latSpan);
+		long maxRow = row(latitude + latSpan);
+		long minColumn = column(longitude - lonSpan);
+		long maxColumn = column(longitude + lonSpan);
+		List<RiderState> found = new ArrayList<>();
+		for (long row = minRow; row <= maxRow; row++) {
+			for (long column = minColumn; column <= maxColumn; column++) {
+				Set<RiderState> riders = cells.get(row * columns + column);
+				if (riders == null) {
+					continue;
+				}
+				for (RiderState rider : riders) {
+					if (filter.test(rider)
+							&& distanceKm(latitude, longitude, rider.getLatitude(), rider.getLongitude()) <= radiusKm) {
+						found.add(rider);
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	int cellCount() {
+		return cells.size();
+	}
+
+	// equirectangular approximation; well within a percent at city distances
+	static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+		double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+		double y = Math.toRadians(lat2 - lat1);
+		return Math.sqrt(x * x + y * y) * 6371.0;
+	}
+
+	private long row(double latitude) {
+		return (long) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees);
+	}
+
+	private long column(double longitude) {
+		return (long) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / cellDegrees);
+	}
+}
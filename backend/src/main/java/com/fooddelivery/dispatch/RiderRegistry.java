@@ -0,0 +1,181 @@
+package com.fooddelivery.dispatch;
+
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.entity.Rider;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.RiderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Riders known to this node with their last reported position, indexed on a grid for nearest-rider
+ * lookups. Pings only touch the pinging rider and at most two grid cells, so they scale with cores
+ * rather than with the number of riders. Assignments are restored from open orders at startup.
+ */
+@Component
+@Slf4j
+public class RiderRegistry {
+
+	private final RiderRepository riderRepository;
+	private final OrderRepository orderRepository;
+	private final GridIndex grid;
+	private final long riderTimeoutMs;
+
+	private final Map<Long, RiderState> riders = new ConcurrentHashMap<>();
+	private final Map<String, RiderState> byPhone = new ConcurrentHashMap<>();
+	// orderId -> rider delivering it
+	private final Map<Long, RiderState> byOrder = new ConcurrentHashMap<>();
+
+	private final Counter pings;
+
+	public RiderRegistry(RiderRepository riderRepository,
+			OrderRepository orderRepository,
+			MeterRegistry meterRegistry,
+			@Value("${dispatch.grid.cell-degrees:0.01}") double cellDegrees,
+			@Value("${dispatch.rider-timeout-ms:60000}") long riderTimeoutMs) {
+		this.riderRepository = riderRepository;
+		this.orderRepository = orderRepository;
+		this.grid = new GridIndex(cellDegrees);
+		this.riderTimeoutMs = riderTimeoutMs;
+		this.pings = Counter.builder("dispatch.rider.pings").register(meterRegistry);
+		Gauge.builder("dispatch.riders", riders, Map::size).register(meterRegistry);
+		Gauge.builder("dispatch.riders.assigned", byOrder, Map::size).register(meterRegistry);
+		Gauge.builder("dispatch.grid.cells", grid, GridIndex::cellCount).register(meterRegistry);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void bootstrap() {
+		riderRepository.findByIsActiveTrue().forEach(this::register);
+		int restored = 0;
+		for (OrderRepository.AssignedOrderRow row : orderRepository.findAssignedOpenOrders()) {
+			RiderState rider = byPhone.get(row.getDeliveryPersonPhone());
+			if (rider != null && claim(rider, row.getOrderId())) {
+				restored++;
+			}
+		}
+		log.info("Rider registry loaded {} riders, {} with an open delivery", riders.size(), restored);
+	}
+
+	public RiderState register(Rider rider) {
+		return register(rider.getId(), rider.getName(), rider.getPhone());
+	}
+
+	public RiderState register(Long id, String name, String phone) {
+		RiderState rider = riders.computeIfAbsent(id, key -> new RiderState(id, name, phone));
+		byPhone.putIfAbsent(phone, rider);
+		return rider;
+	}
+
+	public void remove(Long riderId) {
+		RiderState rider = riders.remove(riderId);
+		if (rider == null) {
+			return;
+		}
+		synchronized (rider) {
+			byPhone.remove(rider.getPhone(), rider);
+			if (rider.cell() != RiderState.NO_CELL) {
+				grid.remove(rider, rider.cell());
+				rider.leaveGrid();
+			}
+		}
+	}
+
+	public Optional<RiderState> get(Long riderId) {
+		return Optional.ofNullable(riders.get(riderId));
+	}
+
+	public Collection<RiderState> riders() {
+		return riders.values();
+	}
+
+	/**
+	 * Records a location ping; false when the rider is unknown.
+	 */
+	public boolean ping(Long riderId, double latitude, double longitude, Boolean available) {
+		RiderState rider = riders.get(riderId);
+		if (rider == null) {
+			return false;
+		}
+		long cell = grid.cellOf(latitude, longitude);
+		synchronized (rider) {
+			if (available != null) {
+				rider.setOnShift(available);
+			}
+			if (riders.get(riderId) != rider) {
+				return false; // removed in the meantime
+			}
+			grid.move(rider, rider.cell(), cell);
+			rider.moveTo(latitude, longitude, cell, System.currentTimeMillis());
+		}
+		pings.increment();
+		return true;
+	}
+
+	/**
+	 * Available riders within the radius, nearest first, at most {@code limit} of them.
+	 */
+	public List<RiderState> nearestAvailable(double latitude, double longitude, double radiusKm, int limit) {
+		long staleBefore = staleBefore();
+		return grid.within(latitude, longitude, radiusKm, rider -> rider.status(staleBefore) == RiderStatus.AVAILABLE)
+				.stream()
+				.sorted(Comparator.comparingDouble(rider -> distanceKm(latitude, longitude, rider)))
+				.limit(limit)
+				.toList();
+	}
+
+	/**
+	 * Gives the order to the rider if the rider has none; the matcher calls this before writing the assignment.
+	 */
+	public boolean claim(RiderState rider, Long orderId) {
+		synchronized (rider) {
+			if (rider.getOrderId() != null) {
+				return false;
+			}
+			rider.assign(orderId, System.currentTimeMillis());
+			byOrder.put(orderId, rider);
+			return true;
+		}
+	}
+
+	public void release(RiderState rider, Long orderId) {
+		synchronized (rider) {
+			if (orderId.equals(rider.getOrderId())) {
+				byOrder.remove(orderId, rider);
+				rider.assign(null, 0);
+			}
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+		if (event.getStatus() == OrderStatus.DELIVERED || event.getStatus() == OrderStatus.CANCELLED) {
+			RiderState rider = byOrder.get(event.getOrderId());
+			if (rider != null) {
+				release(rider, event.getOrderId());
+			}
+		}
+	}
+
+	public long staleBefore() {
+		return System.currentTimeMillis() - riderTimeoutMs;
+	}
+
+	static double distanceKm(double latitude, double longitude, RiderState rider) {
+		return GridIndex.distanceKm(latitude, longitude, rider.getLatitude(), rider.getLongitude());
+	}
+}
@@ -0,0 +1,95 @@
+package com.fooddelivery.dispatch;
+
+/**
+ * Live state of one rider. Locations are written by pings and read by the matcher without locking;
+ * changes to the assignment go through the registry, which synchronizes on the rider.
+ */
+public final class RiderState {
+
+	static final long NO_CELL = Long.MIN_VALUE;
+
+	private final Long id;
+	private final String name;
+	private final String phone;
+
+	private volatile double latitude;
+	private volatile double longitude;
+	private volatile long lastPingAt;
+	private volatile long cell = NO_CELL;
+	private volatile boolean onShift;
+	private volatile Long orderId;
+	private volatile long assignedAt;
+
+	RiderState(Long id, String name, String phone) {
+		this.id = id;
+		this.name = name;
+		this.phone = phone;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getPhone() {
+		return phone;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public long getLastPingAt() {
+		return lastPingAt;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public long getAssignedAt() {
+		return assignedAt;
+	}
+
+	public boolean hasLocation() {
+		return lastPingAt > 0;
+	}
+
+	public RiderStatus status(long staleBefore) {
+		if (orderId != null) {
+			return RiderStatus.ASSIGNED;
+		}
+		return onShift && lastPingAt >= staleBefore ? RiderStatus.AVAILABLE : RiderStatus.OFFLINE;
+	}
+
+	long cell() {
+		return cell;
+	}
+
+	void moveTo(double latitude, double longitude, long cell, long at) {
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.cell = cell;
+		this.lastPingAt = at;
+	}
+
+	void leaveGrid() {
+		this.cell = NO_CELL;
+	}
+
+	void setOnShift(boolean onShift) {
+		this.onShift = onShift;
+	}
+
+	void assign(Long orderId, long at) {
+		this.orderId = orderId;
+		this.assignedAt = at;
+	}
+}
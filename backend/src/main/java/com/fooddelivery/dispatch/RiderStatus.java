@@ -0,0 +1,8 @@
+package com.fooddelivery.dispatch;
+
+public enum RiderStatus {
+	// off shift, or no location ping within dispatch.rider-timeout-ms
+	OFFLINE,
+	AVAILABLE,
+	ASSIGNED
+}
@@ -0,0 +1,32 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+	
+	private List<T> content;
+	private int size;
+	private boolean hasNext;
+	private String nextCursor;
+	private Long totalElements; // only filled when the caller asked for it
+	
+	/**
+	 * Builds a page from a query that fetched {@code size + 1} rows; the extra row only signals that more exist.
+	 */
+	public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, PageCursor> cursorOf, Function<E, T> mapper, Long totalElements) {
+		boolean hasNext = rows.size() > size;
+		List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+		String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+		List<T> content = pageRows.stream().map(mapper).collect(Collectors.toList());
+		return new CursorPage<>(content, size, hasNext, nextCursor, totalElements);
+	}
+}
@@ -0,0 +1,23 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryStatsDto {
+    
+    private Long restaurantId;
+    private long sampleCount;
+    // minutes from order placement to delivery; null until there are enough samples
+    private Integer medianMinutes;
+    private Integer p90Minutes;
+    private Integer p99Minutes;
+    // the same for orders placed in the current hour of the week (0 = Monday 00:00)
+    private int hourOfWeek;
+    private long hourSampleCount;
+    private Integer hourMedianMinutes;
+    private Integer hourP90Minutes;
+}
@@ -0,0 +1,24 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStatsDto {
+    
+    private int riders;
+    private int availableRiders;
+    private int assignedRiders;
+    private int offlineRiders;
+    // last matching round
+    private LocalDateTime lastRunAt;
+    private long lastRunMillis;
+    private int lastAssigned;
+    // ready orders the last round could not find a rider for
+    private int lastUnmatched;
+}
@@ -0,0 +1,22 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenStatusDto {
+    
+    private Long restaurantId;
+    private int slots;
+    private int queuedOrders;
+    private int preparingOrders;
+    // minutes until a prep slot frees up for a new order
+    private int waitMinutes;
+    // what a new order placed now would be quoted, with a typical prep time
+    private LocalDateTime estimatedDeliveryTime;
+}
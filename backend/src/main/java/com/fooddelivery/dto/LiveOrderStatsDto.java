@@ -0,0 +1,24 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveOrderStatsDto {
+    
+    private Long restaurantId;
+    // every status is present, zero included
+    private Map<Order.OrderStatus, Long> ordersByStatus;
+    // PENDING through OUT_FOR_DELIVERY
+    private long openOrders;
+    private long totalOrders;
+    // last time the counters were checked against the database
+    private LocalDateTime reconciledAt;
+}
@@ -26,4 +26,26 @@ public class MenuItemDto {
     private String categoryName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    // JPQL constructor projection: scalar columns first, then the restaurant and category joins
+    public MenuItemDto(Long id, String name, String description, double price, String imageUrl,
+                       boolean isVegetarian, boolean isSpicy, boolean isAvailable, int preparationTime,
+                       LocalDateTime createdAt, LocalDateTime updatedAt,
+                       Long restaurantId, String restaurantName, Long categoryId, String categoryName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.isVegetarian = isVegetarian;
+        this.isSpicy = isSpicy;
+        this.isAvailable = isAvailable;
+        this.preparationTime = preparationTime;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+    }
 }
\ No newline at end of file
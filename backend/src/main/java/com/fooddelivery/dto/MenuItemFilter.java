@@ -0,0 +1,18 @@
+package com.fooddelivery.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional menu filters bound from query parameters; a null field means "don't filter".
+ */
+@Data
+@NoArgsConstructor
+public class MenuItemFilter {
+    
+    private Long categoryId;
+    private Boolean vegetarian;
+    private Boolean spicy;
+    private Double minPrice;
+    private Double maxPrice;
+}
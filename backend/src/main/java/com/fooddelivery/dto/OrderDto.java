@@ -39,6 +39,39 @@ public class OrderDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // JPQL constructor projection of the order header; items are loaded separately in one query per page
+    public OrderDto(Long id, String orderNumber, Long userId, String userFirstName, String userLastName,
+                    Long restaurantId, String restaurantName, double subtotal, double deliveryFee, double tax, double total,
+                    String deliveryAddress, String deliveryPhone, String deliveryInstructions,
+                    Order.OrderStatus status, Order.PaymentStatus paymentStatus, String paymentMethod, String paymentId,
+                    LocalDateTime orderTime, LocalDateTime estimatedDeliveryTime, LocalDateTime actualDeliveryTime,
+                    String deliveryPersonName, String deliveryPersonPhone, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.userId = userId;
+        this.userName = userFirstName + " " + userLastName;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.subtotal = subtotal;
+        this.deliveryFee = deliveryFee;
+        this.tax = tax;
+        this.total = total;
+        this.deliveryAddress = deliveryAddress;
+        this.deliveryPhone = deliveryPhone;
+        this.deliveryInstructions = deliveryInstructions;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.paymentMethod = paymentMethod;
+        this.paymentId = paymentId;
+        this.orderTime = orderTime;
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+        this.actualDeliveryTime = actualDeliveryTime;
+        this.deliveryPersonName = deliveryPersonName;
+        this.deliveryPersonPhone = deliveryPersonPhone;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,24 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.entity.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchRequest {
+    
+    @NotEmpty(message = "Order IDs are required")
+    @Size(max = 200, message = "At most 200 orders can be updated at once")
+    private List<@NotNull Long> orderIds;
+    
+    @NotNull(message = "Status is required")
+    private Order.OrderStatus status;
+}
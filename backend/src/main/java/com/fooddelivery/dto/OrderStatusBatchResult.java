@@ -0,0 +1,32 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchResult {
+    
+    private Order.OrderStatus status;
+    private int updated;
+    private List<OrderOutcome> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderOutcome {
+        private Long orderId;
+        private Outcome outcome;
+        // status before this request; null when the order does not exist
+        private Order.OrderStatus previousStatus;
+    }
+    
+    public enum Outcome {
+        UPDATED, UNCHANGED, NOT_FOUND, ILLEGAL_TRANSITION
+    }
+}
@@ -0,0 +1,23 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSubmissionDto {
+    
+    private String orderNumber;
+    private SubmissionStatus status;
+    private Long orderId; // set once the order is stored
+    private String message; // failure reason
+    private LocalDateTime acceptedAt;
+    
+    public enum SubmissionStatus {
+        QUEUED, CREATED, FAILED
+    }
+}
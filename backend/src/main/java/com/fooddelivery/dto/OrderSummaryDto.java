@@ -0,0 +1,30 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    
+    private Long id;
+    private String orderNumber;
+    private Long userId;
+    private String userName;
+    private Long restaurantId;
+    private String restaurantName;
+    private int itemCount;
+    private double total;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private LocalDateTime orderTime;
+    private LocalDateTime estimatedDeliveryTime;
+    private LocalDateTime actualDeliveryTime;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTrackingEvent {
+    
+    private EventType type;
+    private Long orderId;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private LocalDateTime changedAt;
+    
+    public enum EventType {
+        // current state, sent first on a new connection or when a resume is not possible
+        SNAPSHOT,
+        STATUS,
+        PAYMENT_STATUS,
+        // missed events cannot be replayed; the client should reload
+        RESYNC
+    }
+}
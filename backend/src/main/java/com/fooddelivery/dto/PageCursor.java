@@ -0,0 +1,53 @@
+package com.fooddelivery.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key of the last row on a page plus its id as a tiebreaker.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PageCursor {
+	
+	private static final char SEPARATOR = '|';
+	
+	private final String sortKey;
+	private final Long id;
+	
+	public static PageCursor of(LocalDateTime createdAt, Long id) {
+		return new PageCursor(createdAt.toString(), id);
+	}
+	
+	public LocalDateTime createdAt() {
+		try {
+			return LocalDateTime.parse(sortKey);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid page cursor");
+		}
+	}
+	
+	public String encode() {
+		String raw = sortKey + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static PageCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.lastIndexOf(SEPARATOR);
+			if (separator < 0) {
+				throw new IllegalArgumentException("Invalid page cursor");
+			}
+			return new PageCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException e) {
+			// also covers bad base64 and NumberFormatException
+			throw new IllegalArgumentException("Invalid page cursor");
+		}
+	}
+}
@@ -24,10 +24,45 @@ public class RestaurantDto {
     private boolean isActive;
     private boolean isOpen;
     private int deliveryTime;
+    // median of real delivery times for orders placed at this hour of the week, when known
+    private Integer typicalDeliveryTime;
     private double deliveryFee;
     private double minimumOrder;
+    private Double latitude;
+    private Double longitude;
     private Long ownerId;
     private String ownerName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    // JPQL constructor projection: scalar columns first, then the owner join (null when there is no owner)
+    public RestaurantDto(Long id, String name, String description, String address, String phone, String email,
+                         String cuisine, String imageUrl, double rating, int reviewCount, boolean isActive, boolean isOpen,
+                         int deliveryTime, double deliveryFee, double minimumOrder, Double latitude, Double longitude,
+                         LocalDateTime createdAt, LocalDateTime updatedAt, Long ownerId, String ownerFirstName,
+                         String ownerLastName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.address = address;
+        this.phone = phone;
+        this.email = email;
+        this.cuisine = cuisine;
+        this.imageUrl = imageUrl;
+        this.rating = rating;
+        this.reviewCount = reviewCount;
+        this.isActive = isActive;
+        this.isOpen = isOpen;
+        this.deliveryTime = deliveryTime;
+        this.deliveryFee = deliveryFee;
+        this.minimumOrder = minimumOrder;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        if (ownerId != null) {
+            this.ownerId = ownerId;
+            this.ownerName = ownerFirstName + " " + ownerLastName;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.fooddelivery.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Combined restaurant filters bound from query parameters; null fields are not applied.
+ */
+@Data
+@NoArgsConstructor
+public class RestaurantQuery {
+    
+    private String q;
+    private String cuisine;
+    private Double minRating;
+    private Integer maxDeliveryTime;
+    private Double maxDeliveryFee;
+    private SortOrder orderBy;
+    
+    public enum SortOrder {
+        RELEVANCE, RATING, DELIVERY_TIME, DELIVERY_FEE, NEWEST, NAME
+    }
+}
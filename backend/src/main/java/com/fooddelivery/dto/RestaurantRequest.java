@@ -43,6 +43,14 @@ public class RestaurantRequest {
 	@DecimalMin(value = "0.0", inclusive = true, message = "Minimum order cannot be negative")
 	private double minimumOrder = 10.0;
 	
+	@DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+	@DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+	private Double latitude;
+	
+	@DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+	@DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+	private Double longitude;
+	
 	private Boolean active = true;
 	private Boolean open = true;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantRevenueDto {
+    
+    private Long restaurantId;
+    private String restaurantName;
+    private Long orderCount;
+    private Double gross;
+    private Double tax;
+    private Double deliveryFees;
+    private Long cancelledOrders;
+    private Double cancelledGross;
+    private Long paymentsCompleted;
+    private Long paymentsFailed;
+    private Long paymentsRefunded;
+}
@@ -0,0 +1,25 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueBucketDto {
+    
+    // start of the hour or day; orders are bucketed by placement time
+    private LocalDateTime bucketStart;
+    private Long orderCount;
+    private Double gross;
+    private Double tax;
+    private Double deliveryFees;
+    private Long cancelledOrders;
+    private Double cancelledGross;
+    private Long paymentsCompleted;
+    private Long paymentsFailed;
+    private Long paymentsRefunded;
+}
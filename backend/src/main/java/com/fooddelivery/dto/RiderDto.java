@@ -0,0 +1,24 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.dispatch.RiderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiderDto {
+    
+    private Long id;
+    private String name;
+    private String phone;
+    private RiderStatus status;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime lastPingAt;
+    // the order being delivered, while ASSIGNED
+    private Long orderId;
+}
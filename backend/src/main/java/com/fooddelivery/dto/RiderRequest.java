@@ -0,0 +1,22 @@
+package com.fooddelivery.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiderRequest {
+    
+    @NotBlank(message = "Rider name is required")
+    @Size(max = 100, message = "Rider name must be at most 100 characters")
+    private String name;
+    
+    @NotBlank(message = "Phone is required")
+    @Pattern(regexp = "^[0-9]{10}$", message = "Phone number must be 10 digits")
+    private String phone;
+}
@@ -0,0 +1,25 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildStatusDto {
+    
+    private boolean running;
+    // days rebuilt, both ends included
+    private LocalDate from;
+    private LocalDate to;
+    private int daysDone;
+    private int daysTotal;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // set when the rebuild stopped on an error
+    private String error;
+}
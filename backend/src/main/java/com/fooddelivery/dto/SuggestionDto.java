@@ -0,0 +1,19 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    
+    private String text;
+    private SuggestionType type;
+    private Long id; // restaurant id for RESTAURANT suggestions, otherwise null
+    
+    public enum SuggestionType {
+        RESTAURANT, CUISINE, CATEGORY, DISH
+    }
+}
@@ -0,0 +1,39 @@
+package com.fooddelivery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "scope_key", length = 64)
+    private String scopeKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // null while the first request is still running
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "response_body", columnDefinition = "LONGBLOB")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -6,7 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Entity
 @Table(name = "orders")
@@ -89,12 +93,20 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // bumped by every status and payment status update, including the single-statement ones in OrderRepository
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         orderTime = LocalDateTime.now();
-        estimatedDeliveryTime = LocalDateTime.now().plusMinutes(30);
+        // normally quoted by the kitchen scheduler before the order is saved
+        if (estimatedDeliveryTime == null) {
+            estimatedDeliveryTime = LocalDateTime.now().plusMinutes(30);
+        }
     }
     
     @PreUpdate
@@ -103,10 +115,40 @@ public class Order {
     }
     
     public enum OrderStatus {
-        PENDING, CONFIRMED, PREPARING, READY_FOR_DELIVERY, OUT_FOR_DELIVERY, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, PREPARING, READY_FOR_DELIVERY, OUT_FOR_DELIVERY, DELIVERED, CANCELLED;
+        
+        private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+        
+        static {
+            TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, CANCELLED));
+            TRANSITIONS.put(CONFIRMED, EnumSet.of(PREPARING, CANCELLED));
+            TRANSITIONS.put(PREPARING, EnumSet.of(READY_FOR_DELIVERY, CANCELLED));
+            TRANSITIONS.put(READY_FOR_DELIVERY, EnumSet.of(OUT_FOR_DELIVERY));
+            TRANSITIONS.put(OUT_FOR_DELIVERY, EnumSet.of(DELIVERED));
+            TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+            TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        }
+        
+        public boolean canTransitionTo(OrderStatus next) {
+            return TRANSITIONS.get(this).contains(next);
+        }
     }
     
     public enum PaymentStatus {
-        PENDING, COMPLETED, FAILED, REFUNDED
+        PENDING, COMPLETED, FAILED, REFUNDED;
+        
+        private static final Map<PaymentStatus, Set<PaymentStatus>> TRANSITIONS = new EnumMap<>(PaymentStatus.class);
+        
+        static {
+            TRANSITIONS.put(PENDING, EnumSet.of(COMPLETED, FAILED));
+            // a failed payment may be retried
+            TRANSITIONS.put(FAILED, EnumSet.of(PENDING, COMPLETED));
+            TRANSITIONS.put(COMPLETED, EnumSet.of(REFUNDED));
+            TRANSITIONS.put(REFUNDED, EnumSet.noneOf(PaymentStatus.class));
+        }
+        
+        public boolean canTransitionTo(PaymentStatus next) {
+            return TRANSITIONS.get(this).contains(next);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.fooddelivery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Order volume and revenue of one restaurant in one hour or day, by order placement time. Rows are
+ * only ever changed by delta upserts (JdbcOrderRollupWriter) and day-by-day rebuilds, never through JPA.
+ */
+@Entity
+@Table(name = "order_rollups")
+@IdClass(OrderRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRollup {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 5)
+    private Granularity granularity;
+    
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+    
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+    
+    // order totals, including tax and delivery fees
+    @Column(nullable = false)
+    private double gross;
+    
+    @Column(nullable = false)
+    private double tax;
+    
+    @Column(name = "delivery_fees", nullable = false)
+    private double deliveryFees;
+    
+    @Column(name = "cancelled_orders", nullable = false)
+    private long cancelledOrders;
+    
+    @Column(name = "cancelled_gross", nullable = false)
+    private double cancelledGross;
+    
+    // orders currently in each payment status
+    @Column(name = "payments_completed", nullable = false)
+    private long paymentsCompleted;
+    
+    @Column(name = "payments_failed", nullable = false)
+    private long paymentsFailed;
+    
+    @Column(name = "payments_refunded", nullable = false)
+    private long paymentsRefunded;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum Granularity {
+        HOUR, DAY
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Granularity granularity;
+        private Long restaurantId;
+        private LocalDateTime bucketStart;
+    }
+}
@@ -0,0 +1,106 @@
+package com.fooddelivery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized row per order for the order history lists, written in the same transaction as the
+ * order itself: inserted by OrderService.createOrder, then kept in step by each status change.
+ */
+@Entity
+@Table(name = "order_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary implements Persistable<Long> {
+    
+    // same as orders.id
+    @Id
+    @Column(name = "order_id")
+    private Long id;
+    
+    @Column(name = "order_number", nullable = false)
+    private String orderNumber;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "user_name")
+    private String userName;
+    
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+    
+    @Column(name = "restaurant_name")
+    private String restaurantName;
+    
+    // total quantity over all lines
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+    
+    @Column(nullable = false)
+    private double total;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.OrderStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false)
+    private Order.PaymentStatus paymentStatus;
+    
+    @Column(name = "order_time")
+    private LocalDateTime orderTime;
+    
+    @Column(name = "estimated_delivery_time")
+    private LocalDateTime estimatedDeliveryTime;
+    
+    @Column(name = "actual_delivery_time")
+    private LocalDateTime actualDeliveryTime;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // the id is assigned from the order, so save() must not look the row up first
+    @Transient
+    private boolean persisted;
+    
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        persisted = true;
+    }
+    
+    public static OrderSummary of(Order order, int itemCount) {
+        OrderSummary summary = new OrderSummary();
+        summary.setId(order.getId());
+        summary.setOrderNumber(order.getOrderNumber());
+        summary.setUserId(order.getUser().getId());
+        summary.setUserName(order.getUser().getFirstName() + " " + order.getUser().getLastName());
+        summary.setRestaurantId(order.getRestaurant().getId());
+        summary.setRestaurantName(order.getRestaurant().getName());
+        summary.setItemCount(itemCount);
+        summary.setTotal(order.getTotal());
+        summary.setStatus(order.getStatus());
+        summary.setPaymentStatus(order.getPaymentStatus());
+        summary.setOrderTime(order.getOrderTime());
+        summary.setEstimatedDeliveryTime(order.getEstimatedDeliveryTime());
+        summary.setActualDeliveryTime(order.getActualDeliveryTime());
+        summary.setCreatedAt(order.getCreatedAt());
+        summary.setUpdatedAt(order.getUpdatedAt());
+        return summary;
+    }
+}
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurants")
 @Table(name = "restaurants")
 @Data
 @NoArgsConstructor
@@ -61,9 +65,14 @@ public class Restaurant {
     @Column(name = "minimum_order")
     private double minimumOrder = 10.0;
     
+    // pickup point for rider dispatch
+    private Double latitude;
+    
+    private Double longitude;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
-    private User owner;
+    private RestaurantOwner owner;
     
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<MenuItem> menuItems;
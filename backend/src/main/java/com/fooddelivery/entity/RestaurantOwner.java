@@ -0,0 +1,37 @@
+package com.fooddelivery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Read-only view of the users row behind Restaurant.owner: only the id and the name, so the
+ * association can sit in the second-level cache without the password hash or account state.
+ */
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "restaurantOwners")
+@Table(name = "users")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantOwner {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "first_name", insertable = false, updatable = false)
+    private String firstName;
+    
+    @Column(name = "last_name", insertable = false, updatable = false)
+    private String lastName;
+    
+    public static RestaurantOwner of(User user) {
+        return new RestaurantOwner(user.getId(), user.getFirstName(), user.getLastName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.fooddelivery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "riders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Rider {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    // written onto orders as delivery_person_phone
+    @Column(nullable = false, unique = true, length = 15)
+    private String phone;
+    
+    @Column(name = "is_active")
+    private boolean isActive = true;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,13 @@
+package com.fooddelivery.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+	
+	private final Long categoryId;
+	
+	private final boolean deleted;
+}
@@ -0,0 +1,18 @@
+package com.fooddelivery.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class MenuItemChangedEvent {
+	
+	private final Long menuItemId;
+	
+	private final Long restaurantId;
+	
+	// differs from restaurantId when an update moved the item to another restaurant
+	private final Long previousRestaurantId;
+	
+	private final boolean deleted;
+}
@@ -0,0 +1,24 @@
+package com.fooddelivery.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+public class OrderCreatedEvent {
+	
+	private final Long orderId;
+	
+	private final Long userId;
+	
+	private final Long restaurantId;
+	
+	// longest preparation time among the ordered items
+	private final int prepMinutes;
+	
+	private final int deliveryMinutes;
+	
+	private final LocalDateTime placedAt;
+}
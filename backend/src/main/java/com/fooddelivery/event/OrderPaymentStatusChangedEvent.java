@@ -0,0 +1,24 @@
+package com.fooddelivery.event;
+
+import com.fooddelivery.entity.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+public class OrderPaymentStatusChangedEvent {
+	
+	private final Long orderId;
+	
+	private final Long userId;
+	
+	private final Long restaurantId;
+	
+	private final Order.PaymentStatus previousStatus;
+	
+	private final Order.PaymentStatus status;
+	
+	private final LocalDateTime changedAt;
+}
@@ -0,0 +1,26 @@
+package com.fooddelivery.event;
+
+import com.fooddelivery.entity.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+public class OrderStatusChangedEvent {
+	
+	private final Long orderId;
+	
+	private final Long userId;
+	
+	private final Long restaurantId;
+	
+	private final Order.OrderStatus previousStatus;
+	
+	private final Order.OrderStatus status;
+	
+	private final LocalDateTime placedAt;
+	
+	private final LocalDateTime changedAt;
+}
@@ -0,0 +1,19 @@
+package com.fooddelivery.event;
+
+import com.fooddelivery.dto.RestaurantDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class RestaurantChangedEvent {
+	
+	private final Long restaurantId;
+	
+	// null when the restaurant was deleted
+	private final RestaurantDto restaurant;
+	
+	public boolean isDeleted() {
+		return restaurant == null;
+	}
+}
@@ -0,0 +1,227 @@
+package com.fooddelivery.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.dto.ApiError;
+import com.fooddelivery.idempotency.IdempotencyStore.Claim;
+import com.fooddelivery.idempotency.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Idempotency-Key support for POST /orders and POST /payments/verify. The first request with a key
+ * runs normally and its response is stored; retries with the same key and body get the stored
+ * status, content type and bytes back, and retries that arrive while the first is still running wait for it.
+ * Keys are scoped to the authenticated user. 5xx responses and exceptions release the key so the client can retry.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "Idempotency-Key";
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+	private static final int MAX_KEY_LENGTH = 100;
+	private static final Set<String> PATHS = Set.of("/orders", "/payments/verify");
+
+	private final IdempotencyStore store;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !"POST".equals(request.getMethod())
+				|| request.getHeader(HEADER) == null
+				|| !PATHS.contains(request.getServletPath());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request,
+			HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()) {
+			// rejected further down the chain anyway
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String key = request.getHeader(HEADER).trim();
+		if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+			writeError(request, response, HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY",
+					"Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+			return;
+		}
+
+		byte[] body = request.getInputStream().readAllBytes();
+		String scopeKey = sha256(authentication.getName(), "\n", key);
+		String requestHash = sha256(request.getMethod(), " ", request.getServletPath(), "\n", new String(body, StandardCharsets.UTF_8));
+
+		Claim claim;
+		try {
+			claim = store.begin(scopeKey, requestHash);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			writeError(request, response, HttpStatus.SERVICE_UNAVAILABLE, "IDEMPOTENCY_INTERRUPTED",
+					"The request was interrupted. Please retry.");
+			return;
+		}
+		switch (claim.outcome()) {
+			case REPLAY -> replay(claim.response(), response);
+			case MISMATCH -> writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+					"This Idempotency-Key was already used for a different request.");
+			case IN_PROGRESS -> writeError(request, response, HttpStatus.CONFLICT, "IDEMPOTENCY_IN_PROGRESS",
+					"A request with this Idempotency-Key is still being processed. Please retry shortly.");
+			case EXECUTE -> execute(new CachedBodyRequest(request, body), response, filterChain, scopeKey, requestHash);
+		}
+	}
+
+	private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+			String scopeKey, String requestHash) throws ServletException, IOException {
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		try {
+			filterChain.doFilter(request, wrapper);
+		} catch (ServletException | IOException | RuntimeException ex) {
+			store.release(scopeKey, requestHash);
+			throw ex;
+		}
+		int status = wrapper.getStatus();
+		if (isReplayable(status)) {
+			store.complete(scopeKey, requestHash, new StoredResponse(status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+		} else {
+			store.release(scopeKey, requestHash);
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	// server errors and "try again" answers are not the outcome of the request, so they must not stick
+	private static boolean isReplayable(int status) {
+		return status < 500
+				&& status != HttpStatus.REQUEST_TIMEOUT.value()
+				&& status != HttpStatus.CONFLICT.value()
+				&& status != HttpStatus.TOO_MANY_REQUESTS.value();
+	}
+
+	private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+		response.setStatus(stored.status());
+		if (stored.contentType() != null) {
+			response.setContentType(stored.contentType());
+		}
+		response.setHeader(REPLAYED_HEADER, "true");
+		response.setContentLength(stored.body().length);
+		response.getOutputStream().write(stored.body());
+	}
+
+	private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+			String code, String message) throws IOException {
+		ApiError body = ApiError.builder()
+				.timestamp(LocalDateTime.now())
+				.status(status.value())
+				.error(status.getReasonPhrase())
+				.message(message)
+				.path(request.getRequestURI())
+				.code(code)
+				.build();
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), body);
+	}
+
+	private static String sha256(String... parts) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String part : parts) {
+				digest.update(part.getBytes(StandardCharsets.UTF_8));
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not available", ex);
+		}
+	}
+
+	// the body was consumed for hashing, so the controller reads it from here
+	private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				// the whole body is already in memory, so it is available at once
+				@Override
+				public void setReadListener(ReadListener listener) {
+					try {
+						listener.onDataAvailable();
+						listener.onAllDataRead();
+					} catch (IOException ex) {
+						listener.onError(ex);
+					}
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String encoding = getCharacterEncoding();
+			Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+			return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+
+		@Override
+		public int getContentLength() {
+			return body.length;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return body.length;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package com.fooddelivery.idempotency;
+
+import com.fooddelivery.entity.IdempotencyRecord;
+import com.fooddelivery.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Two-tier store for Idempotency-Key responses. The in-memory map holds the hot window and lets
+ * concurrent duplicates on this instance wait on the first execution; the idempotency_keys table makes
+ * completed responses survive restarts and keeps two instances from running the same key at once.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+	private static final long REMOTE_POLL_MS = 100;
+
+	private final IdempotencyRecordRepository repository;
+	private final long ttlMs;
+	private final long inFlightTimeoutMs;
+	private final int maxEntries;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public record StoredResponse(int status, String contentType, byte[] body) {
+	}
+
+	public enum Outcome {
+		// the caller runs the request and must call complete() or release()
+		EXECUTE,
+		REPLAY,
+		// same key, different request
+		MISMATCH,
+		// the first execution did not finish within the in-flight timeout
+		IN_PROGRESS
+	}
+
+	public record Claim(Outcome outcome, StoredResponse response) {
+	}
+
+	// a null result means the owner gave up the key and waiters should try to claim it themselves
+	private record Entry(String requestHash, CompletableFuture<StoredResponse> result, long expiresAtMillis) {
+
+		boolean isExpired(long now) {
+			return expiresAtMillis < now;
+		}
+	}
+
+	public IdempotencyStore(IdempotencyRecordRepository repository,
+			MeterRegistry meterRegistry,
+			@Value("${idempotency.ttl-ms:86400000}") long ttlMs,
+			@Value("${idempotency.in-flight-timeout-ms:30000}") long inFlightTimeoutMs,
+			@Value("${idempotency.max-entries:10000}") int maxEntries) {
+		this.repository = repository;
+		this.ttlMs = ttlMs;
+		this.inFlightTimeoutMs = inFlightTimeoutMs;
+		this.maxEntries = maxEntries;
+		Gauge.builder("idempotency.entries", entries, Map::size).register(meterRegistry);
+	}
+
+	public Claim begin(String scopeKey, String requestHash) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + inFlightTimeoutMs;
+		while (true) {
+			long now = System.currentTimeMillis();
+			Entry fresh = new Entry(requestHash, new CompletableFuture<>(), now + ttlMs);
+			Entry entry = entries.compute(scopeKey, (key, current) -> current == null || current.isExpired(now) ? fresh : current);
+			if (entry != fresh) {
+				if (!entry.requestHash().equals(requestHash)) {
+					return new Claim(Outcome.MISMATCH, null);
+				}
+				StoredResponse response = await(entry, deadline - now);
+				if (response != null) {
+					return new Claim(Outcome.REPLAY, response);
+				}
+			} else {
+				evictIfNeeded();
+				Claim claim;
+				try {
+					claim = claimDurable(scopeKey, requestHash);
+				} catch (RuntimeException ex) {
+					entries.remove(scopeKey, fresh);
+					fresh.result().complete(null);
+					throw ex;
+				}
+				if (claim.outcome() == Outcome.EXECUTE) {
+					return claim;
+				}
+				if (claim.outcome() == Outcome.REPLAY) {
+					fresh.result().complete(claim.response());
+					return claim;
+				}
+				entries.remove(scopeKey, fresh);
+				fresh.result().complete(null);
+				if (claim.outcome() == Outcome.MISMATCH) {
+					return claim;
+				}
+				// another instance is running it; poll until it finishes or the timeout passes
+				Thread.sleep(REMOTE_POLL_MS);
+			}
+			if (System.currentTimeMillis() >= deadline) {
+				return new Claim(Outcome.IN_PROGRESS, null);
+			}
+		}
+	}
+
+	public void complete(String scopeKey, String requestHash, StoredResponse response) {
+		try {
+			repository.complete(scopeKey, requestHash, response.status(), response.contentType(), response.body());
+		} catch (RuntimeException ex) {
+			// the response is already on its way to the client; the memory tier still covers retries here
+			log.warn("Failed to store idempotent response for {}: {}", scopeKey, ex.getMessage());
+		}
+		Entry entry = entries.get(scopeKey);
+		if (entry != null && entry.requestHash().equals(requestHash)) {
+			entry.result().complete(response);
+		}
+	}
+
+	public void release(String scopeKey, String requestHash) {
+		try {
+			repository.release(scopeKey, requestHash);
+		} catch (RuntimeException ex) {
+			log.warn("Failed to release idempotency key {}: {}", scopeKey, ex.getMessage());
+		}
+		Entry entry = entries.get(scopeKey);
+		if (entry != null && entry.requestHash().equals(requestHash) && entries.remove(scopeKey, entry)) {
+			entry.result().complete(null);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}",
+			initialDelayString = "${idempotency.purge-interval-ms:600000}")
+	public void purgeExpired() {
+		long now = System.currentTimeMillis();
+		entries.entrySet().removeIf(e -> e.getValue().isExpired(now) && e.getValue().result().isDone());
+		int deleted = repository.deleteExpired(LocalDateTime.now());
+		if (deleted > 0) {
+			log.debug("Purged {} expired idempotency keys", deleted);
+		}
+	}
+
+	private Claim claimDurable(String scopeKey, String requestHash) {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime expiresAt = now.plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs));
+		if (repository.claim(scopeKey, requestHash, now, expiresAt) == 1) {
+			return new Claim(Outcome.EXECUTE, null);
+		}
+		Optional<IdempotencyRecord> existing = repository.findById(scopeKey);
+		if (existing.isPresent() && !existing.get().getExpiresAt().isBefore(now)) {
+			IdempotencyRecord record = existing.get();
+			boolean sameRequest = record.getRequestHash().equals(requestHash);
+			if (record.getStatusCode() != null) {
+				return sameRequest
+						? new Claim(Outcome.REPLAY, new StoredResponse(record.getStatusCode(), record.getContentType(), bodyOf(record)))
+						: new Claim(Outcome.MISMATCH, null);
+			}
+			if (!sameRequest) {
+				return new Claim(Outcome.MISMATCH, null);
+			}
+		}
+		LocalDateTime staleBefore = now.minusNanos(TimeUnit.MILLISECONDS.toNanos(inFlightTimeoutMs));
+		if (repository.takeOver(scopeKey, requestHash, now, expiresAt, staleBefore) == 1
+				|| (existing.isEmpty() && repository.claim(scopeKey, requestHash, now, expiresAt) == 1)) {
+			return new Claim(Outcome.EXECUTE, null);
+		}
+		return new Claim(Outcome.IN_PROGRESS, null);
+	}
+
+	private static StoredResponse await(Entry entry, long timeoutMs) throws InterruptedException {
+		try {
+			return entry.result().get(Math.max(timeoutMs, 0), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException | ExecutionException ex) {
+			return null;
+		}
+	}
+
+	private static byte[] bodyOf(IdempotencyRecord record) {
+		return record.getResponseBody() == null ? new byte[0] : record.getResponseBody();
+	}
+
+	// only finished responses are evicted; in-flight entries carry waiters
+	private void evictIfNeeded() {
+		if (entries.size() <= maxEntries) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		entries.entrySet().removeIf(e -> e.getValue().isExpired(now) && e.getValue().result().isDone());
+		int excess = entries.size() - maxEntries * 9 / 10;
+		if (excess <= 0) {
+			return;
+		}
+		entries.entrySet().stream()
+				.filter(e -> e.getValue().result().isDone())
+				.sorted(Comparator.comparingLong(e -> e.getValue().expiresAtMillis()))
+				.limit(excess)
+				.map(Map.Entry::getKey)
+				.toList()
+				.forEach(key -> entries.computeIfPresent(key, (k, v) -> v.result().isDone() ? null : v));
+		log.debug("Evicted idempotency entries, {} remain", entries.size());
+	}
+}
@@ -0,0 +1,57 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 1 when this caller now owns the key, 0 when a row already exists
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (scope_key, request_hash, created_at, expires_at) " +
+            "VALUES (:scopeKey, :requestHash, :now, :expiresAt)", nativeQuery = true)
+    int claim(@Param("scopeKey") String scopeKey,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    // takes over an expired row or an in-flight placeholder whose owner has gone quiet
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.statusCode = NULL, r.contentType = NULL, " +
+            "r.responseBody = NULL, r.createdAt = :now, r.expiresAt = :expiresAt " +
+            "WHERE r.scopeKey = :scopeKey AND (r.expiresAt < :now OR (r.statusCode IS NULL AND r.createdAt < :staleBefore))")
+    int takeOver(@Param("scopeKey") String scopeKey,
+                 @Param("requestHash") String requestHash,
+                 @Param("now") LocalDateTime now,
+                 @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, r.responseBody = :responseBody " +
+            "WHERE r.scopeKey = :scopeKey AND r.requestHash = :requestHash AND r.statusCode IS NULL")
+    int complete(@Param("scopeKey") String scopeKey,
+                 @Param("requestHash") String requestHash,
+                 @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType,
+                 @Param("responseBody") byte[] responseBody);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopeKey = :scopeKey AND r.requestHash = :requestHash AND r.statusCode IS NULL")
+    int release(@Param("scopeKey") String scopeKey, @Param("requestHash") String requestHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,62 @@
+package com.fooddelivery.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes a round of rider assignments as one JDBC batch. Each row only takes the rider while the order
+ * is still ready and unassigned, and the rows that did are read back in one query, since rewritten
+ * batches do not report per-row update counts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcOrderAssignmentWriter {
+    
+    private static final String ASSIGN_SQL = "UPDATE orders SET delivery_person_name = ?, delivery_person_phone = ?, " +
+            "updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND status = 'READY_FOR_DELIVERY' AND delivery_person_phone IS NULL";
+    
+    private static final String VERIFY_SQL = "SELECT id, delivery_person_phone FROM orders WHERE id IN (:ids)";
+    
+    public record Assignment(Long orderId, String riderName, String riderPhone) {
+    }
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    // returns the ids of the orders that now carry the rider they were given
+    public Set<Long> assignAll(List<Assignment> assignments) {
+        if (assignments.isEmpty()) {
+            return Set.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(assignments.size());
+        List<Long> ids = new ArrayList<>(assignments.size());
+        for (Assignment assignment : assignments) {
+            rows.add(new Object[]{assignment.riderName(), assignment.riderPhone(), now, assignment.orderId()});
+            ids.add(assignment.orderId());
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(ASSIGN_SQL, rows);
+        
+        Set<String> expected = new HashSet<>();
+        for (Assignment assignment : assignments) {
+            expected.add(assignment.orderId() + ":" + assignment.riderPhone());
+        }
+        Set<Long> confirmed = new HashSet<>();
+        jdbcTemplate.query(VERIFY_SQL, new MapSqlParameterSource("ids", ids), rs -> {
+            long id = rs.getLong("id");
+            if (expected.contains(id + ":" + rs.getString("delivery_person_phone"))) {
+                confirmed.add(id);
+            }
+        });
+        return confirmed;
+    }
+}
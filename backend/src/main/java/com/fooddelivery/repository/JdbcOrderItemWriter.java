@@ -0,0 +1,75 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts order items as one JDBC batch. Hibernate cannot batch IDENTITY inserts, and with
+ * rewriteBatchedStatements=true the driver sends the whole batch as a single multi-row INSERT.
+ */
+@Repository
+@ConditionalOnProperty(name = "orders.items.writer", havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JdbcOrderItemWriter implements OrderItemWriter {
+    
+    private static final String INSERT_SQL = "INSERT INTO order_items " +
+            "(order_id, menu_item_id, quantity, unit_price, total_price, special_instructions, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void insertAll(Long orderId, List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        OrderItem item = items.get(i);
+                        ps.setLong(1, orderId);
+                        ps.setLong(2, item.getMenuItem().getId());
+                        ps.setInt(3, item.getQuantity());
+                        ps.setDouble(4, item.getUnitPrice());
+                        ps.setDouble(5, item.getTotalPrice());
+                        ps.setString(6, item.getSpecialInstructions());
+                        ps.setTimestamp(7, timestamp);
+                        ps.setTimestamp(8, timestamp);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            if (i < keys.size()) {
+                item.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.OrderRollup.Granularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Adds deltas to the order_rollups buckets as one JDBC batch of upserts. Callers pass the deltas
+ * sorted by {@link #BUCKET_ORDER} so concurrent transactions lock the same rows in the same order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcOrderRollupWriter {
+    
+    private static final String UPSERT_SQL = "INSERT INTO order_rollups (granularity, restaurant_id, bucket_start, " +
+            "order_count, gross, tax, delivery_fees, cancelled_orders, cancelled_gross, payments_completed, " +
+            "payments_failed, payments_refunded, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), gross = gross + VALUES(gross), " +
+            "tax = tax + VALUES(tax), delivery_fees = delivery_fees + VALUES(delivery_fees), " +
+            "cancelled_orders = cancelled_orders + VALUES(cancelled_orders), " +
+            "cancelled_gross = cancelled_gross + VALUES(cancelled_gross), " +
+            "payments_completed = payments_completed + VALUES(payments_completed), " +
+            "payments_failed = payments_failed + VALUES(payments_failed), " +
+            "payments_refunded = payments_refunded + VALUES(payments_refunded), updated_at = VALUES(updated_at)";
+    
+    public static final Comparator<Bucket> BUCKET_ORDER = Comparator.comparing(Bucket::granularity)
+            .thenComparing(Bucket::restaurantId)
+            .thenComparing(Bucket::start);
+    
+    public record Bucket(Granularity granularity, Long restaurantId, LocalDateTime start) {
+    }
+    
+    public record Delta(long orders, double gross, double tax, double deliveryFees, long cancelledOrders,
+                        double cancelledGross, long paymentsCompleted, long paymentsFailed, long paymentsRefunded) {
+        
+        public Delta plus(Delta other) {
+            return new Delta(orders + other.orders, gross + other.gross, tax + other.tax,
+                    deliveryFees + other.deliveryFees, cancelledOrders + other.cancelledOrders,
+                    cancelledGross + other.cancelledGross, paymentsCompleted + other.paymentsCompleted,
+                    paymentsFailed + other.paymentsFailed, paymentsRefunded + other.paymentsRefunded);
+        }
+    }
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    public void addAll(SortedMap<Bucket, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (Map.Entry<Bucket, Delta> entry : deltas.entrySet()) {
+            Bucket bucket = entry.getKey();
+            Delta delta = entry.getValue();
+            rows.add(new Object[]{bucket.granularity().name(), bucket.restaurantId(), Timestamp.valueOf(bucket.start()),
+                    delta.orders(), delta.gross(), delta.tax(), delta.deliveryFees(), delta.cancelledOrders(),
+                    delta.cancelledGross(), delta.paymentsCompleted(), delta.paymentsFailed(), delta.paymentsRefunded(), now});
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT_SQL, rows);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Batch-write mode: ids come from the pooled table generator in orm-batch-write.xml, so persist()
+ * needs no round trip and Hibernate sends the inserts as JDBC batches at flush.
+ */
+@Repository
+@ConditionalOnProperty(name = "orders.items.writer", havingValue = "jpa")
+public class JpaOrderItemWriter implements OrderItemWriter {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public void insertAll(Long orderId, List<OrderItem> items) {
+        items.forEach(entityManager::persist);
+    }
+}
@@ -1,27 +1,41 @@
 package com.fooddelivery.repository;
 
+import com.fooddelivery.dto.MenuItemDto;
 import com.fooddelivery.entity.MenuItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     
+    // Read-only projection: only the columns MenuItemDto needs, no managed entities
+    String MENU_ITEM_DTO = "SELECT new com.fooddelivery.dto.MenuItemDto(mi.id, mi.name, mi.description, mi.price, " +
+           "mi.imageUrl, mi.isVegetarian, mi.isSpicy, mi.isAvailable, mi.preparationTime, mi.createdAt, mi.updatedAt, " +
+           "r.id, r.name, c.id, c.name) FROM MenuItem mi JOIN mi.restaurant r JOIN mi.category c ";
+    
     @Query("SELECT mi FROM MenuItem mi JOIN FETCH mi.restaurant r JOIN FETCH mi.category c WHERE r.id = :restaurantId AND mi.isAvailable = true")
     List<MenuItem> findByRestaurantIdAndIsAvailableTrue(@Param("restaurantId") Long restaurantId);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(MENU_ITEM_DTO + "WHERE r.id = :restaurantId AND mi.isAvailable = true")
+    List<MenuItemDto> findAvailableDtosByRestaurantId(@Param("restaurantId") Long restaurantId);
+    
+    @Query(MENU_ITEM_DTO + "WHERE mi.id = :id")
+    Optional<MenuItemDto> findDtoById(@Param("id") Long id);
+    
     @Query("SELECT mi FROM MenuItem mi JOIN FETCH mi.restaurant r JOIN FETCH mi.category c WHERE r.id = :restaurantId AND c.id = :categoryId AND mi.isAvailable = true")
     List<MenuItem> findByRestaurantIdAndCategoryIdAndIsAvailableTrue(@Param("restaurantId") Long restaurantId, @Param("categoryId") Long categoryId);
     
-    @Query("SELECT mi FROM MenuItem mi JOIN FETCH mi.restaurant r JOIN FETCH mi.category c WHERE r.id = :restaurantId AND " +
-           "LOWER(mi.name) LIKE LOWER(CONCAT('%', :query, '%')) AND mi.isAvailable = true")
-    List<MenuItem> searchByRestaurantIdAndName(@Param("restaurantId") Long restaurantId, 
-                                              @Param("query") String query);
-    
     @Query("SELECT mi FROM MenuItem mi JOIN FETCH mi.restaurant r JOIN FETCH mi.category c WHERE r.id = :restaurantId AND mi.isVegetarian = true AND mi.isAvailable = true")
     List<MenuItem> findByRestaurantIdAndIsVegetarianTrueAndIsAvailableTrue(@Param("restaurantId") Long restaurantId);
     
@@ -41,4 +55,58 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
            "c.id = :categoryId AND mi.isAvailable = true ORDER BY mi.name")
     List<MenuItem> findByRestaurantIdAndCategoryIdOrderByName(@Param("restaurantId") Long restaurantId,
                                                              @Param("categoryId") Long categoryId);
+    
+    String MENU_FILTER = "WHERE r.id = :restaurantId AND mi.isAvailable = true " +
+           "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+           "AND (:vegetarian IS NULL OR mi.isVegetarian = :vegetarian) " +
+           "AND (:spicy IS NULL OR mi.isSpicy = :spicy) " +
+           "AND (:minPrice IS NULL OR mi.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR mi.price <= :maxPrice) ";
+    
+    @Query(value = MENU_ITEM_DTO + MENU_FILTER + "ORDER BY mi.name ASC, mi.id ASC",
+           countQuery = "SELECT COUNT(mi) FROM MenuItem mi JOIN mi.restaurant r JOIN mi.category c " + MENU_FILTER)
+    Page<MenuItemDto> findFilteredPage(@Param("restaurantId") Long restaurantId,
+                                       @Param("categoryId") Long categoryId,
+                                       @Param("vegetarian") Boolean vegetarian,
+                                       @Param("spicy") Boolean spicy,
+                                       @Param("minPrice") Double minPrice,
+                                       @Param("maxPrice") Double maxPrice,
+                                       Pageable pageable);
+    
+    // keyset continuation on (name, id); pass a null afterName for the first page
+    @Query(MENU_ITEM_DTO + MENU_FILTER +
+           "AND (:afterName IS NULL OR mi.name > :afterName OR (mi.name = :afterName AND mi.id > :afterId)) " +
+           "ORDER BY mi.name ASC, mi.id ASC")
+    List<MenuItemDto> findFilteredKeysetPage(@Param("restaurantId") Long restaurantId,
+                                             @Param("categoryId") Long categoryId,
+                                             @Param("vegetarian") Boolean vegetarian,
+                                             @Param("spicy") Boolean spicy,
+                                             @Param("minPrice") Double minPrice,
+                                             @Param("maxPrice") Double maxPrice,
+                                             @Param("afterName") String afterName,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+    
+    @Query("SELECT mi.id AS id, mi.name AS name, mi.restaurant.id AS restaurantId FROM MenuItem mi WHERE mi.isAvailable = true")
+    List<NameView> findAvailableNames();
+    
+    @Query("SELECT mi.name AS name, COALESCE(SUM(oi.quantity), 0) AS popularity FROM MenuItem mi " +
+           "LEFT JOIN OrderItem oi ON oi.menuItem = mi WHERE mi.isAvailable = true " +
+           "GROUP BY mi.name ORDER BY COALESCE(SUM(oi.quantity), 0) DESC")
+    List<NamePopularity> findPopularNames(Pageable pageable);
+    
+    @Query("SELECT c.name AS name, COUNT(mi) AS popularity FROM MenuItem mi JOIN mi.category c " +
+           "WHERE mi.isAvailable = true AND c.isActive = true GROUP BY c.name")
+    List<NamePopularity> countAvailableByCategoryName();
+    
+    interface NameView {
+        Long getId();
+        String getName();
+        Long getRestaurantId();
+    }
+    
+    interface NamePopularity {
+        String getName();
+        Number getPopularity();
+    }
 }
\ No newline at end of file
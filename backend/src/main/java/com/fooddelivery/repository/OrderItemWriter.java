@@ -0,0 +1,17 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.OrderItem;
+
+import java.util.List;
+
+/**
+ * Persists the items of a freshly inserted order in as few statements as the id strategy allows.
+ * Picked by orders.items.writer: "jdbc" (default, AUTO_INCREMENT ids) or "jpa" (batch-write profile, pooled ids).
+ */
+public interface OrderItemWriter {
+    
+    /**
+     * Writes the items and sets their ids and timestamps. Must run inside the transaction that inserted the order.
+     */
+    void insertAll(Long orderId, List<OrderItem> items);
+}
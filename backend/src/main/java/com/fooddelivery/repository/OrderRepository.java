@@ -1,14 +1,17 @@
 package com.fooddelivery.repository;
 
+import com.fooddelivery.dto.OrderDto;
 import com.fooddelivery.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,25 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByRestaurantIdOrderByCreatedAtDesc(Long restaurantId);
     
+    // Read-only projections of the full order header; the lists are served from OrderSummaryRepository
+    String ORDER_DTO = "SELECT new com.fooddelivery.dto.OrderDto(o.id, o.orderNumber, u.id, u.firstName, u.lastName, " +
+           "r.id, r.name, o.subtotal, o.deliveryFee, o.tax, o.total, o.deliveryAddress, o.deliveryPhone, " +
+           "o.deliveryInstructions, o.status, o.paymentStatus, o.paymentMethod, o.paymentId, o.orderTime, " +
+           "o.estimatedDeliveryTime, o.actualDeliveryTime, o.deliveryPersonName, o.deliveryPersonPhone, " +
+           "o.createdAt, o.updatedAt) FROM Order o JOIN o.user u JOIN o.restaurant r ";
+    
+    @Query(ORDER_DTO + "WHERE o.id = :id")
+    Optional<OrderDto> findDtoById(@Param("id") Long id);
+    
+    @Query(ORDER_DTO + "WHERE o.orderNumber = :orderNumber")
+    Optional<OrderDto> findDtoByOrderNumber(@Param("orderNumber") String orderNumber);
+    
+    // A single order id rather than an IN list: Hibernate re-translates the SQL for every list binding
+    @Query("SELECT new com.fooddelivery.dto.OrderDto$OrderItemDto(oi.id, mi.id, mi.name, oi.quantity, oi.unitPrice, " +
+           "oi.totalPrice, oi.specialInstructions) FROM OrderItem oi JOIN oi.menuItem mi " +
+           "WHERE oi.order.id = :orderId ORDER BY oi.id")
+    List<OrderDto.OrderItemDto> findItemDtosByOrderId(@Param("orderId") Long orderId);
+    
     Optional<Order> findByOrderNumber(String orderNumber);
     
     @Query("SELECT o FROM Order o WHERE o.status = :status AND o.restaurant.id = :restaurantId")
@@ -47,4 +69,126 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT o FROM Order o WHERE o.status IN ('OUT_FOR_DELIVERY', 'READY_FOR_DELIVERY') AND o.deliveryPersonPhone = :phone")
     List<Order> findActiveDeliveriesByDeliveryPersonPhone(@Param("phone") String phone);
+    
+    @Query("SELECT o.id AS id, o.user.id AS userId, o.restaurant.id AS restaurantId, o.status AS status, " +
+           "o.paymentStatus AS paymentStatus, o.orderTime AS orderTime, o.total AS total FROM Order o WHERE o.id = :id")
+    Optional<StatusView> findStatusById(@Param("id") Long id);
+    
+    // Locks the rows in id order so that batch transitions cannot deadlock each other
+    @Query(value = "SELECT o.id AS id, o.user_id AS userId, o.restaurant_id AS restaurantId, o.status AS status, " +
+           "o.payment_status AS paymentStatus, o.order_time AS orderTime, o.total AS total " +
+           "FROM orders o WHERE o.id IN (:ids) ORDER BY o.id FOR UPDATE",
+           nativeQuery = true)
+    List<StatusView> lockStatusesByIds(@Param("ids") Collection<Long> ids);
+    
+    // Compare-and-set transitions: 0 rows means the order left the expected state in the meantime
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, o.updatedAt = :now, " +
+           "o.actualDeliveryTime = COALESCE(:deliveredAt, o.actualDeliveryTime) " +
+           "WHERE o.id = :id AND o.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") Order.OrderStatus from,
+                         @Param("to") Order.OrderStatus to,
+                         @Param("now") LocalDateTime now,
+                         @Param("deliveredAt") LocalDateTime deliveredAt);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, o.updatedAt = :now, " +
+           "o.actualDeliveryTime = COALESCE(:deliveredAt, o.actualDeliveryTime) " +
+           "WHERE o.id IN :ids AND o.status = :from")
+    int transitionStatuses(@Param("ids") Collection<Long> ids,
+                           @Param("from") Order.OrderStatus from,
+                           @Param("to") Order.OrderStatus to,
+                           @Param("now") LocalDateTime now,
+                           @Param("deliveredAt") LocalDateTime deliveredAt);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = :to, o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.paymentStatus = :from")
+    int transitionPaymentStatus(@Param("id") Long id,
+                                @Param("from") Order.PaymentStatus from,
+                                @Param("to") Order.PaymentStatus to,
+                                @Param("now") LocalDateTime now);
+    
+    // Open orders with the prep time of their slowest item, oldest first, to rebuild the kitchen queues
+    @Query("SELECT o.id AS orderId, r.id AS restaurantId, r.deliveryTime AS deliveryMinutes, o.status AS status, " +
+           "o.orderTime AS orderTime, o.updatedAt AS updatedAt, MAX(mi.preparationTime) AS prepMinutes " +
+           "FROM OrderItem oi JOIN oi.order o JOIN o.restaurant r JOIN oi.menuItem mi WHERE o.status IN :statuses " +
+           "GROUP BY o.id, r.id, r.deliveryTime, o.status, o.orderTime, o.updatedAt ORDER BY o.orderTime, o.id")
+    List<OpenOrderRow> findOpenOrdersForKitchen(@Param("statuses") Collection<Order.OrderStatus> statuses);
+    
+    // Delivered orders in id order for the delivery-time statistics; pass PageRequest.of(0, batchSize)
+    @Query("SELECT o.id AS orderId, o.restaurant.id AS restaurantId, o.orderTime AS orderTime, " +
+           "o.actualDeliveryTime AS deliveredAt FROM Order o WHERE o.status = 'DELIVERED' AND o.id > :afterId " +
+           "AND o.orderTime >= :since AND o.actualDeliveryTime < :until ORDER BY o.id")
+    List<DeliveredOrderRow> findDeliveredAfter(@Param("afterId") Long afterId,
+                                               @Param("since") LocalDateTime since,
+                                               @Param("until") LocalDateTime until,
+                                               Pageable pageable);
+    
+    // Ready orders still waiting for a rider, longest waiting first, with the pickup point; restaurants
+    // without coordinates cannot be matched and are left to manual assignment
+    @Query("SELECT o.id AS orderId, r.latitude AS latitude, r.longitude AS longitude, o.updatedAt AS readySince " +
+           "FROM Order o JOIN o.restaurant r WHERE o.status = 'READY_FOR_DELIVERY' AND o.deliveryPersonPhone IS NULL " +
+           "AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL " +
+           "ORDER BY o.updatedAt, o.id")
+    List<DispatchOrderRow> findUnassignedReadyOrders(Pageable pageable);
+    
+    @Query("SELECT o.id AS orderId, o.deliveryPersonPhone AS deliveryPersonPhone FROM Order o " +
+           "WHERE o.status IN ('READY_FOR_DELIVERY', 'OUT_FOR_DELIVERY') AND o.deliveryPersonPhone IS NOT NULL")
+    List<AssignedOrderRow> findAssignedOpenOrders();
+    
+    // Where a full rebuild of the analytics rollups starts
+    @Query("SELECT MIN(o.orderTime) FROM Order o")
+    Optional<LocalDateTime> findFirstOrderTime();
+    
+    // Seeds and reconciles the live per-restaurant status counters
+    @Query("SELECT o.restaurant.id AS restaurantId, o.status AS status, COUNT(o) AS orderCount FROM Order o " +
+           "GROUP BY o.restaurant.id, o.status")
+    List<StatusCountRow> countByRestaurantAndStatus();
+    
+    interface OpenOrderRow {
+        Long getOrderId();
+        Long getRestaurantId();
+        int getDeliveryMinutes();
+        Order.OrderStatus getStatus();
+        LocalDateTime getOrderTime();
+        LocalDateTime getUpdatedAt();
+        Integer getPrepMinutes();
+    }
+    
+    interface DeliveredOrderRow {
+        Long getOrderId();
+        Long getRestaurantId();
+        LocalDateTime getOrderTime();
+        LocalDateTime getDeliveredAt();
+    }
+    
+    interface DispatchOrderRow {
+        Long getOrderId();
+        Double getLatitude();
+        Double getLongitude();
+        LocalDateTime getReadySince();
+    }
+    
+    interface AssignedOrderRow {
+        Long getOrderId();
+        String getDeliveryPersonPhone();
+    }
+    
+    interface StatusCountRow {
+        Long getRestaurantId();
+        Order.OrderStatus getStatus();
+        long getOrderCount();
+    }
+    
+    interface StatusView {
+        Long getId();
+        Long getUserId();
+        Long getRestaurantId();
+        Order.OrderStatus getStatus();
+        Order.PaymentStatus getPaymentStatus();
+        LocalDateTime getOrderTime();
+        double getTotal();
+    }
 }
\ No newline at end of file
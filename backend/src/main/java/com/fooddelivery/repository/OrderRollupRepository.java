@@ -0,0 +1,82 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.dto.RestaurantRevenueDto;
+import com.fooddelivery.dto.RevenueBucketDto;
+import com.fooddelivery.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, OrderRollup.Key> {
+    
+    String METRICS = "SUM(r.orderCount), SUM(r.gross), SUM(r.tax), SUM(r.deliveryFees), SUM(r.cancelledOrders), " +
+           "SUM(r.cancelledGross), SUM(r.paymentsCompleted), SUM(r.paymentsFailed), SUM(r.paymentsRefunded)";
+    
+    // One row per bucket in [from, to), summed over restaurants
+    @Query("SELECT new com.fooddelivery.dto.RevenueBucketDto(r.bucketStart, " + METRICS + ") FROM OrderRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<RevenueBucketDto> findSeries(@Param("granularity") OrderRollup.Granularity granularity,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+    
+    @Query("SELECT new com.fooddelivery.dto.RevenueBucketDto(r.bucketStart, " + METRICS + ") FROM OrderRollup r " +
+           "WHERE r.granularity = :granularity AND r.restaurantId = :restaurantId " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<RevenueBucketDto> findSeriesByRestaurantId(@Param("granularity") OrderRollup.Granularity granularity,
+                                                    @Param("restaurantId") Long restaurantId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+    
+    // Totals per restaurant over [from, to): day rows for the whole days in [dayFrom, dayTo), hour rows for the edges
+    @Query("SELECT new com.fooddelivery.dto.RestaurantRevenueDto(r.restaurantId, rs.name, " + METRICS + ") " +
+           "FROM OrderRollup r LEFT JOIN Restaurant rs ON rs.id = r.restaurantId " +
+           "WHERE (r.granularity = 'DAY' AND r.bucketStart >= :dayFrom AND r.bucketStart < :dayTo) " +
+           "OR (r.granularity = 'HOUR' AND ((r.bucketStart >= :from AND r.bucketStart < :dayFrom) " +
+           "OR (r.bucketStart >= :dayTo AND r.bucketStart < :to))) " +
+           "GROUP BY r.restaurantId, rs.name ORDER BY SUM(r.gross) DESC")
+    List<RestaurantRevenueDto> findTotalsByRestaurant(@Param("from") LocalDateTime from,
+                                                      @Param("dayFrom") LocalDateTime dayFrom,
+                                                      @Param("dayTo") LocalDateTime dayTo,
+                                                      @Param("to") LocalDateTime to);
+    
+    Optional<OrderRollup> findFirstByGranularity(OrderRollup.Granularity granularity);
+    
+    // Rebuild of whole days from orders: delete the buckets, then regroup the orders placed in [from, to)
+    @Modifying
+    @Query(value = "DELETE FROM order_rollups WHERE bucket_start >= :from AND bucket_start < :to", nativeQuery = true)
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, restaurant_id, bucket_start, order_count, gross, tax, " +
+           "delivery_fees, cancelled_orders, cancelled_gross, payments_completed, payments_failed, payments_refunded, updated_at) " +
+           "SELECT 'HOUR', o.restaurant_id, DATE_ADD(DATE(o.order_time), INTERVAL HOUR(o.order_time) HOUR) AS bucket, " +
+           "COUNT(*), SUM(o.total), SUM(o.tax), SUM(o.delivery_fee), SUM(o.status = 'CANCELLED'), " +
+           "SUM(CASE WHEN o.status = 'CANCELLED' THEN o.total ELSE 0 END), SUM(o.payment_status = 'COMPLETED'), " +
+           "SUM(o.payment_status = 'FAILED'), SUM(o.payment_status = 'REFUNDED'), :now " +
+           "FROM orders o WHERE o.order_time >= :from AND o.order_time < :to GROUP BY o.restaurant_id, bucket",
+           nativeQuery = true)
+    int insertHoursFromOrders(@Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, restaurant_id, bucket_start, order_count, gross, tax, " +
+           "delivery_fees, cancelled_orders, cancelled_gross, payments_completed, payments_failed, payments_refunded, updated_at) " +
+           "SELECT 'DAY', o.restaurant_id, DATE(o.order_time) AS bucket, " +
+           "COUNT(*), SUM(o.total), SUM(o.tax), SUM(o.delivery_fee), SUM(o.status = 'CANCELLED'), " +
+           "SUM(CASE WHEN o.status = 'CANCELLED' THEN o.total ELSE 0 END), SUM(o.payment_status = 'COMPLETED'), " +
+           "SUM(o.payment_status = 'FAILED'), SUM(o.payment_status = 'REFUNDED'), :now " +
+           "FROM orders o WHERE o.order_time >= :from AND o.order_time < :to GROUP BY o.restaurant_id, bucket",
+           nativeQuery = true)
+    int insertDaysFromOrders(@Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             @Param("now") LocalDateTime now);
+}
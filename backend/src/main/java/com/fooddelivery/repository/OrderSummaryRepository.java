@@ -0,0 +1,108 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.dto.OrderSummaryDto;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+    
+    // Order history lists: one indexed read, no joins
+    String SUMMARY_DTO = "SELECT new com.fooddelivery.dto.OrderSummaryDto(s.id, s.orderNumber, s.userId, s.userName, " +
+           "s.restaurantId, s.restaurantName, s.itemCount, s.total, s.status, s.paymentStatus, s.orderTime, " +
+           "s.estimatedDeliveryTime, s.actualDeliveryTime, s.createdAt, s.updatedAt) FROM OrderSummary s ";
+    
+    @Query(SUMMARY_DTO + "WHERE s.userId = :userId ORDER BY s.createdAt DESC, s.id DESC")
+    List<OrderSummaryDto> findByUserId(@Param("userId") Long userId);
+    
+    @Query(value = SUMMARY_DTO + "WHERE s.userId = :userId ORDER BY s.createdAt DESC, s.id DESC",
+           countQuery = "SELECT COUNT(s) FROM OrderSummary s WHERE s.userId = :userId")
+    Page<OrderSummaryDto> findByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SUMMARY_DTO + "WHERE s.restaurantId = :restaurantId ORDER BY s.createdAt DESC, s.id DESC")
+    List<OrderSummaryDto> findByRestaurantId(@Param("restaurantId") Long restaurantId);
+    
+    // Keyset pages: pass PageRequest.of(0, size + 1) so no offset or count query is issued
+    @Query(SUMMARY_DTO + "WHERE s.userId = :userId ORDER BY s.createdAt DESC, s.id DESC")
+    List<OrderSummaryDto> findFirstKeysetPageByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SUMMARY_DTO + "WHERE s.userId = :userId AND " +
+           "(s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) ORDER BY s.createdAt DESC, s.id DESC")
+    List<OrderSummaryDto> findKeysetPageByUserId(@Param("userId") Long userId,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+    
+    @Query(SUMMARY_DTO + "WHERE s.restaurantId = :restaurantId ORDER BY s.createdAt DESC, s.id DESC")
+    List<OrderSummaryDto> findFirstKeysetPageByRestaurantId(@Param("restaurantId") Long restaurantId, Pageable pageable);
+    
+    @Query(SUMMARY_DTO + "WHERE s.restaurantId = :restaurantId AND " +
+           "(s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) ORDER BY s.createdAt DESC, s.id DESC")
+    List<OrderSummaryDto> findKeysetPageByRestaurantId(@Param("restaurantId") Long restaurantId,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+    
+    // Export: Integer.MIN_VALUE makes the MySQL driver stream rows one by one instead of buffering the result;
+    // consume inside a read-only transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM OrderSummary s WHERE s.restaurantId = :restaurantId AND s.createdAt >= :from " +
+           "AND s.createdAt < :to AND s.status IN :statuses ORDER BY s.createdAt, s.id")
+    Stream<OrderSummary> streamForExport(@Param("restaurantId") Long restaurantId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("statuses") Collection<Order.OrderStatus> statuses);
+    
+    long countByUserId(Long userId);
+    
+    long countByRestaurantId(Long restaurantId);
+    
+    // Kept in step with the compare-and-set updates on orders, in the same transaction
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = :now, " +
+           "s.actualDeliveryTime = COALESCE(:deliveredAt, s.actualDeliveryTime) WHERE s.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") Order.OrderStatus status,
+                     @Param("now") LocalDateTime now,
+                     @Param("deliveredAt") LocalDateTime deliveredAt);
+    
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.paymentStatus = :paymentStatus, s.updatedAt = :now WHERE s.id = :id")
+    int updatePaymentStatus(@Param("id") Long id,
+                            @Param("paymentStatus") Order.PaymentStatus paymentStatus,
+                            @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.restaurantName = :name WHERE s.restaurantId = :restaurantId AND s.restaurantName <> :name")
+    int renameRestaurant(@Param("restaurantId") Long restaurantId, @Param("name") String name);
+    
+    // Summaries for orders written before the read model existed; safe to run on every start
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO order_summaries (order_id, order_number, user_id, user_name, restaurant_id, " +
+           "restaurant_name, item_count, total, status, payment_status, order_time, estimated_delivery_time, " +
+           "actual_delivery_time, created_at, updated_at) " +
+           "SELECT o.id, o.order_number, u.id, CONCAT(u.first_name, ' ', u.last_name), r.id, r.name, " +
+           "COALESCE((SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_id = o.id), 0), o.total, o.status, " +
+           "o.payment_status, o.order_time, o.estimated_delivery_time, o.actual_delivery_time, o.created_at, o.updated_at " +
+           "FROM orders o JOIN users u ON u.id = o.user_id JOIN restaurants r ON r.id = o.restaurant_id " +
+           "WHERE NOT EXISTS (SELECT 1 FROM order_summaries s WHERE s.order_id = o.id)", nativeQuery = true)
+    int backfillMissing();
+}
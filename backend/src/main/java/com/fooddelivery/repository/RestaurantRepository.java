@@ -1,41 +1,63 @@
 package com.fooddelivery.repository;
 
+import com.fooddelivery.dto.RestaurantDto;
 import com.fooddelivery.entity.Restaurant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, JpaSpecificationExecutor<Restaurant> {
     
-    Page<Restaurant> findByIsActiveTrueAndIsOpenTrue(Pageable pageable);
+    // Read-only projections: only the columns RestaurantDto needs, no managed entities
+    String RESTAURANT_DTO = "SELECT new com.fooddelivery.dto.RestaurantDto(r.id, r.name, r.description, r.address, " +
+           "r.phone, r.email, r.cuisine, r.imageUrl, r.rating, r.reviewCount, r.isActive, r.isOpen, r.deliveryTime, " +
+           "r.deliveryFee, r.minimumOrder, r.latitude, r.longitude, r.createdAt, r.updatedAt, u.id, u.firstName, u.lastName) " +
+           "FROM Restaurant r LEFT JOIN r.owner u ";
     
+    @Query(value = RESTAURANT_DTO + "WHERE r.isActive = true AND r.isOpen = true",
+           countQuery = "SELECT COUNT(r) FROM Restaurant r WHERE r.isActive = true AND r.isOpen = true")
+    Page<RestaurantDto> findOpenDtos(Pageable pageable);
+    
+    // not query-cached: the catalog refresh relies on it to see writes made outside this node
+    @Query(RESTAURANT_DTO + "WHERE r.isActive = true")
+    List<RestaurantDto> findActiveDtos();
+    
+    @Query(RESTAURANT_DTO + "WHERE u.id = :ownerId AND r.isActive = true AND r.isOpen = true")
+    List<RestaurantDto> findOpenDtosByOwnerId(@Param("ownerId") Long ownerId);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.isActive = true AND r.isOpen = true")
     List<Restaurant> findByIsActiveTrueAndIsOpenTrue();
     
-    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.cuisine = :cuisine")
-    List<Restaurant> findByCuisine(@Param("cuisine") String cuisine);
+    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.isActive = true")
+    List<Restaurant> findByIsActiveTrue();
+    
+    // Keyset pages: pass PageRequest.of(0, size + 1) so no offset or count query is issued
+    @Query(RESTAURANT_DTO + "WHERE r.isActive = true AND r.isOpen = true ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantDto> findFirstKeysetPageOfOpen(Pageable pageable);
     
-    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE " +
-           "LOWER(r.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Restaurant> searchByNameOrCuisine(@Param("query") String query);
+    @Query(RESTAURANT_DTO + "WHERE r.isActive = true AND r.isOpen = true AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantDto> findKeysetPageOfOpen(@Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
     
-    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.owner.id = :ownerId")
-    List<Restaurant> findByOwnerId(@Param("ownerId") Long ownerId);
+    long countByIsActiveTrueAndIsOpenTrue();
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.id = :id AND r.isActive = true")
     Optional<Restaurant> findByIdAndIsActiveTrue(@Param("id") Long id);
-    
-    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.rating >= :minRating")
-    List<Restaurant> findByMinimumRating(@Param("minRating") double minRating);
-    
-    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.owner WHERE r.deliveryTime <= :maxDeliveryTime")
-    List<Restaurant> findByMaxDeliveryTime(@Param("maxDeliveryTime") int maxDeliveryTime);
+
 }
\ No newline at end of file
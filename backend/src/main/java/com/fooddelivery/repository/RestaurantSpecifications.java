@@ -0,0 +1,83 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.Restaurant;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Composable predicates for {@link RestaurantRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ * A null argument yields a null specification, which Spring Data skips when combining.
+ */
+public final class RestaurantSpecifications {
+    
+    private RestaurantSpecifications() {
+    }
+    
+    public static Specification<Restaurant> isOpen() {
+        return (root, query, cb) -> cb.and(cb.isTrue(root.get("isActive")), cb.isTrue(root.get("isOpen")));
+    }
+    
+    // the column collation is case-insensitive, so a plain equality still uses the index
+    public static Specification<Restaurant> cuisineIs(String cuisine) {
+        if (cuisine == null || cuisine.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("cuisine"), cuisine.trim());
+    }
+    
+    public static Specification<Restaurant> ratingAtLeast(Double minRating) {
+        if (minRating == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("rating"), minRating);
+    }
+    
+    public static Specification<Restaurant> deliveryTimeAtMost(Integer maxDeliveryTime) {
+        if (maxDeliveryTime == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("deliveryTime"), maxDeliveryTime);
+    }
+    
+    public static Specification<Restaurant> deliveryFeeAtMost(Double maxDeliveryFee) {
+        if (maxDeliveryFee == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("deliveryFee"), maxDeliveryFee);
+    }
+    
+    public static Specification<Restaurant> idIn(Collection<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        if (ids.isEmpty()) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+    
+    // only used while the search index is still building
+    public static Specification<Restaurant> nameOrCuisineContains(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + text.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern, '\\'),
+                cb.like(cb.lower(root.get("cuisine")), pattern, '\\'));
+    }
+    
+    // skipped for the count query, where a fetch join is illegal
+    public static Specification<Restaurant> fetchOwner() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("owner", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.Rider;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RiderRepository extends JpaRepository<Rider, Long> {
+    
+    boolean existsByPhone(String phone);
+    
+    List<Rider> findByIsActiveTrue();
+}
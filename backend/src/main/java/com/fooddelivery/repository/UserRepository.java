@@ -4,6 +4,7 @@ import com.fooddelivery.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +12,8 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // authentication reads go to the primary, so a user can log in right after signing up
+    @Transactional
     Optional<User> findByEmail(String email);
     
     Optional<User> findByPhone(String phone);
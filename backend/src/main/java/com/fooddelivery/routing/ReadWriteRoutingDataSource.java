@@ -0,0 +1,71 @@
+package com.fooddelivery.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary. Reads also
+ * stay on the primary for a user who wrote within the sticky window. Must sit behind a
+ * LazyConnectionDataSourceProxy: the read-only flag is only known once the transaction has started.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	static final String PRIMARY = "primary";
+
+	private final ReplicaLagMonitor monitor;
+	private final ReadYourWritesTracker tracker;
+
+	private final Counter primaryWrites;
+	private final Counter primaryReads;
+	private final Counter replicaReads;
+
+	public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReplicaLagMonitor monitor,
+			ReadYourWritesTracker tracker, MeterRegistry meterRegistry) {
+		this.monitor = monitor;
+		this.tracker = tracker;
+		Map<Object, Object> targets = new HashMap<>(replicas);
+		targets.put(PRIMARY, primary);
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		this.primaryWrites = routed(meterRegistry, "primary", "write");
+		this.primaryReads = routed(meterRegistry, "primary", "read");
+		this.replicaReads = routed(meterRegistry, "replica", "read");
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						tracker.markCurrentUser();
+					}
+				});
+			}
+			primaryWrites.increment();
+			return PRIMARY;
+		}
+		String replica = tracker.isCurrentUserSticky() ? null : monitor.pick();
+		if (replica == null) {
+			primaryReads.increment();
+			return PRIMARY;
+		}
+		replicaReads.increment();
+		return replica;
+	}
+
+	private static Counter routed(MeterRegistry meterRegistry, String target, String access) {
+		return Counter.builder("datasource.routed.connections")
+				.tag("target", target)
+				.tag("access", access)
+				.register(meterRegistry);
+	}
+}
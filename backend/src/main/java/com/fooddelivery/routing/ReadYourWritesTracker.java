@@ -0,0 +1,61 @@
+package com.fooddelivery.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently, so that their reads stay on the primary until the replicas
+ * have caught up with what they just did. Only active when read replicas are enabled.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+	private final boolean enabled;
+	private final long stickyMs;
+
+	// user name -> last write, epoch millis
+	private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+	public ReadYourWritesTracker(@Value("${datasource.replicas.enabled:false}") boolean enabled,
+			@Value("${datasource.replicas.sticky-ms:5000}") long stickyMs) {
+		this.enabled = enabled;
+		this.stickyMs = stickyMs;
+	}
+
+	public void markCurrentUser() {
+		String user = currentUser();
+		if (enabled && user != null) {
+			lastWrites.put(user, System.currentTimeMillis());
+		}
+	}
+
+	public boolean isCurrentUserSticky() {
+		String user = currentUser();
+		if (user == null) {
+			return false;
+		}
+		Long at = lastWrites.get(user);
+		return at != null && System.currentTimeMillis() - at < stickyMs;
+	}
+
+	@Scheduled(fixedDelayString = "${datasource.replicas.sticky-ms:5000}")
+	public void purge() {
+		long before = System.currentTimeMillis() - stickyMs;
+		lastWrites.values().removeIf(at -> at < before);
+	}
+
+	static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+}
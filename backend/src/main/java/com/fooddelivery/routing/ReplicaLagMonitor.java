@@ -0,0 +1,166 @@
+package com.fooddelivery.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how far each replica is behind the primary. Every probe first reads the heartbeat row on the
+ * replicas, then writes the current time to it on the primary; a replica's lag is how old the heartbeat
+ * it sees is, so the measurement is never better than one probe interval. Replicas that lag more than
+ * the limit or fail the probe get no reads until they recover, and so do replicas whose last successful
+ * probe is older than two intervals, in case the probe itself stalls. Without heartbeats (lag probing
+ * off, e.g. two unreplicated local databases) a replica only has to answer. Probes run on their own
+ * thread so they neither wait behind nor hold up the application's @Scheduled jobs.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+	private static final String CREATE_SQL =
+			"CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+
+	private final JdbcTemplate primary;
+	private final Map<String, DataSource> dataSources;
+	private final List<Replica> replicas;
+	private final long maxLagMs;
+	private final boolean heartbeat;
+	private final long staleAfterMs;
+	private final AtomicInteger next = new AtomicInteger();
+	private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "replica-lag-probe");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, long maxLagMs, boolean heartbeat,
+			long probeIntervalMs, MeterRegistry meterRegistry) {
+		this.primary = new JdbcTemplate(primary);
+		this.dataSources = Map.copyOf(replicas);
+		this.replicas = replicas.entrySet().stream()
+				.map(entry -> new Replica(entry.getKey(), entry.getValue()))
+				.toList();
+		this.maxLagMs = maxLagMs;
+		this.heartbeat = heartbeat;
+		this.staleAfterMs = 2 * probeIntervalMs;
+		for (Replica replica : this.replicas) {
+			Gauge.builder("datasource.replica.lag", replica, r -> r.lagMs)
+					.tag("replica", replica.name)
+					.baseUnit("milliseconds")
+					.register(meterRegistry);
+		}
+		if (heartbeat) {
+			try {
+				this.primary.execute(CREATE_SQL);
+			} catch (DataAccessException ex) {
+				log.warn("Cannot create replication_heartbeat, replicas stay unused: {}", ex.getMessage());
+			}
+		}
+		prober.scheduleAtFixedRate(this::probeSafely, 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	public Map<String, DataSource> dataSources() {
+		return dataSources;
+	}
+
+	/**
+	 * A healthy replica, round robin; null sends the read to the primary.
+	 */
+	public String pick() {
+		int size = replicas.size();
+		if (size == 0) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		int start = Math.floorMod(next.getAndIncrement(), size);
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (replica.healthy && now - replica.probedAt <= staleAfterMs) {
+				return replica.name;
+			}
+		}
+		return null;
+	}
+
+	private void probeSafely() {
+		try {
+			probe();
+		} catch (RuntimeException ex) {
+			// an exception escaping would cancel every later probe
+			log.warn("Replica probe failed: {}", ex.getMessage());
+		}
+	}
+
+	void probe() {
+		long now = System.currentTimeMillis();
+		for (Replica replica : replicas) {
+			boolean wasHealthy = replica.healthy;
+			try {
+				if (heartbeat) {
+					List<Long> beats = replica.jdbc.queryForList("SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+					replica.lagMs = beats.isEmpty() ? Double.NaN : now - beats.get(0);
+				} else {
+					replica.jdbc.queryForObject("SELECT 1", Integer.class);
+					replica.lagMs = 0;
+				}
+				replica.healthy = replica.lagMs <= maxLagMs;
+				replica.probedAt = now;
+			} catch (DataAccessException ex) {
+				replica.lagMs = Double.NaN;
+				replica.healthy = false;
+			}
+			if (wasHealthy != replica.healthy) {
+				log.info("Replica {} is now {} (lag {} ms)", replica.name, replica.healthy ? "in use" : "skipped", replica.lagMs);
+			}
+		}
+		if (heartbeat) {
+			try {
+				if (primary.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", now) == 0) {
+					primary.update("INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?)", now);
+				}
+			} catch (DataAccessException ex) {
+				log.debug("Heartbeat write failed: {}", ex.getMessage());
+			}
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		prober.shutdownNow();
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof Closeable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	private static final class Replica {
+		private final String name;
+		private final DataSource dataSource;
+		private final JdbcTemplate jdbc;
+		// NaN while unknown; NaN never counts as within the limit
+		private volatile double lagMs = Double.NaN;
+		private volatile boolean healthy;
+		private volatile long probedAt;
+
+		private Replica(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+			this.jdbc = new JdbcTemplate(dataSource);
+			// replicas are probed one after another, so a hung one must not hold up the rest
+			this.jdbc.setQueryTimeout(1);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.fooddelivery.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory inverted index with BM25 ranking over weighted fields. Documents are replaced
+ * as a whole on every update; all query tokens must match, and the last one also matches
+ * as a prefix so the index can serve search-as-you-type.
+ */
+public class InvertedIndex {
+
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+	private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+	private final Map<Long, Document> documents = new HashMap<>();
+	private final NavigableMap<String, Integer> surfaceForms = new TreeMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private double totalLength;
+
+	public record Field(String text, float weight) {
+	}
+
+	public record Hit(long docId, double score) {
+	}
+
+	private record Document(float length, Map<String, Float> termFrequencies, List<String> surfaces) {
+	}
+
+	public void put(long docId, List<Field> fields) {
+		Map<String, Float> frequencies = new HashMap<>();
+		List<String> surfaces = new ArrayList<>();
+		float length = 0;
+		for (Field field : fields) {
+			for (String token : TextAnalyzer.tokens(field.text())) {
+				frequencies.merge(TextAnalyzer.stem(token), field.weight(), Float::sum);
+				surfaces.add(token);
+				length += field.weight();
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			removeLocked(docId);
+			Document document = new Document(length, frequencies, surfaces);
+			documents.put(docId, document);
+			totalLength += length;
+			frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(docId, tf));
+			surfaces.forEach(surface -> surfaceForms.merge(surface, 1, Integer::sum));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long docId) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(docId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<Hit> search(String query, int limit) {
+		return search(query, limit, docId -> true);
+	}
+
+	// accept is applied before the limit, so rejected documents never take a slot
+	public List<Hit> search(String query, int limit, LongPredicate accept) {
+		List<String> tokens = TextAnalyzer.tokens(query);
+		if (tokens.isEmpty()) {
+			return List.of();
+		}
+		boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+		lock.readLock().lock();
+		try {
+			int documentCount = documents.size();
+			if (documentCount == 0) {
+				return List.of();
+			}
+			double averageLength = totalLength / documentCount;
+			Map<Long, Double> scores = null;
+			for (int i = 0; i < tokens.size(); i++) {
+				Set<String> terms = expand(tokens.get(i), prefixLast && i == tokens.size() - 1);
+				Map<Long, Double> tokenScores = new HashMap<>();
+				for (String term : terms) {
+					Map<Long, Float> docs = postings.get(term);
+					if (docs == null) {
+						continue;
+					}
+					double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+					docs.forEach((docId, tf) -> {
+						float length = documents.get(docId).length();
+						double norm = tf + K1 * (1 - B + B * length / averageLength);
+						tokenScores.merge(docId, idf * tf * (K1 + 1) / norm, Math::max);
+					});
+				}
+				if (scores == null) {
+					scores = tokenScores;
+				} else {
+					Map<Long, Double> intersection = new HashMap<>();
+					for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+						Double score = tokenScores.get(entry.getKey());
+						if (score != null) {
+							intersection.put(entry.getKey(), entry.getValue() + score);
+						}
+					}
+					scores = intersection;
+				}
+				if (scores.isEmpty()) {
+					return List.of();
+				}
+			}
+			return scores.entrySet().stream()
+					.filter(entry -> accept.test(entry.getKey()))
+					.map(entry -> new Hit(entry.getKey(), entry.getValue()))
+					.sorted(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::docId))
+					.limit(limit)
+					.toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private Set<String> expand(String token, boolean prefix) {
+		Set<String> terms = new LinkedHashSet<>();
+		terms.add(TextAnalyzer.stem(token));
+		if (prefix) {
+			for (String surface : surfaceForms.subMap(token, true, token + Character.MAX_VALUE, false).keySet()) {
+				terms.add(TextAnalyzer.stem(surface));
+				if (terms.size() >= MAX_PREFIX_EXPANSIONS) {
+					break;
+				}
+			}
+		}
+		return terms;
+	}
+
+	private void removeLocked(long docId) {
+		Document previous = documents.remove(docId);
+		if (previous == null) {
+			return;
+		}
+		totalLength -= previous.length();
+		for (String term : previous.termFrequencies().keySet()) {
+			Map<Long, Float> docs = postings.get(term);
+			if (docs != null) {
+				docs.remove(docId);
+				if (docs.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+		for (String surface : previous.surfaces()) {
+			surfaceForms.computeIfPresent(surface, (key, count) -> count == 1 ? null : count - 1);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.fooddelivery.search;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.event.MenuItemChangedEvent;
+import com.fooddelivery.event.RestaurantChangedEvent;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Full-text index over active restaurants (name, cuisine, description and menu item names)
+ * plus one small index of available menu item names per restaurant. Built at startup and
+ * kept current from the restaurant and menu item change events.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndex {
+
+	private static final float NAME_WEIGHT = 3.0f;
+	private static final float CUISINE_WEIGHT = 2.0f;
+	private static final float MENU_WEIGHT = 1.5f;
+	private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+	private final RestaurantRepository restaurantRepository;
+	private final MenuItemRepository menuItemRepository;
+
+	private final InvertedIndex restaurantIndex = new InvertedIndex();
+	private final Map<Long, InvertedIndex> menuIndexes = new ConcurrentHashMap<>();
+	private final Map<Long, IndexedRestaurant> restaurants = new ConcurrentHashMap<>();
+	private final Map<Long, Map<Long, String>> menuNames = new ConcurrentHashMap<>();
+	private volatile boolean ready;
+
+	private record IndexedRestaurant(String name, String cuisine, String description) {
+	}
+
+	// Empty when the index is not built yet so callers can fall back
+	public Optional<List<Long>> searchRestaurants(String query, int limit, LongPredicate accept) {
+		if (!ready) {
+			return Optional.empty();
+		}
+		return Optional.of(ids(restaurantIndex.search(query, limit, accept)));
+	}
+
+	public Optional<List<Long>> searchMenuItems(Long restaurantId, String query, int limit) {
+		if (!ready) {
+			return Optional.empty();
+		}
+		InvertedIndex index = menuIndexes.get(restaurantId);
+		return Optional.of(index == null ? List.of() : ids(index.search(query, limit)));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		long start = System.nanoTime();
+		restaurants.keySet().forEach(restaurantIndex::remove);
+		restaurants.clear();
+		menuNames.clear();
+		menuIndexes.clear();
+		for (Restaurant restaurant : restaurantRepository.findByIsActiveTrue()) {
+			restaurants.put(restaurant.getId(), new IndexedRestaurant(restaurant.getName(), restaurant.getCuisine(), restaurant.getDescription()));
+		}
+		for (MenuItemRepository.NameView item : menuItemRepository.findAvailableNames()) {
+			if (restaurants.containsKey(item.getRestaurantId())) {
+				putMenuItem(item.getRestaurantId(), item.getId(), item.getName());
+			}
+		}
+		restaurants.keySet().forEach(this::reindexRestaurant);
+		ready = true;
+		log.info("Search index built: {} restaurants, {} menu items in {} ms", restaurants.size(),
+				menuNames.values().stream().mapToInt(Map::size).sum(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onRestaurantChanged(RestaurantChangedEvent event) {
+		Long restaurantId = event.getRestaurantId();
+		RestaurantDto dto = event.getRestaurant();
+		if (event.isDeleted() || !dto.isActive()) {
+			restaurants.remove(restaurantId);
+			menuNames.remove(restaurantId);
+			menuIndexes.remove(restaurantId);
+			restaurantIndex.remove(restaurantId);
+			return;
+		}
+		boolean known = restaurants.containsKey(restaurantId);
+		restaurants.put(restaurantId, new IndexedRestaurant(dto.getName(), dto.getCuisine(), dto.getDescription()));
+		if (!known) {
+			// re-activated restaurants need their menu back
+			for (MenuItem item : menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId)) {
+				putMenuItem(restaurantId, item.getId(), item.getName());
+			}
+		}
+		reindexRestaurant(restaurantId);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onMenuItemChanged(MenuItemChangedEvent event) {
+		Long menuItemId = event.getMenuItemId();
+		if (event.getPreviousRestaurantId() != null && !event.getPreviousRestaurantId().equals(event.getRestaurantId())) {
+			removeMenuItem(event.getPreviousRestaurantId(), menuItemId);
+		}
+		Optional<MenuItem> item = event.isDeleted() ? Optional.empty() : menuItemRepository.findById(menuItemId);
+		if (item.isPresent() && item.get().isAvailable() && restaurants.containsKey(event.getRestaurantId())) {
+			putMenuItem(event.getRestaurantId(), menuItemId, item.get().getName());
+		} else {
+			removeMenuItem(event.getRestaurantId(), menuItemId);
+		}
+		reindexRestaurant(event.getRestaurantId());
+		if (event.getPreviousRestaurantId() != null) {
+			reindexRestaurant(event.getPreviousRestaurantId());
+		}
+	}
+
+	private void putMenuItem(Long restaurantId, Long menuItemId, String name) {
+		menuNames.computeIfAbsent(restaurantId, id -> new ConcurrentHashMap<>()).put(menuItemId, name);
+		menuIndexes.computeIfAbsent(restaurantId, id -> new InvertedIndex())
+				.put(menuItemId, List.of(new InvertedIndex.Field(name, 1.0f)));
+	}
+
+	private void removeMenuItem(Long restaurantId, Long menuItemId) {
+		Map<Long, String> names = menuNames.get(restaurantId);
+		if (names != null) {
+			names.remove(menuItemId);
+		}
+		InvertedIndex index = menuIndexes.get(restaurantId);
+		if (index != null) {
+			index.remove(menuItemId);
+		}
+	}
+
+	private void reindexRestaurant(Long restaurantId) {
+		IndexedRestaurant restaurant = restaurants.get(restaurantId);
+		if (restaurant == null) {
+			restaurantIndex.remove(restaurantId);
+			return;
+		}
+		List<InvertedIndex.Field> fields = new ArrayList<>();
+		fields.add(new InvertedIndex.Field(restaurant.name(), NAME_WEIGHT));
+		fields.add(new InvertedIndex.Field(restaurant.cuisine(), CUISINE_WEIGHT));
+		fields.add(new InvertedIndex.Field(restaurant.description(), DESCRIPTION_WEIGHT));
+		menuNames.getOrDefault(restaurantId, Map.of())
+				.values()
+				.forEach(name -> fields.add(new InvertedIndex.Field(name, MENU_WEIGHT)));
+		restaurantIndex.put(restaurantId, fields);
+	}
+
+	private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+		return hits.stream().map(InvertedIndex.Hit::docId).toList();
+	}
+}
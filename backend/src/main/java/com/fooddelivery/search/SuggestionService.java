@@ -0,0 +1,186 @@
+package com.fooddelivery.search;
+
+import com.fooddelivery.dto.SuggestionDto;
+import com.fooddelivery.dto.SuggestionDto.SuggestionType;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.event.CategoryChangedEvent;
+import com.fooddelivery.event.MenuItemChangedEvent;
+import com.fooddelivery.event.RestaurantChangedEvent;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead suggestions over restaurant names, cuisines, categories and popular dishes.
+ * The trie is rebuilt off the request path, a couple of seconds after the last catalog
+ * change, and swapped in with a single volatile write.
+ */
+@Component
+@Slf4j
+public class SuggestionService {
+
+	private static final double RESTAURANT_BOOST = 1.0;
+	private static final double CUISINE_BOOST = 0.9;
+	private static final double DISH_BOOST = 0.8;
+	private static final double CATEGORY_BOOST = 0.7;
+
+	private final RestaurantRepository restaurantRepository;
+	private final MenuItemRepository menuItemRepository;
+	private final TaskScheduler taskScheduler;
+	private final int topK;
+	private final int maxDishes;
+	private final long rebuildDelayMs;
+
+	private final AtomicBoolean rebuildPending = new AtomicBoolean();
+	private volatile Suggestions current = new Suggestions(SuggestionTrie.empty(), new SuggestionDto[0]);
+
+	private record Suggestions(SuggestionTrie trie, SuggestionDto[] entries) {
+	}
+
+	public SuggestionService(RestaurantRepository restaurantRepository,
+			MenuItemRepository menuItemRepository,
+			TaskScheduler taskScheduler,
+			@Value("${search.suggest.top-k:10}") int topK,
+			@Value("${search.suggest.max-dishes:5000}") int maxDishes,
+			@Value("${search.suggest.rebuild-delay-ms:2000}") long rebuildDelayMs) {
+		this.restaurantRepository = restaurantRepository;
+		this.menuItemRepository = menuItemRepository;
+		this.taskScheduler = taskScheduler;
+		this.topK = topK;
+		this.maxDishes = maxDishes;
+		this.rebuildDelayMs = rebuildDelayMs;
+	}
+
+	public List<SuggestionDto> suggest(String query, int limit) {
+		String prefix = normalize(query, true);
+		if (prefix.isEmpty()) {
+			return List.of();
+		}
+		Suggestions suggestions = current;
+		// zero or negative limits from the query string would otherwise reach the trie
+		int[] entries = suggestions.trie().complete(prefix, Math.max(1, Math.min(limit, topK)));
+		List<SuggestionDto> result = new ArrayList<>(entries.length);
+		for (int entry : entries) {
+			result.add(suggestions.entries()[entry]);
+		}
+		return result;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${search.suggest.refresh-interval-ms:600000}",
+			initialDelayString = "${search.suggest.refresh-interval-ms:600000}")
+	public synchronized void rebuild() {
+		rebuildPending.set(false);
+		long start = System.nanoTime();
+		Map<String, Candidate> candidates = new LinkedHashMap<>();
+
+		List<Restaurant> restaurants = restaurantRepository.findByIsActiveTrueAndIsOpenTrue();
+		Map<String, Integer> cuisines = new HashMap<>();
+		double maxRestaurant = 0;
+		for (Restaurant restaurant : restaurants) {
+			maxRestaurant = Math.max(maxRestaurant, restaurantPopularity(restaurant));
+			cuisines.merge(restaurant.getCuisine(), 1, Integer::sum);
+		}
+		for (Restaurant restaurant : restaurants) {
+			add(candidates, new SuggestionDto(restaurant.getName(), SuggestionType.RESTAURANT, restaurant.getId()),
+					RESTAURANT_BOOST, restaurantPopularity(restaurant), maxRestaurant);
+		}
+		double maxCuisine = cuisines.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+		cuisines.forEach((cuisine, count) ->
+				add(candidates, new SuggestionDto(cuisine, SuggestionType.CUISINE, null), CUISINE_BOOST, count, maxCuisine));
+
+		List<MenuItemRepository.NamePopularity> categories = menuItemRepository.countAvailableByCategoryName();
+		double maxCategory = categories.stream().mapToDouble(c -> c.getPopularity().doubleValue()).max().orElse(0);
+		categories.forEach(category -> add(candidates, new SuggestionDto(category.getName(), SuggestionType.CATEGORY, null),
+				CATEGORY_BOOST, category.getPopularity().doubleValue(), maxCategory));
+
+		List<MenuItemRepository.NamePopularity> dishes = menuItemRepository.findPopularNames(PageRequest.of(0, maxDishes));
+		double maxDish = dishes.stream().mapToDouble(d -> d.getPopularity().doubleValue()).max().orElse(0);
+		dishes.forEach(dish -> add(candidates, new SuggestionDto(dish.getName(), SuggestionType.DISH, null),
+				DISH_BOOST, dish.getPopularity().doubleValue(), maxDish));
+
+		SuggestionDto[] entries = new SuggestionDto[candidates.size()];
+		double[] weights = new double[candidates.size()];
+		List<SuggestionTrie.Key> keys = new ArrayList<>();
+		int entry = 0;
+		for (Candidate candidate : candidates.values()) {
+			entries[entry] = candidate.suggestion();
+			weights[entry] = candidate.weight();
+			// index the full text and every later word so "chicken" also finds "Butter Chicken"
+			List<String> tokens = TextAnalyzer.tokens(candidate.suggestion().getText());
+			for (int i = 0; i < tokens.size(); i++) {
+				keys.add(new SuggestionTrie.Key(String.join(" ", tokens.subList(i, tokens.size())), entry));
+			}
+			entry++;
+		}
+		SuggestionTrie trie = SuggestionTrie.build(keys, weights, topK);
+		current = new Suggestions(trie, entries);
+		log.debug("Suggestion trie rebuilt: {} suggestions, {} nodes in {} ms", entries.length, trie.nodeCount(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRestaurantChanged(RestaurantChangedEvent event) {
+		scheduleRebuild();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMenuItemChanged(MenuItemChangedEvent event) {
+		scheduleRebuild();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		scheduleRebuild();
+	}
+
+	// coalesces bursts of admin edits into one rebuild
+	private void scheduleRebuild() {
+		if (rebuildPending.compareAndSet(false, true)) {
+			taskScheduler.schedule(this::rebuild, Instant.now().plusMillis(rebuildDelayMs));
+		}
+	}
+
+	private static void add(Map<String, Candidate> candidates, SuggestionDto suggestion, double boost, double popularity, double maxPopularity) {
+		String key = normalize(suggestion.getText(), false);
+		if (key.isEmpty()) {
+			return;
+		}
+		double weight = boost * (0.5 + 0.5 * (maxPopularity > 0 ? popularity / maxPopularity : 0));
+		// the same dish name on several menus collapses into one suggestion; restaurants stay distinct by id
+		String identity = key + '\u0000' + suggestion.getType() + '\u0000' + suggestion.getId();
+		candidates.merge(identity, new Candidate(suggestion, weight),
+				(existing, replacement) -> existing.weight() >= replacement.weight() ? existing : replacement);
+	}
+
+	private static double restaurantPopularity(Restaurant restaurant) {
+		return restaurant.getRating() * Math.log1p(restaurant.getReviewCount());
+	}
+
+	private static String normalize(String text, boolean keepTrailingSpace) {
+		String normalized = String.join(" ", TextAnalyzer.tokens(text));
+		if (keepTrailingSpace && !normalized.isEmpty() && Character.isWhitespace(text.charAt(text.length() - 1))) {
+			normalized += " ";
+		}
+		return normalized;
+	}
+
+	private record Candidate(SuggestionDto suggestion, double weight) {
+	}
+}
@@ -0,0 +1,158 @@
+package com.fooddelivery.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie flattened into parallel arrays. Children of a node are stored
+ * contiguously and sorted by label, and every node carries the indexes of its k most
+ * popular completions, so a lookup is one binary search per prefix character plus a copy.
+ */
+public final class SuggestionTrie {
+
+	private final char[] labels;
+	private final int[] childStart;
+	private final int[] childCount;
+	private final int[] topStart;
+	private final int[] topCount;
+	private final int[] top;
+
+	private SuggestionTrie(char[] labels, int[] childStart, int[] childCount, int[] topStart, int[] topCount, int[] top) {
+		this.labels = labels;
+		this.childStart = childStart;
+		this.childCount = childCount;
+		this.topStart = topStart;
+		this.topCount = topCount;
+		this.top = top;
+	}
+
+	public static SuggestionTrie empty() {
+		return build(List.of(), new double[0], 1);
+	}
+
+	/**
+	 * @param keys    normalized key per entry, one entry may appear under several keys
+	 * @param weights popularity of each entry, indexed by entry number
+	 */
+	public static SuggestionTrie build(List<Key> keys, double[] weights, int k) {
+		BuildNode root = new BuildNode('\0');
+		for (Key key : keys) {
+			BuildNode node = root;
+			for (int i = 0; i < key.text().length(); i++) {
+				char c = key.text().charAt(i);
+				node = node.children.computeIfAbsent(c, BuildNode::new);
+			}
+			node.terminals.add(key.entry());
+		}
+		computeTop(root, weights, k);
+
+		// breadth-first numbering keeps every node's children contiguous
+		List<BuildNode> order = new ArrayList<>();
+		Deque<BuildNode> queue = new ArrayDeque<>();
+		queue.add(root);
+		while (!queue.isEmpty()) {
+			BuildNode node = queue.poll();
+			order.add(node);
+			queue.addAll(node.children.values());
+		}
+		int size = order.size();
+		char[] labels = new char[size];
+		int[] childStart = new int[size];
+		int[] childCount = new int[size];
+		int[] topStart = new int[size];
+		int[] topCount = new int[size];
+		int[] top = new int[order.stream().mapToInt(node -> node.top.length).sum()];
+		int nextChild = 1;
+		int nextTop = 0;
+		for (int i = 0; i < size; i++) {
+			BuildNode node = order.get(i);
+			labels[i] = node.label;
+			childStart[i] = nextChild;
+			childCount[i] = node.children.size();
+			nextChild += node.children.size();
+			topStart[i] = nextTop;
+			topCount[i] = node.top.length;
+			System.arraycopy(node.top, 0, top, nextTop, node.top.length);
+			nextTop += node.top.length;
+		}
+		return new SuggestionTrie(labels, childStart, childCount, topStart, topCount, top);
+	}
+
+	/**
+	 * Entry numbers of the most popular completions of {@code prefix}, best first.
+	 */
+	public int[] complete(String prefix, int limit) {
+		int node = 0;
+		for (int i = 0; i < prefix.length() && node >= 0; i++) {
+			node = child(node, prefix.charAt(i));
+		}
+		if (node < 0) {
+			return new int[0];
+		}
+		return Arrays.copyOfRange(top, topStart[node], topStart[node] + Math.min(limit, topCount[node]));
+	}
+
+	public int nodeCount() {
+		return labels.length;
+	}
+
+	private int child(int node, char c) {
+		int low = childStart[node];
+		int high = low + childCount[node] - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			char label = labels[mid];
+			if (label < c) low = mid + 1;
+			else if (label > c) high = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+
+	private static void computeTop(BuildNode root, double[] weights, int k) {
+		Comparator<Integer> byWeight = Comparator.<Integer>comparingDouble(entry -> weights[entry]).reversed()
+				.thenComparing(Comparator.naturalOrder());
+		// iterative post-order so very long keys cannot overflow the stack
+		Deque<BuildNode> stack = new ArrayDeque<>();
+		List<BuildNode> postOrder = new ArrayList<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			BuildNode node = stack.pop();
+			postOrder.add(node);
+			node.children.values().forEach(stack::push);
+		}
+		for (int i = postOrder.size() - 1; i >= 0; i--) {
+			BuildNode node = postOrder.get(i);
+			List<Integer> candidates = new ArrayList<>(node.terminals);
+			for (BuildNode child : node.children.values()) {
+				for (int entry : child.top) candidates.add(entry);
+			}
+			node.top = candidates.stream()
+					.distinct()
+					.sorted(byWeight)
+					.limit(k)
+					.mapToInt(Integer::intValue)
+					.toArray();
+		}
+	}
+
+	public record Key(String text, int entry) {
+	}
+
+	private static final class BuildNode {
+		private final char label;
+		private final Map<Character, BuildNode> children = new TreeMap<>();
+		private final List<Integer> terminals = new ArrayList<>(1);
+		private int[] top = new int[0];
+
+		private BuildNode(char label) {
+			this.label = label;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.fooddelivery.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lowercase, accent-free tokens and applies a light plural stemmer,
+ * so "Crêpes" and "crepe" end up on the same term.
+ */
+public final class TextAnalyzer {
+	
+	private TextAnalyzer() {
+	}
+	
+	public static List<String> tokens(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return tokens;
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+		StringBuilder current = new StringBuilder();
+		for (int i = 0; i < normalized.length(); i++) {
+			char c = normalized.charAt(i);
+			if (Character.getType(c) == Character.NON_SPACING_MARK) {
+				continue;
+			}
+			if (Character.isLetterOrDigit(c)) {
+				current.append(c);
+			} else if (current.length() > 0) {
+				tokens.add(current.toString());
+				current.setLength(0);
+			}
+		}
+		if (current.length() > 0) {
+			tokens.add(current.toString());
+		}
+		return tokens;
+	}
+	
+	public static String stem(String token) {
+		int length = token.length();
+		if (length <= 3) {
+			return token;
+		}
+		if (token.endsWith("ies") && length > 4) {
+			return token.substring(0, length - 3) + "y";
+		}
+		if (token.endsWith("es") && (token.endsWith("shes") || token.endsWith("ches") || token.endsWith("xes") || token.endsWith("sses") || token.endsWith("zes"))) {
+			return token.substring(0, length - 2);
+		}
+		if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+			return token.substring(0, length - 1);
+		}
+		return token;
+	}
+}
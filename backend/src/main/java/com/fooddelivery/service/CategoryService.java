@@ -2,10 +2,13 @@ package com.fooddelivery.service;
 
 import com.fooddelivery.dto.CategoryRequest;
 import com.fooddelivery.entity.Category;
+import com.fooddelivery.event.CategoryChangedEvent;
 import com.fooddelivery.exception.NotFoundException;
 import com.fooddelivery.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,28 +16,37 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryService {
 	private final CategoryRepository categoryRepository;
+	private final ApplicationEventPublisher eventPublisher;
 	
 	public List<Category> getActiveCategories() {
 		return categoryRepository.findByIsActiveTrueOrderByNameAsc();
 	}
 	
+	@Transactional
 	public Category create(CategoryRequest request) {
 		Category category = new Category();
 		applyRequest(category, request);
-		return categoryRepository.save(category);
+		Category saved = categoryRepository.save(category);
+		eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId(), false));
+		return saved;
 	}
 	
+	@Transactional
 	public Category update(Long id, CategoryRequest request) {
 		Category category = categoryRepository.findById(id)
 				.orElseThrow(() -> new NotFoundException("Category not found"));
 		applyRequest(category, request);
-		return categoryRepository.save(category);
+		Category saved = categoryRepository.save(category);
+		eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId(), false));
+		return saved;
 	}
 	
+	@Transactional
 	public void delete(Long id) {
 		Category category = categoryRepository.findById(id)
 				.orElseThrow(() -> new NotFoundException("Category not found"));
 		categoryRepository.delete(category);
+		eventPublisher.publishEvent(new CategoryChangedEvent(id, true));
 	}
 	
 	private void applyRequest(Category category, CategoryRequest request) {
@@ -0,0 +1,193 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.DeliveryStatsDto;
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Streaming quantiles of real delivery times (order placed to delivered) per restaurant, over all
+ * hours and per hour of the week. Each sketch is a fixed array of log-spaced buckets, so recording a
+ * delivery is two atomic increments, quantiles are within about 5% of the true value, and a restaurant
+ * never holds more than 169 sketches however many orders it has. Recent history is loaded at startup.
+ */
+@Component
+@Slf4j
+public class DeliveryTimeStats {
+
+	private static final int HOURS_PER_WEEK = 7 * 24;
+	private static final int BATCH_SIZE = 5000;
+
+	private final OrderRepository orderRepository;
+	private final int minSamples;
+	private final int historyDays;
+
+	private final Map<Long, RestaurantStats> restaurants = new ConcurrentHashMap<>();
+
+	public DeliveryTimeStats(OrderRepository orderRepository,
+			MeterRegistry meterRegistry,
+			@Value("${delivery.stats.min-samples:20}") int minSamples,
+			@Value("${delivery.stats.history-days:90}") int historyDays) {
+		this.orderRepository = orderRepository;
+		this.minSamples = minSamples;
+		this.historyDays = historyDays;
+		Gauge.builder("delivery.stats.restaurants", restaurants, Map::size).register(meterRegistry);
+	}
+
+	public DeliveryStatsDto stats(Long restaurantId) {
+		int hour = hourOfWeek(LocalDateTime.now());
+		RestaurantStats stats = restaurants.get(restaurantId);
+		if (stats == null) {
+			return new DeliveryStatsDto(restaurantId, 0, null, null, null, hour, 0, null, null);
+		}
+		Histogram overall = stats.overall;
+		Histogram hourly = stats.byHour.get(hour);
+		return new DeliveryStatsDto(restaurantId, overall.count(),
+				minutes(overall, 0.5), minutes(overall, 0.9), minutes(overall, 0.99),
+				hour, hourly == null ? 0 : hourly.count(), minutes(hourly, 0.5), minutes(hourly, 0.9));
+	}
+
+	/**
+	 * Sets the typical delivery time of an order placed now: the median for this hour of the week when
+	 * that hour has enough samples, otherwise the median over all hours.
+	 */
+	public void annotate(Collection<RestaurantDto> dtos) {
+		int hour = hourOfWeek(LocalDateTime.now());
+		for (RestaurantDto dto : dtos) {
+			RestaurantStats stats = restaurants.get(dto.getId());
+			if (stats != null) {
+				Integer hourly = minutes(stats.byHour.get(hour), 0.5);
+				dto.setTypicalDeliveryTime(hourly != null ? hourly : minutes(stats.overall, 0.5));
+			}
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void bootstrap() {
+		long start = System.nanoTime();
+		// deliveries from here on arrive as events
+		LocalDateTime until = LocalDateTime.now();
+		LocalDateTime since = until.minusDays(historyDays);
+		long afterId = 0;
+		int count = 0;
+		while (true) {
+			List<OrderRepository.DeliveredOrderRow> rows =
+					orderRepository.findDeliveredAfter(afterId, since, until, PageRequest.of(0, BATCH_SIZE));
+			for (OrderRepository.DeliveredOrderRow row : rows) {
+				record(row.getRestaurantId(), row.getOrderTime(), row.getDeliveredAt());
+			}
+			count += rows.size();
+			if (rows.size() < BATCH_SIZE) {
+				break;
+			}
+			afterId = rows.get(rows.size() - 1).getOrderId();
+		}
+		log.info("Delivery time stats loaded {} deliveries for {} restaurants in {} ms", count, restaurants.size(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+		if (event.getStatus() == OrderStatus.DELIVERED && event.getPlacedAt() != null) {
+			record(event.getRestaurantId(), event.getPlacedAt(), event.getChangedAt());
+		}
+	}
+
+	private void record(Long restaurantId, LocalDateTime placedAt, LocalDateTime deliveredAt) {
+		long seconds = Duration.between(placedAt, deliveredAt).getSeconds();
+		if (seconds <= 0) {
+			return; // clock skew or hand-edited rows
+		}
+		int bucket = Histogram.bucketOf(seconds);
+		RestaurantStats stats = restaurants.computeIfAbsent(restaurantId, id -> new RestaurantStats());
+		stats.overall.add(bucket);
+		stats.hour(hourOfWeek(placedAt)).add(bucket);
+	}
+
+	private Integer minutes(Histogram histogram, double quantile) {
+		if (histogram == null || histogram.count() < minSamples) {
+			return null;
+		}
+		return (int) Math.round(histogram.quantileSeconds(quantile) / 60);
+	}
+
+	// 0 = Monday 00:00 to 00:59
+	private static int hourOfWeek(LocalDateTime time) {
+		return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+	}
+
+	private static final class RestaurantStats {
+		private final Histogram overall = new Histogram();
+		// allocated on first use, so hours without orders cost nothing
+		private final AtomicReferenceArray<Histogram> byHour = new AtomicReferenceArray<>(HOURS_PER_WEEK);
+
+		private Histogram hour(int hourOfWeek) {
+			Histogram histogram = byHour.get(hourOfWeek);
+			if (histogram == null) {
+				byHour.compareAndSet(hourOfWeek, null, new Histogram());
+				histogram = byHour.get(hourOfWeek);
+			}
+			return histogram;
+		}
+	}
+
+	// buckets start at one minute and each is 10% wider than the last; the last one takes anything over ~8 hours
+	private static final class Histogram {
+		private static final double MIN_SECONDS = 60;
+		private static final double GROWTH = 1.1;
+		private static final double LOG_GROWTH = Math.log(GROWTH);
+		private static final int BUCKETS = 66;
+
+		private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+		private final AtomicLong total = new AtomicLong();
+
+		private static int bucketOf(long seconds) {
+			if (seconds < MIN_SECONDS) {
+				return 0;
+			}
+			return Math.min(BUCKETS - 1, (int) (Math.log(seconds / MIN_SECONDS) / LOG_GROWTH));
+		}
+
+		private void add(int bucket) {
+			counts.incrementAndGet(bucket);
+			total.incrementAndGet();
+		}
+
+		private long count() {
+			return total.get();
+		}
+
+		// geometric middle of the bucket holding the value at that rank
+		private double quantileSeconds(double quantile) {
+			long rank = Math.max(1, (long) Math.ceil(quantile * total.get()));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS - 1; i++) {
+				seen += counts.get(i);
+				if (seen >= rank) {
+					return MIN_SECONDS * Math.pow(GROWTH, i + 0.5);
+				}
+			}
+			return MIN_SECONDS * Math.pow(GROWTH, BUCKETS - 0.5);
+		}
+	}
+}
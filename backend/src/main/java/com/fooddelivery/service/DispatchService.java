@@ -0,0 +1,97 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dispatch.DispatchMatcher;
+import com.fooddelivery.dispatch.RiderRegistry;
+import com.fooddelivery.dispatch.RiderState;
+import com.fooddelivery.dispatch.RiderStatus;
+import com.fooddelivery.dto.DispatchStatsDto;
+import com.fooddelivery.dto.RiderDto;
+import com.fooddelivery.dto.RiderLocationRequest;
+import com.fooddelivery.dto.RiderRequest;
+import com.fooddelivery.entity.Rider;
+import com.fooddelivery.exception.ConflictException;
+import com.fooddelivery.exception.NotFoundException;
+import com.fooddelivery.repository.RiderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DispatchService {
+	
+	private final RiderRepository riderRepository;
+	private final RiderRegistry riderRegistry;
+	private final DispatchMatcher dispatchMatcher;
+	
+	@Transactional
+	public RiderDto registerRider(RiderRequest request) {
+		if (riderRepository.existsByPhone(request.getPhone())) {
+			throw new ConflictException("A rider with this phone number already exists");
+		}
+		Rider rider = new Rider();
+		rider.setName(request.getName());
+		rider.setPhone(request.getPhone());
+		Rider saved = riderRepository.save(rider);
+		return convertToDto(riderRegistry.register(saved), riderRegistry.staleBefore());
+	}
+	
+	@Transactional
+	public void deactivateRider(Long id) {
+		Rider rider = riderRepository.findById(id)
+				.orElseThrow(() -> new NotFoundException("Rider not found"));
+		rider.setActive(false);
+		riderRepository.save(rider);
+		riderRegistry.remove(id);
+	}
+	
+	public List<RiderDto> getRiders() {
+		long staleBefore = riderRegistry.staleBefore();
+		return riderRegistry.riders()
+				.stream()
+				.sorted(Comparator.comparing(RiderState::getId))
+				.map(rider -> convertToDto(rider, staleBefore))
+				.toList();
+	}
+	
+	public void updateLocation(Long riderId, RiderLocationRequest request) {
+		if (!riderRegistry.ping(riderId, request.getLatitude(), request.getLongitude(), request.getAvailable())) {
+			throw new NotFoundException("Rider not found");
+		}
+	}
+	
+	public DispatchStatsDto getStats() {
+		long staleBefore = riderRegistry.staleBefore();
+		int available = 0;
+		int assigned = 0;
+		int offline = 0;
+		for (RiderState rider : riderRegistry.riders()) {
+			switch (rider.status(staleBefore)) {
+				case AVAILABLE -> available++;
+				case ASSIGNED -> assigned++;
+				case OFFLINE -> offline++;
+			}
+		}
+		DispatchMatcher.Round round = dispatchMatcher.lastRound();
+		return round == null
+				? new DispatchStatsDto(available + assigned + offline, available, assigned, offline, null, 0, 0, 0)
+				: new DispatchStatsDto(available + assigned + offline, available, assigned, offline,
+						round.at(), round.millis(), round.assigned(), round.unmatched());
+	}
+	
+	private static RiderDto convertToDto(RiderState rider, long staleBefore) {
+		RiderStatus status = rider.status(staleBefore);
+		if (!rider.hasLocation()) {
+			return new RiderDto(rider.getId(), rider.getName(), rider.getPhone(), status, null, null, null, rider.getOrderId());
+		}
+		LocalDateTime lastPingAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(rider.getLastPingAt()), ZoneId.systemDefault());
+		return new RiderDto(rider.getId(), rider.getName(), rider.getPhone(), status,
+				rider.getLatitude(), rider.getLongitude(), lastPingAt, rider.getOrderId());
+	}
+}
@@ -0,0 +1,222 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.KitchenStatusDto;
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.event.OrderCreatedEvent;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-restaurant model of the kitchen: open orders wait in arrival order for one of a fixed number
+ * of parallel prep slots, each order taking as long as its slowest item. Every change replays the
+ * schedule of that one kitchen under its own lock and republishes the resulting ETAs, so lookups
+ * are a single map read and restaurants never contend with each other.
+ */
+@Component
+@Slf4j
+public class KitchenScheduler {
+
+	private static final long MINUTE_MS = 60_000;
+	private static final Set<OrderStatus> OPEN = EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED,
+			OrderStatus.PREPARING, OrderStatus.READY_FOR_DELIVERY, OrderStatus.OUT_FOR_DELIVERY);
+
+	private final OrderRepository orderRepository;
+	private final int slots;
+	private final int defaultPrepMinutes;
+
+	private final Map<Long, Kitchen> kitchens = new ConcurrentHashMap<>();
+	// orderId -> estimated delivery, epoch millis
+	private final Map<Long, Long> etas = new ConcurrentHashMap<>();
+
+	public KitchenScheduler(OrderRepository orderRepository,
+			MeterRegistry meterRegistry,
+			@Value("${kitchen.slots:4}") int slots,
+			@Value("${kitchen.default-prep-minutes:15}") int defaultPrepMinutes) {
+		this.orderRepository = orderRepository;
+		this.slots = slots;
+		this.defaultPrepMinutes = defaultPrepMinutes;
+		Gauge.builder("kitchen.open.orders", etas, Map::size).register(meterRegistry);
+	}
+
+	/**
+	 * Delivery estimate for a new order, from when the next prep slot frees up.
+	 */
+	public LocalDateTime quote(Long restaurantId, int prepMinutes, int deliveryMinutes) {
+		long now = System.currentTimeMillis();
+		Kitchen kitchen = kitchens.get(restaurantId);
+		long start = kitchen == null ? now : Math.max(now, kitchen.nextFreeSlot);
+		return toLocalDateTime(start + (prepMinutes + (long) deliveryMinutes) * MINUTE_MS);
+	}
+
+	public Optional<LocalDateTime> estimatedDeliveryTime(Long orderId) {
+		Long eta = etas.get(orderId);
+		return eta == null ? Optional.empty() : Optional.of(toLocalDateTime(eta));
+	}
+
+	public KitchenStatusDto status(Long restaurantId, int deliveryMinutes) {
+		long now = System.currentTimeMillis();
+		Kitchen kitchen = kitchens.get(restaurantId);
+		long start = kitchen == null ? now : Math.max(now, kitchen.nextFreeSlot);
+		int waitMinutes = (int) Math.ceil((start - now) / (double) MINUTE_MS);
+		LocalDateTime eta = toLocalDateTime(start + (defaultPrepMinutes + (long) deliveryMinutes) * MINUTE_MS);
+		return kitchen == null
+				? new KitchenStatusDto(restaurantId, slots, 0, 0, waitMinutes, eta)
+				: new KitchenStatusDto(restaurantId, slots, kitchen.queued, kitchen.preparing, waitMinutes, eta);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void bootstrap() {
+		long start = System.nanoTime();
+		int count = 0;
+		for (OrderRepository.OpenOrderRow row : orderRepository.findOpenOrdersForKitchen(OPEN)) {
+			Kitchen kitchen = kitchen(row.getRestaurantId());
+			synchronized (kitchen) {
+				kitchen.deliveryMinutes = row.getDeliveryMinutes();
+				long changedAt = toMillis(row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getOrderTime());
+				Ticket ticket = kitchen.tickets.computeIfAbsent(row.getOrderId(), id -> new Ticket(id,
+						row.getPrepMinutes() != null ? row.getPrepMinutes() : defaultPrepMinutes, toMillis(row.getOrderTime())));
+				ticket.moveTo(row.getStatus(), changedAt);
+			}
+			count++;
+		}
+		kitchens.values().forEach(this::reschedule);
+		log.info("Kitchen scheduler loaded {} open orders for {} restaurants in {} ms", count, kitchens.size(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderCreated(OrderCreatedEvent event) {
+		Kitchen kitchen = kitchen(event.getRestaurantId());
+		synchronized (kitchen) {
+			kitchen.deliveryMinutes = event.getDeliveryMinutes();
+			kitchen.tickets.putIfAbsent(event.getOrderId(),
+					new Ticket(event.getOrderId(), event.getPrepMinutes(), toMillis(event.getPlacedAt())));
+		}
+		reschedule(kitchen);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+		Kitchen kitchen = kitchen(event.getRestaurantId());
+		synchronized (kitchen) {
+			if (!OPEN.contains(event.getStatus())) {
+				kitchen.tickets.remove(event.getOrderId());
+				etas.remove(event.getOrderId());
+			} else {
+				// orders placed on another instance are tracked from their first status change
+				long placedAt = event.getPlacedAt() != null ? toMillis(event.getPlacedAt()) : System.currentTimeMillis();
+				kitchen.tickets.computeIfAbsent(event.getOrderId(), id -> new Ticket(id, defaultPrepMinutes, placedAt))
+						.moveTo(event.getStatus(), toMillis(event.getChangedAt()));
+			}
+		}
+		reschedule(kitchen);
+	}
+
+	// overrunning orders push everything behind them back, so the schedule is replayed as time passes
+	@Scheduled(fixedDelayString = "${kitchen.refresh-interval-ms:60000}",
+			initialDelayString = "${kitchen.refresh-interval-ms:60000}")
+	public void refresh() {
+		kitchens.values().forEach(this::reschedule);
+	}
+
+	private Kitchen kitchen(Long restaurantId) {
+		return kitchens.computeIfAbsent(restaurantId, id -> new Kitchen());
+	}
+
+	private void reschedule(Kitchen kitchen) {
+		synchronized (kitchen) {
+			long now = System.currentTimeMillis();
+			long delivery = kitchen.deliveryMinutes * MINUTE_MS;
+			PriorityQueue<Long> freeAt = new PriorityQueue<>(slots);
+			for (int i = 0; i < slots; i++) {
+				freeAt.add(now);
+			}
+			int preparing = 0;
+			int queued = 0;
+			// orders already on the stove hold their slot; late ones are assumed to finish now
+			for (Ticket ticket : kitchen.tickets.values()) {
+				if (ticket.status == OrderStatus.PREPARING) {
+					long ready = Math.max(now, ticket.changedAt + ticket.prepMinutes * MINUTE_MS);
+					freeAt.poll();
+					freeAt.add(ready);
+					etas.put(ticket.orderId, ready + delivery);
+					preparing++;
+				}
+			}
+			for (Ticket ticket : kitchen.tickets.values()) {
+				switch (ticket.status) {
+					case PENDING, CONFIRMED -> {
+						long ready = freeAt.poll() + ticket.prepMinutes * MINUTE_MS;
+						freeAt.add(ready);
+						etas.put(ticket.orderId, ready + delivery);
+						queued++;
+					}
+					case READY_FOR_DELIVERY -> etas.put(ticket.orderId, Math.max(now, ticket.changedAt) + delivery);
+					case OUT_FOR_DELIVERY -> etas.put(ticket.orderId, Math.max(now, ticket.changedAt + delivery));
+					default -> {
+					}
+				}
+			}
+			kitchen.nextFreeSlot = freeAt.peek();
+			kitchen.queued = queued;
+			kitchen.preparing = preparing;
+		}
+	}
+
+	private static long toMillis(LocalDateTime time) {
+		return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private static LocalDateTime toLocalDateTime(long millis) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+	}
+
+	// one per restaurant that has had orders; kept for the life of the process
+	private static final class Kitchen {
+		// arrival order
+		private final Map<Long, Ticket> tickets = new LinkedHashMap<>();
+		private int deliveryMinutes = 30;
+		private volatile long nextFreeSlot;
+		private volatile int queued;
+		private volatile int preparing;
+	}
+
+	private static final class Ticket {
+		private final Long orderId;
+		private final int prepMinutes;
+		private OrderStatus status = OrderStatus.PENDING;
+		// when the current status was entered
+		private long changedAt;
+
+		private Ticket(Long orderId, int prepMinutes, long placedAt) {
+			this.orderId = orderId;
+			this.prepMinutes = prepMinutes;
+			this.changedAt = placedAt;
+		}
+
+		private void moveTo(OrderStatus next, long at) {
+			status = next;
+			changedAt = at;
+		}
+	}
+}
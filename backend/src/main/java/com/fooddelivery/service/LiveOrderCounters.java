@@ -0,0 +1,149 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.LiveOrderStatsDto;
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.event.OrderCreatedEvent;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of orders per restaurant and status, kept in memory so dashboards never run COUNT queries.
+ * Each restaurant has one LongAdder per status, moved by the committed create and status change
+ * events; one GROUP BY over orders seeds them at startup and corrects drift on a schedule, which also
+ * picks up orders changed by other instances.
+ */
+@Component
+@Slf4j
+public class LiveOrderCounters {
+
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+	private static final Set<OrderStatus> OPEN = EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED,
+			OrderStatus.PREPARING, OrderStatus.READY_FOR_DELIVERY, OrderStatus.OUT_FOR_DELIVERY);
+
+	private final OrderRepository orderRepository;
+	private final Counter corrections;
+
+	private final Map<Long, LongAdder[]> counters = new ConcurrentHashMap<>();
+	private volatile LocalDateTime reconciledAt;
+
+	public LiveOrderCounters(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+		this.orderRepository = orderRepository;
+		this.corrections = Counter.builder("orders.live.counters.corrections").register(meterRegistry);
+		Gauge.builder("orders.live.counters.restaurants", counters, Map::size).register(meterRegistry);
+	}
+
+	public LiveOrderStatsDto stats(Long restaurantId) {
+		LongAdder[] cells = counters.get(restaurantId);
+		Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+		long open = 0;
+		long total = 0;
+		for (OrderStatus status : STATUSES) {
+			// an event can overtake the reconciliation that would have counted its order
+			long count = cells == null ? 0 : Math.max(0, cells[status.ordinal()].sum());
+			byStatus.put(status, count);
+			total += count;
+			if (OPEN.contains(status)) {
+				open += count;
+			}
+		}
+		return new LiveOrderStatsDto(restaurantId, byStatus, open, total, reconciledAt);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void bootstrap() {
+		long start = System.nanoTime();
+		reconcile();
+		log.info("Live order counters seeded for {} restaurants in {} ms", counters.size(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderCreated(OrderCreatedEvent event) {
+		cells(event.getRestaurantId())[OrderStatus.PENDING.ordinal()].increment();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+		LongAdder[] cells = cells(event.getRestaurantId());
+		cells[event.getPreviousStatus().ordinal()].decrement();
+		cells[event.getStatus().ordinal()].increment();
+	}
+
+	/**
+	 * Moves every counter to the database count. A counter that changed while the query ran is left
+	 * alone, since the query may or may not include that change; the next round settles it.
+	 */
+	@Scheduled(fixedDelayString = "${orders.live-counters.reconcile-interval-ms:300000}",
+			initialDelayString = "${orders.live-counters.reconcile-interval-ms:300000}")
+	public void reconcile() {
+		Map<Long, long[]> before = snapshot();
+		Map<Long, long[]> actual = new HashMap<>();
+		for (OrderRepository.StatusCountRow row : orderRepository.countByRestaurantAndStatus()) {
+			actual.computeIfAbsent(row.getRestaurantId(), id -> new long[STATUSES.length])[row.getStatus().ordinal()] = row.getOrderCount();
+		}
+
+		Set<Long> restaurantIds = new HashSet<>(actual.keySet());
+		restaurantIds.addAll(before.keySet());
+		long[] none = new long[STATUSES.length];
+		int corrected = 0;
+		for (Long restaurantId : restaurantIds) {
+			long[] expected = actual.getOrDefault(restaurantId, none);
+			long[] seen = before.getOrDefault(restaurantId, none);
+			LongAdder[] cells = cells(restaurantId);
+			for (int i = 0; i < STATUSES.length; i++) {
+				long current = cells[i].sum();
+				if (current == seen[i] && current != expected[i]) {
+					// a delta, so an event landing in between is kept
+					cells[i].add(expected[i] - current);
+					corrected++;
+				}
+			}
+		}
+		reconciledAt = LocalDateTime.now();
+		if (corrected > 0) {
+			corrections.increment(corrected);
+			log.debug("Corrected {} live order counters", corrected);
+		}
+	}
+
+	private Map<Long, long[]> snapshot() {
+		Map<Long, long[]> snapshot = new HashMap<>();
+		counters.forEach((restaurantId, cells) -> {
+			long[] values = new long[STATUSES.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = cells[i].sum();
+			}
+			snapshot.put(restaurantId, values);
+		});
+		return snapshot;
+	}
+
+	private LongAdder[] cells(Long restaurantId) {
+		return counters.computeIfAbsent(restaurantId, id -> {
+			LongAdder[] cells = new LongAdder[STATUSES.length];
+			for (int i = 0; i < cells.length; i++) {
+				cells[i] = new LongAdder();
+			}
+			return cells;
+		});
+	}
+}
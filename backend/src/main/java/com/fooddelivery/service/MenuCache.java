@@ -0,0 +1,248 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.MenuItemDto;
+import com.fooddelivery.event.CategoryChangedEvent;
+import com.fooddelivery.event.MenuItemChangedEvent;
+import com.fooddelivery.event.RestaurantChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded per-restaurant cache of the available menu with precomputed facet views.
+ * Evicts the least recently used menus once either the restaurant or the item budget is exceeded.
+ */
+@Component
+@Slf4j
+public class MenuCache {
+
+	private final ConcurrentHashMap<Long, Entry> menus = new ConcurrentHashMap<>();
+	private final AtomicLong clock = new AtomicLong();
+	private final AtomicLong cachedItems = new AtomicLong();
+	private final int maxRestaurants;
+	private final int maxItems;
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter evictions;
+
+	public MenuCache(MeterRegistry meterRegistry,
+			@Value("${catalog.menus.max-restaurants:500}") int maxRestaurants,
+			@Value("${catalog.menus.max-items:50000}") int maxItems) {
+		this.maxRestaurants = maxRestaurants;
+		this.maxItems = maxItems;
+		this.hits = Counter.builder("menu.cache.requests").tag("result", "hit").register(meterRegistry);
+		this.misses = Counter.builder("menu.cache.requests").tag("result", "miss").register(meterRegistry);
+		this.evictions = Counter.builder("menu.cache.evictions").register(meterRegistry);
+		Gauge.builder("menu.cache.restaurants", menus, Map::size).register(meterRegistry);
+		Gauge.builder("menu.cache.items", cachedItems, AtomicLong::get).register(meterRegistry);
+	}
+
+	public RestaurantMenu get(Long restaurantId, Function<Long, List<MenuItemDto>> loader) {
+		Entry entry = menus.get(restaurantId);
+		if (entry != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+			// a concurrent invalidate() for this key blocks until the load finishes, so it cannot be lost
+			entry = menus.computeIfAbsent(restaurantId, id -> {
+				RestaurantMenu menu = RestaurantMenu.of(loader.apply(id));
+				cachedItems.addAndGet(menu.size());
+				return new Entry(menu);
+			});
+			evictIfNeeded(restaurantId);
+		}
+		entry.lastAccess = clock.incrementAndGet();
+		return entry.menu;
+	}
+
+	public void invalidate(Long restaurantId) {
+		if (restaurantId == null) {
+			return;
+		}
+		Entry removed = menus.remove(restaurantId);
+		if (removed != null) {
+			cachedItems.addAndGet(-removed.menu.size());
+		}
+	}
+
+	public void invalidateAll() {
+		menus.keySet().forEach(this::invalidate);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMenuItemChanged(MenuItemChangedEvent event) {
+		invalidate(event.getRestaurantId());
+		if (event.getPreviousRestaurantId() != null && !event.getPreviousRestaurantId().equals(event.getRestaurantId())) {
+			invalidate(event.getPreviousRestaurantId());
+		}
+	}
+
+	// cached items carry the restaurant name
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRestaurantChanged(RestaurantChangedEvent event) {
+		invalidate(event.getRestaurantId());
+	}
+
+	// cached items carry the category name, and a category may be used by any restaurant
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		invalidateAll();
+	}
+
+	private void evictIfNeeded(Long justLoaded) {
+		while (menus.size() > maxRestaurants || (cachedItems.get() > maxItems && menus.size() > 1)) {
+			Long victim = null;
+			long oldest = Long.MAX_VALUE;
+			for (Map.Entry<Long, Entry> candidate : menus.entrySet()) {
+				if (!candidate.getKey().equals(justLoaded) && candidate.getValue().lastAccess < oldest) {
+					oldest = candidate.getValue().lastAccess;
+					victim = candidate.getKey();
+				}
+			}
+			if (victim == null) {
+				return;
+			}
+			invalidate(victim);
+			evictions.increment();
+		}
+	}
+
+	private static final class Entry {
+		private final RestaurantMenu menu;
+		private volatile long lastAccess;
+
+		private Entry(RestaurantMenu menu) {
+			this.menu = menu;
+		}
+	}
+
+	/**
+	 * Immutable view of one restaurant's available menu, ordered by (name, id).
+	 */
+	public static final class RestaurantMenu {
+
+		private static final Comparator<MenuItemDto> BY_NAME = Comparator
+				.comparing(MenuItemDto::getName, String.CASE_INSENSITIVE_ORDER)
+				.thenComparing(MenuItemDto::getId);
+
+		private final List<MenuItemDto> items;
+		private final Map<Long, Integer> positions;
+		private final BitSet vegetarian;
+		private final BitSet spicy;
+		private final Map<Long, int[]> byCategory;
+		private final int[] byPrice;
+		private final double[] sortedPrices;
+
+		private RestaurantMenu(List<MenuItemDto> items) {
+			this.items = items;
+			int size = items.size();
+			this.positions = new HashMap<>(size * 2);
+			this.vegetarian = new BitSet(size);
+			this.spicy = new BitSet(size);
+			Map<Long, List<Integer>> categories = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				MenuItemDto item = items.get(i);
+				positions.put(item.getId(), i);
+				if (item.isVegetarian()) vegetarian.set(i);
+				if (item.isSpicy()) spicy.set(i);
+				if (item.getCategoryId() != null) {
+					categories.computeIfAbsent(item.getCategoryId(), id -> new ArrayList<>()).add(i);
+				}
+			}
+			this.byCategory = new HashMap<>(categories.size() * 2);
+			categories.forEach((id, indexes) -> byCategory.put(id, indexes.stream().mapToInt(Integer::intValue).toArray()));
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) order[i] = i;
+			Arrays.sort(order, Comparator.comparingDouble(i -> items.get(i).getPrice()));
+			this.byPrice = new int[size];
+			this.sortedPrices = new double[size];
+			for (int i = 0; i < size; i++) {
+				byPrice[i] = order[i];
+				sortedPrices[i] = items.get(order[i]).getPrice();
+			}
+		}
+
+		static RestaurantMenu of(List<MenuItemDto> loaded) {
+			List<MenuItemDto> items = new ArrayList<>(loaded);
+			items.sort(BY_NAME);
+			return new RestaurantMenu(List.copyOf(items));
+		}
+
+		public int size() {
+			return items.size();
+		}
+
+		public List<MenuItemDto> all() {
+			return items;
+		}
+
+		public Optional<MenuItemDto> findById(Long menuItemId) {
+			Integer position = positions.get(menuItemId);
+			return position == null ? Optional.empty() : Optional.of(items.get(position));
+		}
+
+		public List<MenuItemDto> vegetarian() {
+			return select(vegetarian);
+		}
+
+		public List<MenuItemDto> spicy() {
+			return select(spicy);
+		}
+
+		public List<MenuItemDto> category(Long categoryId) {
+			int[] indexes = byCategory.get(categoryId);
+			if (indexes == null) {
+				return List.of();
+			}
+			List<MenuItemDto> result = new ArrayList<>(indexes.length);
+			for (int index : indexes) result.add(items.get(index));
+			return result;
+		}
+
+		// inclusive on both ends like SQL BETWEEN, cheapest first
+		public List<MenuItemDto> priceRange(double minPrice, double maxPrice) {
+			int from = lowerBound(minPrice);
+			List<MenuItemDto> result = new ArrayList<>();
+			for (int i = from; i < sortedPrices.length && sortedPrices[i] <= maxPrice; i++) {
+				result.add(items.get(byPrice[i]));
+			}
+			return result;
+		}
+
+		private int lowerBound(double price) {
+			int low = 0;
+			int high = sortedPrices.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (sortedPrices[mid] < price) low = mid + 1;
+				else high = mid;
+			}
+			return low;
+		}
+
+		private List<MenuItemDto> select(BitSet bits) {
+			List<MenuItemDto> result = new ArrayList<>(bits.cardinality());
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				result.add(items.get(i));
+			}
+			return result;
+		}
+	}
+}
@@ -1,76 +1,114 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.dto.CursorPage;
 import com.fooddelivery.dto.MenuItemDto;
+import com.fooddelivery.dto.MenuItemFilter;
 import com.fooddelivery.dto.MenuItemRequest;
+import com.fooddelivery.dto.PageCursor;
 import com.fooddelivery.entity.Category;
 import com.fooddelivery.entity.MenuItem;
 import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.event.MenuItemChangedEvent;
 import com.fooddelivery.exception.NotFoundException;
 import com.fooddelivery.repository.MenuItemRepository;
 import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.CategoryRepository;
+import com.fooddelivery.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MenuItemService {
 	
+	private static final int SEARCH_LIMIT = 100;
+	private static final int MAX_CURSOR_PAGE_SIZE = 100;
+	
 	private final MenuItemRepository menuItemRepository;
 	private final RestaurantRepository restaurantRepository;
 	private final CategoryRepository categoryRepository;
+	private final MenuCache menuCache;
+	private final SearchIndex searchIndex;
+	private final ApplicationEventPublisher eventPublisher;
 	
 	public List<MenuItemDto> getMenuItemsByRestaurant(Long restaurantId) {
-		return menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		return menu(restaurantId).all();
+	}
+	
+	// the query orders by (name, id) itself, so any client-supplied sort is dropped
+	public Page<MenuItemDto> getMenuItemsPage(Long restaurantId, MenuItemFilter filter, Pageable pageable) {
+		return menuItemRepository.findFilteredPage(restaurantId, filter.getCategoryId(), filter.getVegetarian(),
+				filter.getSpicy(), filter.getMinPrice(), filter.getMaxPrice(),
+				PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+	}
+	
+	public CursorPage<MenuItemDto> getMenuItemsByCursor(Long restaurantId, MenuItemFilter filter, String cursor, int size) {
+		int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+		PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+		List<MenuItemDto> rows = menuItemRepository.findFilteredKeysetPage(restaurantId, filter.getCategoryId(),
+				filter.getVegetarian(), filter.getSpicy(), filter.getMinPrice(), filter.getMaxPrice(),
+				after == null ? null : after.getSortKey(), after == null ? null : after.getId(),
+				PageRequest.of(0, pageSize + 1));
+		return CursorPage.of(rows, pageSize, item -> new PageCursor(item.getName(), item.getId()), item -> item, null);
 	}
 	
 	public List<MenuItemDto> getMenuItemsByRestaurantAndCategory(Long restaurantId, Long categoryId) {
-		return menuItemRepository.findByRestaurantIdAndCategoryIdAndIsAvailableTrue(restaurantId, categoryId)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		return menu(restaurantId).category(categoryId);
 	}
 	
 	public List<MenuItemDto> searchMenuItems(Long restaurantId, String query) {
-		return menuItemRepository.searchByRestaurantIdAndName(restaurantId, query)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		MenuCache.RestaurantMenu menu = menu(restaurantId);
+		if (query.isBlank()) {
+			return menu.all();
+		}
+		return searchIndex.searchMenuItems(restaurantId, query, SEARCH_LIMIT)
+				.map(ids -> ids.stream()
+						.map(menu::findById)
+						.flatMap(Optional::stream)
+						.collect(Collectors.toList()))
+				.orElseGet(() -> {
+					// index still building at startup
+					String needle = query.toLowerCase(Locale.ROOT);
+					return menu.all()
+							.stream()
+							.filter(item -> item.getName().toLowerCase(Locale.ROOT).contains(needle))
+							.collect(Collectors.toList());
+				});
 	}
 	
 	public List<MenuItemDto> getVegetarianMenuItems(Long restaurantId) {
-		return menuItemRepository.findByRestaurantIdAndIsVegetarianTrueAndIsAvailableTrue(restaurantId)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		return menu(restaurantId).vegetarian();
 	}
 	
 	public List<MenuItemDto> getSpicyMenuItems(Long restaurantId) {
-		return menuItemRepository.findByRestaurantIdAndIsSpicyTrueAndIsAvailableTrue(restaurantId)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		return menu(restaurantId).spicy();
 	}
 	
 	public List<MenuItemDto> getMenuItemsByPriceRange(Long restaurantId, double minPrice, double maxPrice) {
-		return menuItemRepository.findByRestaurantIdAndPriceRange(restaurantId, minPrice, maxPrice)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		return menu(restaurantId).priceRange(minPrice, maxPrice);
+	}
+	
+	// empty when the item is unknown, unavailable or on another restaurant's menu
+	public Optional<MenuItemDto> findAvailableMenuItem(Long restaurantId, Long menuItemId) {
+		return menu(restaurantId).findById(menuItemId);
 	}
 	
 	public MenuItemDto getMenuItemById(Long id) {
-		MenuItem menuItem = menuItemRepository.findById(id)
+		return menuItemRepository.findDtoById(id)
 				.orElseThrow(() -> new NotFoundException("Menu item not found"));
-		return convertToDto(menuItem);
 	}
 	
+	@Transactional
 	public MenuItemDto createMenuItem(MenuItemRequest request) {
 		Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
 				.orElseThrow(() -> new NotFoundException("Restaurant not found"));
@@ -80,9 +118,11 @@ public class MenuItemService {
 		MenuItem menuItem = new MenuItem();
 		applyRequest(menuItem, request, restaurant, category);
 		MenuItem saved = menuItemRepository.save(menuItem);
+		eventPublisher.publishEvent(new MenuItemChangedEvent(saved.getId(), restaurant.getId(), null, false));
 		return convertToDto(saved);
 	}
 	
+	@Transactional
 	public MenuItemDto updateMenuItem(Long id, MenuItemRequest request) {
 		MenuItem menuItem = menuItemRepository.findById(id)
 				.orElseThrow(() -> new NotFoundException("Menu item not found"));
@@ -91,15 +131,24 @@ public class MenuItemService {
 		Category category = categoryRepository.findById(request.getCategoryId())
 				.orElseThrow(() -> new NotFoundException("Category not found"));
 		
+		Long previousRestaurantId = menuItem.getRestaurant().getId();
 		applyRequest(menuItem, request, restaurant, category);
 		MenuItem saved = menuItemRepository.save(menuItem);
+		eventPublisher.publishEvent(new MenuItemChangedEvent(saved.getId(), restaurant.getId(), previousRestaurantId, false));
 		return convertToDto(saved);
 	}
 	
+	@Transactional
 	public void deleteMenuItem(Long id) {
 		MenuItem menuItem = menuItemRepository.findById(id)
 				.orElseThrow(() -> new NotFoundException("Menu item not found"));
+		Long restaurantId = menuItem.getRestaurant().getId();
 		menuItemRepository.delete(menuItem);
+		eventPublisher.publishEvent(new MenuItemChangedEvent(id, restaurantId, null, true));
+	}
+	
+	private MenuCache.RestaurantMenu menu(Long restaurantId) {
+		return menuCache.get(restaurantId, menuItemRepository::findAvailableDtosByRestaurantId);
 	}
 	
 	private void applyRequest(MenuItem menuItem, MenuItemRequest request, Restaurant restaurant, Category category) {
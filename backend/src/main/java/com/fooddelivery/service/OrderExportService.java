@@ -0,0 +1,182 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.dto.OrderSummaryDto;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderSummary;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.NotFoundException;
+import com.fooddelivery.repository.OrderSummaryRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Writes a restaurant's orders to an output stream as NDJSON or CSV. Rows come from order_summaries
+ * through a forward-only streamed result set and are written as they arrive; the persistence context
+ * is cleared every few hundred rows, so the heap stays flat whatever the number of orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+	
+	private static final int CLEAR_EVERY = 500;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final String CSV_HEADER = "id,orderNumber,userId,userName,restaurantId,restaurantName,itemCount,total," +
+			"status,paymentStatus,orderTime,estimatedDeliveryTime,actualDeliveryTime,createdAt,updatedAt";
+	
+	public enum Format {
+		NDJSON("application/x-ndjson", "ndjson"),
+		CSV("text/csv", "csv");
+		
+		private final String contentType;
+		private final String extension;
+		
+		Format(String contentType, String extension) {
+			this.contentType = contentType;
+			this.extension = extension;
+		}
+		
+		public String contentType() {
+			return contentType;
+		}
+		
+		public String extension() {
+			return extension;
+		}
+	}
+	
+	private final OrderSummaryRepository orderSummaryRepository;
+	private final RestaurantRepository restaurantRepository;
+	private final ObjectMapper objectMapper;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	// call before the response is committed, so these errors still come back as JSON
+	public void checkExport(Long restaurantId, LocalDateTime from, LocalDateTime to) {
+		if (!restaurantRepository.existsById(restaurantId)) {
+			throw new NotFoundException("Restaurant not found");
+		}
+		if (from != null && to != null && !from.isBefore(to)) {
+			throw new BadRequestException("'from' must be before 'to'");
+		}
+	}
+	
+	/**
+	 * Orders created in [from, to) with one of the statuses, oldest first. Missing bounds and an empty
+	 * status filter mean no restriction. Returns the number of orders written.
+	 */
+	@Transactional(readOnly = true)
+	public long exportRestaurantOrders(Long restaurantId, LocalDateTime from, LocalDateTime to,
+			Set<Order.OrderStatus> statuses, Format format, OutputStream out) throws IOException {
+		long start = System.nanoTime();
+		long count = 0;
+		// not closed: the servlet container owns the response stream
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+		if (format == Format.CSV) {
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+		try (Stream<OrderSummary> rows = orderSummaryRepository.streamForExport(restaurantId,
+				from != null ? from : EPOCH,
+				to != null ? to : LocalDateTime.now().plusDays(1),
+				statuses == null || statuses.isEmpty() ? EnumSet.allOf(Order.OrderStatus.class) : statuses)) {
+			Iterator<OrderSummary> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				OrderSummary row = iterator.next();
+				if (format == Format.CSV) {
+					writeCsv(writer, row);
+				} else {
+					writer.write(objectMapper.writeValueAsString(toDto(row)));
+					writer.write('\n');
+				}
+				if (++count % CLEAR_EVERY == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+		writer.flush();
+		log.debug("Exported {} orders of restaurant {} as {} in {} ms", count, restaurantId, format,
+				(System.nanoTime() - start) / 1_000_000);
+		return count;
+	}
+	
+	private static void writeCsv(Writer writer, OrderSummary row) throws IOException {
+		writer.write(String.valueOf(row.getId()));
+		writer.write(',');
+		writer.write(csvText(row.getOrderNumber()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getUserId()));
+		writer.write(',');
+		writer.write(csvText(row.getUserName()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getRestaurantId()));
+		writer.write(',');
+		writer.write(csvText(row.getRestaurantName()));
+		writer.write(',');
+		writer.write(Integer.toString(row.getItemCount()));
+		writer.write(',');
+		writer.write(BigDecimal.valueOf(row.getTotal()).setScale(2, RoundingMode.HALF_UP).toPlainString());
+		writer.write(',');
+		writer.write(row.getStatus().name());
+		writer.write(',');
+		writer.write(row.getPaymentStatus().name());
+		writer.write(',');
+		writer.write(csvTime(row.getOrderTime()));
+		writer.write(',');
+		writer.write(csvTime(row.getEstimatedDeliveryTime()));
+		writer.write(',');
+		writer.write(csvTime(row.getActualDeliveryTime()));
+		writer.write(',');
+		writer.write(csvTime(row.getCreatedAt()));
+		writer.write(',');
+		writer.write(csvTime(row.getUpdatedAt()));
+		writer.write('\n');
+	}
+	
+	// quoted when needed; a leading formula character is neutralized so spreadsheets show the text as is
+	private static String csvText(String value) {
+		if (value == null || value.isEmpty()) {
+			return "";
+		}
+		if ("=+-@".indexOf(value.charAt(0)) >= 0) {
+			value = "'" + value;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+	
+	private static String csvTime(LocalDateTime time) {
+		return time == null ? "" : time.toString();
+	}
+	
+	private static OrderSummaryDto toDto(OrderSummary row) {
+		return new OrderSummaryDto(row.getId(), row.getOrderNumber(), row.getUserId(), row.getUserName(),
+				row.getRestaurantId(), row.getRestaurantName(), row.getItemCount(), row.getTotal(), row.getStatus(),
+				row.getPaymentStatus(), row.getOrderTime(), row.getEstimatedDeliveryTime(), row.getActualDeliveryTime(),
+				row.getCreatedAt(), row.getUpdatedAt());
+	}
+}
@@ -0,0 +1,259 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.dto.OrderRequest;
+import com.fooddelivery.dto.OrderSubmissionDto;
+import com.fooddelivery.dto.OrderSubmissionDto.SubmissionStatus;
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.NotFoundException;
+import com.fooddelivery.exception.ServiceUnavailableException;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.routing.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional asynchronous order intake (orders.ingestion.mode=async). Requests are validated against the
+ * in-memory catalog and menu cache, given an order number and queued; a few writer threads drain the
+ * queue and store up to max-batch orders per transaction. If a grouped transaction fails, its orders
+ * are retried one by one so a single bad order cannot sink the rest.
+ */
+@Service
+@Slf4j
+public class OrderIngestionService {
+	
+	private final OrderService orderService;
+	private final RestaurantService restaurantService;
+	private final MenuItemService menuItemService;
+	private final OrderNumberGenerator orderNumberGenerator;
+	private final OrderRepository orderRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ReadYourWritesTracker readYourWritesTracker;
+	private final boolean enabled;
+	private final int workers;
+	private final int maxBatch;
+	private final long retentionMs;
+	
+	private final BlockingQueue<PendingOrder> queue;
+	private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+	private final List<Thread> writerThreads = new ArrayList<>();
+	private volatile boolean running;
+	
+	private final DistributionSummary batchSize;
+	private final Timer latency;
+	private final Counter rejected;
+	private final Counter failed;
+	
+	private record PendingOrder(String orderNumber, Long userId, OrderRequest request, long acceptedNanos) {
+	}
+	
+	// status is replaced, never mutated, so it can be handed out as is
+	private record Submission(Long userId, OrderSubmissionDto status, long createdMillis) {
+	}
+	
+	public OrderIngestionService(OrderService orderService,
+			RestaurantService restaurantService,
+			MenuItemService menuItemService,
+			OrderNumberGenerator orderNumberGenerator,
+			OrderRepository orderRepository,
+			TransactionTemplate transactionTemplate,
+			ReadYourWritesTracker readYourWritesTracker,
+			MeterRegistry meterRegistry,
+			@Value("${orders.ingestion.mode:sync}") String mode,
+			@Value("${orders.ingestion.queue-capacity:10000}") int queueCapacity,
+			@Value("${orders.ingestion.workers:2}") int workers,
+			@Value("${orders.ingestion.max-batch:50}") int maxBatch,
+			@Value("${orders.ingestion.status-retention-ms:600000}") long retentionMs) {
+		this.orderService = orderService;
+		this.restaurantService = restaurantService;
+		this.menuItemService = menuItemService;
+		this.orderNumberGenerator = orderNumberGenerator;
+		this.orderRepository = orderRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.readYourWritesTracker = readYourWritesTracker;
+		this.enabled = "async".equalsIgnoreCase(mode);
+		this.workers = workers;
+		this.maxBatch = maxBatch;
+		this.retentionMs = retentionMs;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		
+		Gauge.builder("orders.ingestion.queue.depth", queue, BlockingQueue::size)
+				.description("Orders accepted but not yet stored")
+				.register(meterRegistry);
+		this.batchSize = DistributionSummary.builder("orders.ingestion.commit.batch.size")
+				.description("Orders stored per grouped transaction")
+				.register(meterRegistry);
+		this.latency = Timer.builder("orders.ingestion.latency")
+				.description("Time from acceptance to commit")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry);
+		this.rejected = Counter.builder("orders.ingestion.rejected")
+				.description("Submissions refused because the queue was full")
+				.register(meterRegistry);
+		this.failed = Counter.builder("orders.ingestion.failed")
+				.description("Queued orders that could not be stored")
+				.register(meterRegistry);
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	public OrderSubmissionDto submit(OrderRequest request, Long userId) {
+		validate(request);
+		String orderNumber = orderNumberGenerator.next();
+		OrderSubmissionDto status = new OrderSubmissionDto(orderNumber, SubmissionStatus.QUEUED, null, null, LocalDateTime.now());
+		submissions.put(orderNumber, new Submission(userId, status, System.currentTimeMillis()));
+		if (!queue.offer(new PendingOrder(orderNumber, userId, request, System.nanoTime()))) {
+			submissions.remove(orderNumber);
+			rejected.increment();
+			throw new ServiceUnavailableException("We are receiving a lot of orders right now. Please try again in a moment.");
+		}
+		// the writer thread commits without the caller's identity
+		readYourWritesTracker.markCurrentUser();
+		return status;
+	}
+	
+	public OrderSubmissionDto getSubmission(String orderNumber, Long userId) {
+		Submission submission = submissions.get(orderNumber);
+		if (submission != null) {
+			if (!submission.userId().equals(userId)) {
+				throw new NotFoundException("Order not found");
+			}
+			return submission.status();
+		}
+		// status entries expire; the stored order is the source of truth after that
+		OrderDto order = orderRepository.findDtoByOrderNumber(orderNumber)
+				.filter(o -> o.getUserId().equals(userId))
+				.orElseThrow(() -> new NotFoundException("Order not found"));
+		return new OrderSubmissionDto(orderNumber, SubmissionStatus.CREATED, order.getId(), null, order.getCreatedAt());
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		for (int i = 0; i < workers; i++) {
+			writerThreads.add(Thread.ofPlatform().name("order-writer-" + i).start(this::drain));
+		}
+		log.info("Async order ingestion started: {} writers, batches of up to {}", workers, maxBatch);
+	}
+	
+	// stops taking new work only after the queue is empty
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		for (Thread thread : writerThreads) {
+			thread.join(TimeUnit.SECONDS.toMillis(30));
+		}
+		if (!queue.isEmpty()) {
+			log.warn("Shutting down with {} queued orders not stored", queue.size());
+		}
+	}
+	
+	@Scheduled(fixedDelayString = "${orders.ingestion.status-retention-ms:600000}")
+	public void purgeSubmissions() {
+		long cutoff = System.currentTimeMillis() - retentionMs;
+		submissions.values().removeIf(s -> s.createdMillis() < cutoff && s.status().getStatus() != SubmissionStatus.QUEUED);
+	}
+	
+	private void drain() {
+		List<PendingOrder> batch = new ArrayList<>(maxBatch);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingOrder first = queue.poll(200, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, maxBatch - 1);
+				store(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Order writer failed on a batch of {}", batch.size(), e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+	
+	private void store(List<PendingOrder> batch) {
+		try {
+			List<OrderDto> created = transactionTemplate.execute(tx -> {
+				List<OrderDto> orders = new ArrayList<>(batch.size());
+				for (PendingOrder pending : batch) {
+					orders.add(orderService.createOrder(pending.request(), pending.userId(), pending.orderNumber()));
+				}
+				return orders;
+			});
+			batchSize.record(batch.size());
+			for (int i = 0; i < batch.size(); i++) {
+				completed(batch.get(i), created.get(i));
+			}
+		} catch (RuntimeException groupFailure) {
+			log.debug("Grouped commit of {} orders failed, retrying individually", batch.size(), groupFailure);
+			for (PendingOrder pending : batch) {
+				try {
+					OrderDto order = transactionTemplate.execute(tx ->
+							orderService.createOrder(pending.request(), pending.userId(), pending.orderNumber()));
+					batchSize.record(1);
+					completed(pending, order);
+				} catch (RuntimeException e) {
+					failed.increment();
+					update(pending.orderNumber(), SubmissionStatus.FAILED, null, e instanceof BadRequestException
+							|| e instanceof NotFoundException ? e.getMessage() : "Order could not be placed");
+					log.warn("Queued order {} failed: {}", pending.orderNumber(), e.getMessage());
+				}
+			}
+		}
+	}
+	
+	private void completed(PendingOrder pending, OrderDto order) {
+		latency.record(System.nanoTime() - pending.acceptedNanos(), TimeUnit.NANOSECONDS);
+		update(pending.orderNumber(), SubmissionStatus.CREATED, order.getId(), null);
+	}
+	
+	private void update(String orderNumber, SubmissionStatus status, Long orderId, String message) {
+		submissions.computeIfPresent(orderNumber, (key, s) -> new Submission(s.userId(),
+				new OrderSubmissionDto(orderNumber, status, orderId, message, s.status().getAcceptedAt()),
+				System.currentTimeMillis()));
+	}
+	
+	// same rules createOrder enforces, checked against cached data so rejected carts never queue
+	private void validate(OrderRequest request) {
+		RestaurantDto restaurant = restaurantService.getRestaurantById(request.getRestaurantId());
+		for (OrderRequest.OrderItemRequest item : request.getItems()) {
+			if (item.getQuantity() < 1) {
+				throw new BadRequestException("Quantity must be at least 1");
+			}
+			if (menuItemService.findAvailableMenuItem(restaurant.getId(), item.getMenuItemId()).isEmpty()) {
+				throw new BadRequestException("Menu item " + item.getMenuItemId() + " is not available at this restaurant");
+			}
+		}
+	}
+}
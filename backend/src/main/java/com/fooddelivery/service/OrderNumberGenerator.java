@@ -0,0 +1,74 @@
+package com.fooddelivery.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2024-01-01, 10 bits of node id
+ * and a 12 bit per-millisecond sequence, rendered as "ORD" + 13 Crockford base32 characters.
+ * Numbers from one node are strictly increasing and sort by creation time as plain strings.
+ */
+@Component
+public class OrderNumberGenerator {
+	
+	private static final String PREFIX = "ORD";
+	private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+	private static final int NODE_BITS = 10;
+	private static final int SEQUENCE_BITS = 12;
+	private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+	private static final int ENCODED_LENGTH = 13; // ceil(63 / 5)
+	
+	private final long nodeId;
+	private final LongSupplier clock;
+	// (elapsed millis << SEQUENCE_BITS) | sequence of the last number handed out
+	private final AtomicLong last = new AtomicLong();
+	
+	@Autowired
+	public OrderNumberGenerator(@Value("${orders.number.node-id:0}") long nodeId) {
+		this(nodeId, System::currentTimeMillis);
+	}
+	
+	OrderNumberGenerator(long nodeId, LongSupplier clock) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("orders.number.node-id must be between 0 and " + MAX_NODE_ID);
+		}
+		this.nodeId = nodeId;
+		this.clock = clock;
+	}
+	
+	public String next() {
+		return PREFIX + encode(nextId());
+	}
+	
+	private long nextId() {
+		long now = clock.getAsLong() - EPOCH;
+		while (true) {
+			long previous = last.get();
+			long previousMillis = previous >>> SEQUENCE_BITS;
+			// same or earlier millisecond (clock stepped back): bump the sequence, which rolls over into
+			// the next millisecond when exhausted instead of spinning until the clock catches up
+			long candidate = now > previousMillis ? now << SEQUENCE_BITS : previous + 1;
+			if (last.compareAndSet(previous, candidate)) {
+				long millis = candidate >>> SEQUENCE_BITS;
+				return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (candidate & SEQUENCE_MASK);
+			}
+		}
+	}
+	
+	// fixed width so lexicographic order matches numeric order
+	private static String encode(long id) {
+		char[] out = new char[ENCODED_LENGTH];
+		for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+			out[i] = ALPHABET[(int) (id & 31)];
+			id >>>= 5;
+		}
+		return new String(out);
+	}
+}
@@ -0,0 +1,222 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.RestaurantRevenueDto;
+import com.fooddelivery.dto.RevenueBucketDto;
+import com.fooddelivery.dto.RollupRebuildStatusDto;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderRollup.Granularity;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.ConflictException;
+import com.fooddelivery.repository.JdbcOrderRollupWriter;
+import com.fooddelivery.repository.JdbcOrderRollupWriter.Bucket;
+import com.fooddelivery.repository.JdbcOrderRollupWriter.Delta;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.OrderRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hourly and daily order volume and revenue per restaurant (order_rollups), so analytics sum bucket rows
+ * instead of scanning orders. Order and payment writes record deltas that are merged per transaction and
+ * upserted in one sorted batch just before it commits, so the buckets always agree with the committed
+ * orders. Whole days can be rebuilt from orders, one day per transaction, in the background.
+ */
+@Service
+@Slf4j
+public class OrderRollupService {
+	
+	private static final int MAX_BUCKETS = 1000;
+	
+	private final OrderRollupRepository rollupRepository;
+	private final OrderRepository orderRepository;
+	private final JdbcOrderRollupWriter rollupWriter;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean backfillOnStartup;
+	
+	// replaced, never mutated, so it can be handed out as is
+	private final AtomicReference<RollupRebuildStatusDto> rebuild =
+			new AtomicReference<>(new RollupRebuildStatusDto(false, null, null, 0, 0, null, null, null));
+	
+	public OrderRollupService(OrderRollupRepository rollupRepository,
+			OrderRepository orderRepository,
+			JdbcOrderRollupWriter rollupWriter,
+			TransactionTemplate transactionTemplate,
+			@Value("${analytics.rollups.backfill-on-startup:true}") boolean backfillOnStartup) {
+		this.rollupRepository = rollupRepository;
+		this.orderRepository = orderRepository;
+		this.rollupWriter = rollupWriter;
+		this.transactionTemplate = transactionTemplate;
+		this.backfillOnStartup = backfillOnStartup;
+	}
+	
+	public void recordOrderPlaced(Order order) {
+		record(order.getRestaurant().getId(), order.getOrderTime(),
+				new Delta(1, order.getTotal(), order.getTax(), order.getDeliveryFee(), 0, 0, 0, 0, 0));
+	}
+	
+	public void recordCancelled(Long restaurantId, LocalDateTime orderTime, double total) {
+		record(restaurantId, orderTime, new Delta(0, 0, 0, 0, 1, total, 0, 0, 0));
+	}
+	
+	public void recordPaymentStatusChange(Long restaurantId, LocalDateTime orderTime,
+			Order.PaymentStatus from, Order.PaymentStatus to) {
+		record(restaurantId, orderTime, paymentDelta(from, -1).plus(paymentDelta(to, 1)));
+	}
+	
+	@Transactional(readOnly = true)
+	public List<RevenueBucketDto> getRevenueSeries(LocalDateTime from, LocalDateTime to, Granularity granularity, Long restaurantId) {
+		ChronoUnit unit = granularity == Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+		LocalDateTime start = from.truncatedTo(unit);
+		checkRange(start, to);
+		if (unit.between(start, to) > MAX_BUCKETS) {
+			throw new BadRequestException("At most " + MAX_BUCKETS + " buckets can be requested at once");
+		}
+		return restaurantId == null
+				? rollupRepository.findSeries(granularity, start, to)
+				: rollupRepository.findSeriesByRestaurantId(granularity, restaurantId, start, to);
+	}
+	
+	// whole days come from day buckets and the partial days at either end from hour buckets
+	@Transactional(readOnly = true)
+	public List<RestaurantRevenueDto> getRevenueByRestaurant(LocalDateTime from, LocalDateTime to) {
+		LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+		LocalDateTime end = ceil(to, ChronoUnit.HOURS);
+		checkRange(start, end);
+		LocalDateTime dayFrom = ceil(start, ChronoUnit.DAYS);
+		LocalDateTime dayTo = end.truncatedTo(ChronoUnit.DAYS);
+		if (!dayFrom.isBefore(dayTo)) {
+			dayFrom = end;
+			dayTo = end;
+		}
+		return rollupRepository.findTotalsByRestaurant(start, dayFrom, dayTo, end);
+	}
+	
+	public RollupRebuildStatusDto getRebuildStatus() {
+		return rebuild.get();
+	}
+	
+	/**
+	 * Recomputes the buckets of the days from..to (inclusive) from the orders, in the background.
+	 */
+	public RollupRebuildStatusDto startRebuild(LocalDate from, LocalDate to) {
+		if (to.isBefore(from)) {
+			throw new BadRequestException("'to' must not be before 'from'");
+		}
+		RollupRebuildStatusDto current = rebuild.get();
+		RollupRebuildStatusDto started = new RollupRebuildStatusDto(true, from, to, 0,
+				(int) ChronoUnit.DAYS.between(from, to) + 1, LocalDateTime.now(), null, null);
+		if (current.isRunning() || !rebuild.compareAndSet(current, started)) {
+			throw new ConflictException("A rollup rebuild is already running");
+		}
+		Thread.ofVirtual().name("rollup-rebuild").start(() -> runRebuild(started));
+		return started;
+	}
+	
+	// a first start with the table empty rolls up all existing orders
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillIfEmpty() {
+		if (!backfillOnStartup || rollupRepository.findFirstByGranularity(Granularity.DAY).isPresent()) {
+			return;
+		}
+		orderRepository.findFirstOrderTime()
+				.ifPresent(first -> startRebuild(first.toLocalDate(), LocalDate.now()));
+	}
+	
+	private void runRebuild(RollupRebuildStatusDto started) {
+		int done = 0;
+		try {
+			for (LocalDate day = started.getFrom(); !day.isAfter(started.getTo()); day = day.plusDays(1)) {
+				LocalDateTime dayStart = day.atStartOfDay();
+				LocalDateTime dayEnd = dayStart.plusDays(1);
+				// orders written meanwhile either commit before this day is regrouped or add their delta after it
+				transactionTemplate.executeWithoutResult(status -> {
+					LocalDateTime now = LocalDateTime.now();
+					rollupRepository.deleteRange(dayStart, dayEnd);
+					rollupRepository.insertHoursFromOrders(dayStart, dayEnd, now);
+					rollupRepository.insertDaysFromOrders(dayStart, dayEnd, now);
+				});
+				done++;
+				rebuild.set(new RollupRebuildStatusDto(true, started.getFrom(), started.getTo(), done,
+						started.getDaysTotal(), started.getStartedAt(), null, null));
+			}
+			rebuild.set(new RollupRebuildStatusDto(false, started.getFrom(), started.getTo(), done,
+					started.getDaysTotal(), started.getStartedAt(), LocalDateTime.now(), null));
+			log.info("Rebuilt order rollups for {} days from {} to {}", done, started.getFrom(), started.getTo());
+		} catch (RuntimeException ex) {
+			log.error("Order rollup rebuild stopped after {} days", done, ex);
+			rebuild.set(new RollupRebuildStatusDto(false, started.getFrom(), started.getTo(), done,
+					started.getDaysTotal(), started.getStartedAt(), LocalDateTime.now(), ex.getMessage()));
+		}
+	}
+	
+	private void record(Long restaurantId, LocalDateTime orderTime, Delta delta) {
+		LocalDateTime hour = (orderTime != null ? orderTime : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+		SortedMap<Bucket, Delta> pending = pendingDeltas();
+		pending.merge(new Bucket(Granularity.HOUR, restaurantId, hour), delta, Delta::plus);
+		pending.merge(new Bucket(Granularity.DAY, restaurantId, hour.truncatedTo(ChronoUnit.DAYS)), delta, Delta::plus);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			rollupWriter.addAll(pending);
+		}
+	}
+	
+	// deltas of the current transaction, written in bucket order right before it commits
+	@SuppressWarnings("unchecked")
+	private SortedMap<Bucket, Delta> pendingDeltas() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return new TreeMap<>(JdbcOrderRollupWriter.BUCKET_ORDER);
+		}
+		SortedMap<Bucket, Delta> pending = (SortedMap<Bucket, Delta>) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			SortedMap<Bucket, Delta> created = new TreeMap<>(JdbcOrderRollupWriter.BUCKET_ORDER);
+			TransactionSynchronizationManager.bindResource(this, created);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					rollupWriter.addAll(created);
+				}
+				
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(OrderRollupService.this);
+				}
+			});
+			pending = created;
+		}
+		return pending;
+	}
+	
+	private static Delta paymentDelta(Order.PaymentStatus status, int sign) {
+		return switch (status) {
+			case COMPLETED -> new Delta(0, 0, 0, 0, 0, 0, sign, 0, 0);
+			case FAILED -> new Delta(0, 0, 0, 0, 0, 0, 0, sign, 0);
+			case REFUNDED -> new Delta(0, 0, 0, 0, 0, 0, 0, 0, sign);
+			default -> new Delta(0, 0, 0, 0, 0, 0, 0, 0, 0);
+		};
+	}
+	
+	private static void checkRange(LocalDateTime from, LocalDateTime to) {
+		if (!from.isBefore(to)) {
+			throw new BadRequestException("'from' must be before 'to'");
+		}
+	}
+	
+	private static LocalDateTime ceil(LocalDateTime time, ChronoUnit unit) {
+		LocalDateTime floor = time.truncatedTo(unit);
+		return floor.equals(time) ? time : floor.plus(1, unit);
+	}
+}
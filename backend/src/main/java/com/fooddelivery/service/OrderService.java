@@ -1,34 +1,73 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.dto.CursorPage;
 import com.fooddelivery.dto.OrderDto;
 import com.fooddelivery.dto.OrderRequest;
+import com.fooddelivery.dto.OrderStatusBatchResult;
+import com.fooddelivery.dto.OrderSummaryDto;
+import com.fooddelivery.dto.OrderTrackingEvent;
+import com.fooddelivery.dto.PageCursor;
 import com.fooddelivery.entity.*;
+import com.fooddelivery.event.OrderCreatedEvent;
+import com.fooddelivery.event.OrderPaymentStatusChangedEvent;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.ConflictException;
 import com.fooddelivery.exception.NotFoundException;
 import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.OrderItemWriter;
 import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.OrderSummaryRepository;
 import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OrderService {
 	
+	private static final int MAX_CURSOR_PAGE_SIZE = 100;
+	
 	private final OrderRepository orderRepository;
+	private final OrderSummaryRepository orderSummaryRepository;
 	private final RestaurantRepository restaurantRepository;
 	private final MenuItemRepository menuItemRepository;
 	private final UserRepository userRepository;
+	private final OrderItemWriter orderItemWriter;
+	private final OrderNumberGenerator orderNumberGenerator;
+	private final ApplicationEventPublisher eventPublisher;
+	private final KitchenScheduler kitchenScheduler;
+	private final OrderRollupService orderRollupService;
+	
+	@Value("${orders.summaries.backfill-on-startup:true}")
+	private boolean backfillSummaries;
 	
 	@Transactional
 	public OrderDto createOrder(OrderRequest request, Long userId) {
+		return createOrder(request, userId, orderNumberGenerator.next());
+	}
+	
+	@Transactional
+	public OrderDto createOrder(OrderRequest request, Long userId, String orderNumber) {
 		// Get restaurant
 		Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
 				.orElseThrow(() -> new NotFoundException("Restaurant not found"));
@@ -38,7 +77,7 @@ public class OrderService {
 		
 		// Create order
 		Order order = new Order();
-		order.setOrderNumber("ORD" + System.currentTimeMillis());
+		order.setOrderNumber(orderNumber);
 		order.setUser(user);
 		order.setRestaurant(restaurant);
 		order.setDeliveryAddress(request.getDeliveryAddress());
@@ -48,23 +87,39 @@ public class OrderService {
 		order.setStatus(Order.OrderStatus.PENDING);
 		order.setPaymentStatus(Order.PaymentStatus.PENDING);
 		
+		// Load every menu item in the cart with one query
+		Map<Long, MenuItem> menuItems = menuItemRepository.findAllById(request.getItems().stream()
+						.map(OrderRequest.OrderItemRequest::getMenuItemId)
+						.collect(Collectors.toSet()))
+				.stream()
+				.collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+		
 		// Create order items
-		List<OrderItem> orderItems = request.getItems().stream()
-				.map(itemRequest -> {
-					MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-							.orElseThrow(() -> new NotFoundException("Menu item not found"));
-					
-					OrderItem orderItem = new OrderItem();
-					orderItem.setOrder(order);
-					orderItem.setMenuItem(menuItem);
-					orderItem.setQuantity(itemRequest.getQuantity());
-					orderItem.setUnitPrice(menuItem.getPrice());
-					orderItem.setTotalPrice(menuItem.getPrice() * itemRequest.getQuantity());
-					orderItem.setSpecialInstructions(itemRequest.getSpecialInstructions());
-					
-					return orderItem;
-				})
-				.collect(Collectors.toList());
+		List<OrderItem> orderItems = new ArrayList<>(request.getItems().size());
+		for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+			MenuItem menuItem = menuItems.get(itemRequest.getMenuItemId());
+			if (menuItem == null) {
+				throw new NotFoundException("Menu item not found");
+			}
+			if (!menuItem.getRestaurant().getId().equals(restaurant.getId())) {
+				throw new BadRequestException("Menu item " + menuItem.getId() + " does not belong to this restaurant");
+			}
+			if (!menuItem.isAvailable()) {
+				throw new BadRequestException(menuItem.getName() + " is currently unavailable");
+			}
+			if (itemRequest.getQuantity() < 1) {
+				throw new BadRequestException("Quantity must be at least 1");
+			}
+			
+			OrderItem orderItem = new OrderItem();
+			orderItem.setOrder(order);
+			orderItem.setMenuItem(menuItem);
+			orderItem.setQuantity(itemRequest.getQuantity());
+			orderItem.setUnitPrice(menuItem.getPrice());
+			orderItem.setTotalPrice(menuItem.getPrice() * itemRequest.getQuantity());
+			orderItem.setSpecialInstructions(itemRequest.getSpecialInstructions());
+			orderItems.add(orderItem);
+		}
 		
 		// Calculate totals
 		double subtotal = orderItems.stream()
@@ -78,65 +133,216 @@ public class OrderService {
 		order.setDeliveryFee(deliveryFee);
 		order.setTax(tax);
 		order.setTotal(total);
-		order.setOrderItems(orderItems);
 		
+		int prepMinutes = orderItems.stream()
+				.mapToInt(item -> item.getMenuItem().getPreparationTime())
+				.max()
+				.orElse(0);
+		order.setEstimatedDeliveryTime(kitchenScheduler.quote(restaurant.getId(), prepMinutes, restaurant.getDeliveryTime()));
+		
+		// The order row needs its IDENTITY id first; the items then go out as one batch
+		// (see OrderItemWriter) and are deliberately not attached to the managed Order
 		Order savedOrder = orderRepository.save(order);
+		orderItemWriter.insertAll(savedOrder.getId(), orderItems);
+		orderSummaryRepository.save(OrderSummary.of(savedOrder, orderItems.stream().mapToInt(OrderItem::getQuantity).sum()));
+		orderRollupService.recordOrderPlaced(savedOrder);
+		eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder.getId(), userId, restaurant.getId(), prepMinutes,
+				restaurant.getDeliveryTime(), savedOrder.getOrderTime()));
 		
-		return convertToDto(savedOrder);
+		OrderDto dto = convertToDto(savedOrder);
+		dto.setOrderItems(orderItems.stream()
+				.map(this::convertToOrderItemDto)
+				.collect(Collectors.toList()));
+		return dto;
 	}
 	
 	@Transactional(readOnly = true)
 	public OrderDto getOrderById(Long id) {
-		Order order = orderRepository.findById(id)
+		OrderDto order = orderRepository.findDtoById(id)
 				.orElseThrow(() -> new NotFoundException("Order not found"));
-		return convertToDto(order);
+		order.setOrderItems(orderRepository.findItemDtosByOrderId(id));
+		// open orders show the live kitchen estimate instead of the one quoted at checkout
+		kitchenScheduler.estimatedDeliveryTime(id).ifPresent(order::setEstimatedDeliveryTime);
+		return order;
 	}
 	
 	@Transactional(readOnly = true)
-	public List<OrderDto> getUserOrders(Long userId) {
-		return orderRepository.findByUserIdOrderByCreatedAtDesc(userId)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public void checkTrackingAccess(Long orderId, User user) {
+		findTrackableStatus(orderId, user);
+	}
+	
+	@Transactional(readOnly = true)
+	public OrderTrackingEvent getTrackingSnapshot(Long orderId, User user) {
+		OrderRepository.StatusView view = findTrackableStatus(orderId, user);
+		return new OrderTrackingEvent(OrderTrackingEvent.EventType.SNAPSHOT, view.getId(), view.getStatus(),
+				view.getPaymentStatus(), LocalDateTime.now());
+	}
+	
+	// owners and admins only; anyone else gets the same answer as for a missing order
+	private OrderRepository.StatusView findTrackableStatus(Long orderId, User user) {
+		return orderRepository.findStatusById(orderId)
+				.filter(v -> user.getRole() == User.UserRole.ADMIN || v.getUserId().equals(user.getId()))
+				.orElseThrow(() -> new NotFoundException("Order not found"));
 	}
 	
+	// order history lists come from the order_summaries read model; only getOrderById loads the full aggregate
 	@Transactional(readOnly = true)
-	public Page<OrderDto> getUserOrders(Long userId, Pageable pageable) {
-		return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-				.map(this::convertToDto);
+	public List<OrderSummaryDto> getUserOrders(Long userId) {
+		return withLiveEstimates(orderSummaryRepository.findByUserId(userId));
 	}
 	
 	@Transactional(readOnly = true)
-	public List<OrderDto> getRestaurantOrders(Long restaurantId) {
-		return orderRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId)
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public Page<OrderSummaryDto> getUserOrders(Long userId, Pageable pageable) {
+		Page<OrderSummaryDto> page = orderSummaryRepository.findByUserId(userId, pageable);
+		withLiveEstimates(page.getContent());
+		return page;
 	}
 	
+	@Transactional(readOnly = true)
+	public List<OrderSummaryDto> getRestaurantOrders(Long restaurantId) {
+		return withLiveEstimates(orderSummaryRepository.findByRestaurantId(restaurantId));
+	}
+	
+	@Transactional(readOnly = true)
+	public CursorPage<OrderSummaryDto> getUserOrders(Long userId, String cursor, int size, boolean includeTotal) {
+		int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+		PageRequest limit = PageRequest.of(0, pageSize + 1);
+		List<OrderSummaryDto> rows;
+		if (cursor == null || cursor.isBlank()) {
+			rows = orderSummaryRepository.findFirstKeysetPageByUserId(userId, limit);
+		} else {
+			PageCursor after = PageCursor.decode(cursor);
+			rows = orderSummaryRepository.findKeysetPageByUserId(userId, after.createdAt(), after.getId(), limit);
+		}
+		Long total = includeTotal ? orderSummaryRepository.countByUserId(userId) : null;
+		CursorPage<OrderSummaryDto> page = CursorPage.of(rows, pageSize, o -> PageCursor.of(o.getCreatedAt(), o.getId()), o -> o, total);
+		withLiveEstimates(page.getContent());
+		return page;
+	}
+	
+	@Transactional(readOnly = true)
+	public CursorPage<OrderSummaryDto> getRestaurantOrders(Long restaurantId, String cursor, int size, boolean includeTotal) {
+		int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+		PageRequest limit = PageRequest.of(0, pageSize + 1);
+		List<OrderSummaryDto> rows;
+		if (cursor == null || cursor.isBlank()) {
+			rows = orderSummaryRepository.findFirstKeysetPageByRestaurantId(restaurantId, limit);
+		} else {
+			PageCursor after = PageCursor.decode(cursor);
+			rows = orderSummaryRepository.findKeysetPageByRestaurantId(restaurantId, after.createdAt(), after.getId(), limit);
+		}
+		Long total = includeTotal ? orderSummaryRepository.countByRestaurantId(restaurantId) : null;
+		CursorPage<OrderSummaryDto> page = CursorPage.of(rows, pageSize, o -> PageCursor.of(o.getCreatedAt(), o.getId()), o -> o, total);
+		withLiveEstimates(page.getContent());
+		return page;
+	}
+	
+	// the status is moved with a single conditional UPDATE, so a concurrent change makes this one fail instead of being overwritten
 	@Transactional
 	public OrderDto updateOrderStatus(Long orderId, Order.OrderStatus status) {
-		Order order = orderRepository.findById(orderId)
+		OrderRepository.StatusView current = orderRepository.findStatusById(orderId)
 				.orElseThrow(() -> new NotFoundException("Order not found"));
+		if (current.getStatus() != status) {
+			if (!current.getStatus().canTransitionTo(status)) {
+				throw new ConflictException("Order cannot move from " + current.getStatus() + " to " + status);
+			}
+			LocalDateTime now = LocalDateTime.now();
+			LocalDateTime deliveredAt = status == Order.OrderStatus.DELIVERED ? now : null;
+			if (orderRepository.transitionStatus(orderId, current.getStatus(), status, now, deliveredAt) == 0) {
+				throw new ConflictException("Order status was changed by someone else, please reload and try again");
+			}
+			orderSummaryRepository.updateStatus(List.of(orderId), status, now, deliveredAt);
+			if (status == Order.OrderStatus.CANCELLED) {
+				orderRollupService.recordCancelled(current.getRestaurantId(), current.getOrderTime(), current.getTotal());
+			}
+			eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, current.getUserId(), current.getRestaurantId(),
+					current.getStatus(), status, current.getOrderTime(), now));
+		}
+		return getOrderById(orderId);
+	}
+	
+	// rows are locked up front, then moved with one UPDATE per source status
+	@Transactional
+	public OrderStatusBatchResult updateOrderStatuses(List<Long> orderIds, Order.OrderStatus status) {
+		List<Long> ids = orderIds.stream().distinct().toList();
+		Map<Long, OrderRepository.StatusView> current = orderRepository.lockStatusesByIds(ids).stream()
+				.collect(Collectors.toMap(OrderRepository.StatusView::getId, Function.identity()));
 		
-		order.setStatus(status);
-		
-		if (status == Order.OrderStatus.DELIVERED) {
-			order.setActualDeliveryTime(LocalDateTime.now());
+		List<OrderStatusBatchResult.OrderOutcome> results = new ArrayList<>(ids.size());
+		Map<Order.OrderStatus, List<OrderRepository.StatusView>> bySource = new EnumMap<>(Order.OrderStatus.class);
+		for (Long id : ids) {
+			OrderRepository.StatusView view = current.get(id);
+			if (view == null) {
+				results.add(new OrderStatusBatchResult.OrderOutcome(id, OrderStatusBatchResult.Outcome.NOT_FOUND, null));
+			} else if (view.getStatus() == status) {
+				results.add(new OrderStatusBatchResult.OrderOutcome(id, OrderStatusBatchResult.Outcome.UNCHANGED, status));
+			} else if (!view.getStatus().canTransitionTo(status)) {
+				results.add(new OrderStatusBatchResult.OrderOutcome(id, OrderStatusBatchResult.Outcome.ILLEGAL_TRANSITION, view.getStatus()));
+			} else {
+				results.add(new OrderStatusBatchResult.OrderOutcome(id, OrderStatusBatchResult.Outcome.UPDATED, view.getStatus()));
+				bySource.computeIfAbsent(view.getStatus(), s -> new ArrayList<>()).add(view);
+			}
 		}
 		
-		Order savedOrder = orderRepository.save(order);
-		return convertToDto(savedOrder);
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime deliveredAt = status == Order.OrderStatus.DELIVERED ? now : null;
+		int updated = 0;
+		for (Map.Entry<Order.OrderStatus, List<OrderRepository.StatusView>> group : bySource.entrySet()) {
+			List<Long> groupIds = group.getValue().stream().map(OrderRepository.StatusView::getId).toList();
+			updated += orderRepository.transitionStatuses(groupIds, group.getKey(), status, now, deliveredAt);
+			orderSummaryRepository.updateStatus(groupIds, status, now, deliveredAt);
+			for (OrderRepository.StatusView view : group.getValue()) {
+				if (status == Order.OrderStatus.CANCELLED) {
+					orderRollupService.recordCancelled(view.getRestaurantId(), view.getOrderTime(), view.getTotal());
+				}
+				eventPublisher.publishEvent(new OrderStatusChangedEvent(view.getId(), view.getUserId(), view.getRestaurantId(),
+						view.getStatus(), status, view.getOrderTime(), now));
+			}
+		}
+		return new OrderStatusBatchResult(status, updated, results);
 	}
 	
 	@Transactional
 	public OrderDto updateOrderPaymentStatus(Long orderId, Order.PaymentStatus paymentStatus) {
-		Order order = orderRepository.findById(orderId)
+		OrderRepository.StatusView current = orderRepository.findStatusById(orderId)
 				.orElseThrow(() -> new NotFoundException("Order not found"));
-		
-		order.setPaymentStatus(paymentStatus);
-		Order savedOrder = orderRepository.save(order);
-		return convertToDto(savedOrder);
+		if (current.getPaymentStatus() != paymentStatus) {
+			if (!current.getPaymentStatus().canTransitionTo(paymentStatus)) {
+				throw new ConflictException("Payment status cannot move from " + current.getPaymentStatus() + " to " + paymentStatus);
+			}
+			LocalDateTime now = LocalDateTime.now();
+			if (orderRepository.transitionPaymentStatus(orderId, current.getPaymentStatus(), paymentStatus, now) == 0) {
+				throw new ConflictException("Payment status was changed by someone else, please reload and try again");
+			}
+			orderSummaryRepository.updatePaymentStatus(orderId, paymentStatus, now);
+			orderRollupService.recordPaymentStatusChange(current.getRestaurantId(), current.getOrderTime(),
+					current.getPaymentStatus(), paymentStatus);
+			eventPublisher.publishEvent(new OrderPaymentStatusChangedEvent(orderId, current.getUserId(), current.getRestaurantId(),
+					current.getPaymentStatus(), paymentStatus, now));
+		}
+		return getOrderById(orderId);
+	}
+	
+	// orders placed before the read model existed, or written by an older instance during a rolling deploy
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public void backfillSummaries() {
+		if (!backfillSummaries) {
+			return;
+		}
+		long start = System.nanoTime();
+		int inserted = orderSummaryRepository.backfillMissing();
+		if (inserted > 0) {
+			log.info("Backfilled {} order summaries in {} ms", inserted, (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+	
+	// open orders show the live kitchen estimate instead of the one quoted at checkout
+	private List<OrderSummaryDto> withLiveEstimates(List<OrderSummaryDto> orders) {
+		for (OrderSummaryDto order : orders) {
+			kitchenScheduler.estimatedDeliveryTime(order.getId()).ifPresent(order::setEstimatedDeliveryTime);
+		}
+		return orders;
 	}
 	
 	private OrderDto convertToDto(Order order) {
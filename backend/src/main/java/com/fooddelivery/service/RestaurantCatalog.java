@@ -0,0 +1,122 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.event.RestaurantChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, versioned snapshot of all active restaurants. Readers never lock; writers
+ * build a new snapshot and swap it in atomically.
+ */
+@Component
+@Slf4j
+public class RestaurantCatalog {
+
+	private final AtomicReference<Snapshot> current = new AtomicReference<>();
+	private final Object writeLock = new Object();
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Timer rebuildTimer;
+
+	public RestaurantCatalog(MeterRegistry meterRegistry) {
+		this.hits = Counter.builder("restaurant.catalog.requests")
+				.tag("result", "hit")
+				.description("Catalog reads served from the in-memory snapshot")
+				.register(meterRegistry);
+		this.misses = Counter.builder("restaurant.catalog.requests")
+				.tag("result", "miss")
+				.description("Catalog reads that had to load the snapshot from the database")
+				.register(meterRegistry);
+		this.rebuildTimer = Timer.builder("restaurant.catalog.rebuild")
+				.description("Time taken to rebuild the catalog from the database")
+				.register(meterRegistry);
+		Gauge.builder("restaurant.catalog.size", current, ref -> ref.get() == null ? 0 : ref.get().all().size())
+				.register(meterRegistry);
+		Gauge.builder("restaurant.catalog.version", current, ref -> ref.get() == null ? 0 : ref.get().version())
+				.register(meterRegistry);
+	}
+
+	public Snapshot snapshot(Supplier<List<RestaurantDto>> loader) {
+		Snapshot snapshot = current.get();
+		if (snapshot != null) {
+			hits.increment();
+			return snapshot;
+		}
+		misses.increment();
+		synchronized (writeLock) {
+			snapshot = current.get();
+			return snapshot != null ? snapshot : rebuild(loader);
+		}
+	}
+
+	public Snapshot rebuild(Supplier<List<RestaurantDto>> loader) {
+		synchronized (writeLock) {
+			List<RestaurantDto> restaurants = rebuildTimer.record(loader);
+			Snapshot previous = current.get();
+			Snapshot snapshot = Snapshot.of(previous == null ? 1 : previous.version() + 1, restaurants);
+			current.set(snapshot);
+			log.debug("Restaurant catalog rebuilt: version={}, restaurants={}", snapshot.version(), restaurants.size());
+			return snapshot;
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRestaurantChanged(RestaurantChangedEvent event) {
+		synchronized (writeLock) {
+			Snapshot previous = current.get();
+			if (previous == null) {
+				return; // nothing loaded yet, the next read loads fresh data
+			}
+			List<RestaurantDto> restaurants = new ArrayList<>(previous.all().size() + 1);
+			for (RestaurantDto dto : previous.all()) {
+				if (!dto.getId().equals(event.getRestaurantId())) {
+					restaurants.add(dto);
+				}
+			}
+			if (!event.isDeleted() && event.getRestaurant().isActive()) {
+				restaurants.add(event.getRestaurant());
+			}
+			current.set(Snapshot.of(previous.version() + 1, restaurants));
+		}
+	}
+
+	public void invalidate() {
+		current.set(null);
+	}
+
+	public record Snapshot(long version, List<RestaurantDto> all, List<RestaurantDto> open, Map<Long, RestaurantDto> byId) {
+
+		static Snapshot of(long version, List<RestaurantDto> restaurants) {
+			List<RestaurantDto> all = restaurants.stream()
+					.filter(RestaurantDto::isActive)
+					.sorted(Comparator.comparing(RestaurantDto::getId))
+					.toList();
+			List<RestaurantDto> open = all.stream()
+					.filter(RestaurantDto::isOpen)
+					.toList();
+			Map<Long, RestaurantDto> byId = all.stream()
+					.collect(Collectors.toUnmodifiableMap(RestaurantDto::getId, dto -> dto));
+			return new Snapshot(version, all, open, byId);
+		}
+
+		public Optional<RestaurantDto> findById(Long id) {
+			return Optional.ofNullable(byId.get(id));
+		}
+	}
+}
@@ -1,135 +1,282 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.dto.CursorPage;
+import com.fooddelivery.dto.DeliveryStatsDto;
+import com.fooddelivery.dto.KitchenStatusDto;
+import com.fooddelivery.dto.LiveOrderStatsDto;
+import com.fooddelivery.dto.PageCursor;
 import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.dto.RestaurantQuery;
 import com.fooddelivery.dto.RestaurantRequest;
 import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.event.RestaurantChangedEvent;
 import com.fooddelivery.exception.NotFoundException;
+import com.fooddelivery.repository.OrderSummaryRepository;
 import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.RestaurantSpecifications;
+import com.fooddelivery.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RestaurantService {
 	
+	private static final int SEARCH_LIMIT = 100;
+	private static final int MAX_PAGE_SIZE = 100;
+	
 	private final RestaurantRepository restaurantRepository;
+	private final OrderSummaryRepository orderSummaryRepository;
+	private final RestaurantCatalog restaurantCatalog;
+	private final SearchIndex searchIndex;
+	private final ApplicationEventPublisher eventPublisher;
+	private final KitchenScheduler kitchenScheduler;
+	private final DeliveryTimeStats deliveryTimeStats;
+	private final LiveOrderCounters liveOrderCounters;
 	
 	public List<RestaurantDto> getAllRestaurants() {
-		return restaurantRepository.findByIsActiveTrueAndIsOpenTrue()
-				.stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		return catalog().open();
 	}
 	
 	public Page<RestaurantDto> getAllRestaurants(Pageable pageable) {
-		return restaurantRepository.findByIsActiveTrueAndIsOpenTrue(pageable)
-				.map(restaurant -> {
-					// For pageable queries, we need to handle lazy loading differently
-					RestaurantDto dto = new RestaurantDto();
-					dto.setId(restaurant.getId());
-					dto.setName(restaurant.getName());
-					dto.setDescription(restaurant.getDescription());
-					dto.setAddress(restaurant.getAddress());
-					dto.setPhone(restaurant.getPhone());
-					dto.setEmail(restaurant.getEmail());
-					dto.setCuisine(restaurant.getCuisine());
-					dto.setImageUrl(restaurant.getImageUrl());
-					dto.setRating(restaurant.getRating());
-					dto.setReviewCount(restaurant.getReviewCount());
-					dto.setActive(restaurant.isActive());
-					dto.setOpen(restaurant.isOpen());
-					dto.setDeliveryTime(restaurant.getDeliveryTime());
-					dto.setDeliveryFee(restaurant.getDeliveryFee());
-					dto.setMinimumOrder(restaurant.getMinimumOrder());
-					dto.setCreatedAt(restaurant.getCreatedAt());
-					dto.setUpdatedAt(restaurant.getUpdatedAt());
-					
-					// Handle owner information safely
-					try {
-						if (restaurant.getOwner() != null) {
-							dto.setOwnerId(restaurant.getOwner().getId());
-							dto.setOwnerName(restaurant.getOwner().getFirstName() + " " + restaurant.getOwner().getLastName());
-						}
-					} catch (Exception e) {
-						// If lazy loading fails, just set the owner ID if available
-						dto.setOwnerId(restaurant.getOwner() != null ? restaurant.getOwner().getId() : null);
-						dto.setOwnerName("Owner information not available");
-					}
-					
-					return dto;
-				});
+		Page<RestaurantDto> page = restaurantRepository.findOpenDtos(pageable);
+		deliveryTimeStats.annotate(page.getContent());
+		return page;
+	}
+	
+	public CursorPage<RestaurantDto> getAllRestaurants(String cursor, int size, boolean includeTotal) {
+		int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		PageRequest limit = PageRequest.of(0, pageSize + 1);
+		List<RestaurantDto> rows;
+		if (cursor == null || cursor.isBlank()) {
+			rows = restaurantRepository.findFirstKeysetPageOfOpen(limit);
+		} else {
+			PageCursor after = PageCursor.decode(cursor);
+			rows = restaurantRepository.findKeysetPageOfOpen(after.createdAt(), after.getId(), limit);
+		}
+		deliveryTimeStats.annotate(rows);
+		Long total = includeTotal ? restaurantRepository.countByIsActiveTrueAndIsOpenTrue() : null;
+		return CursorPage.of(rows, pageSize, r -> PageCursor.of(r.getCreatedAt(), r.getId()), r -> r, total);
 	}
 	
 	public RestaurantDto getRestaurantById(Long id) {
-		Restaurant restaurant = restaurantRepository.findByIdAndIsActiveTrue(id)
+		return catalog().findById(id)
 				.orElseThrow(() -> new NotFoundException("Restaurant not found"));
-		return convertToDto(restaurant);
+	}
+	
+	public KitchenStatusDto getKitchenStatus(Long id) {
+		return kitchenScheduler.status(id, getRestaurantById(id).getDeliveryTime());
+	}
+	
+	public DeliveryStatsDto getDeliveryStats(Long id) {
+		return deliveryTimeStats.stats(getRestaurantById(id).getId());
+	}
+	
+	public LiveOrderStatsDto getLiveStats(Long id) {
+		return liveOrderCounters.stats(getRestaurantById(id).getId());
 	}
 	
 	public List<RestaurantDto> searchRestaurants(String query) {
-		return restaurantRepository.searchByNameOrCuisine(query)
-				.stream()
-				.filter(r -> r.isActive() && r.isOpen())
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		RestaurantCatalog.Snapshot catalog = catalog();
+		if (query.isBlank()) {
+			return catalog.open();
+		}
+		return searchIndex.searchRestaurants(query, SEARCH_LIMIT, isOpenIn(catalog))
+				.map(ids -> ids.stream()
+						.map(catalog.byId()::get)
+						.collect(Collectors.toList()))
+				.orElseGet(() -> {
+					// index still building at startup
+					String needle = query.toLowerCase(Locale.ROOT);
+					return catalog.open()
+							.stream()
+							.filter(r -> r.getName().toLowerCase(Locale.ROOT).contains(needle)
+									|| r.getCuisine().toLowerCase(Locale.ROOT).contains(needle))
+							.collect(Collectors.toList());
+				});
 	}
 	
 	public List<RestaurantDto> getRestaurantsByCuisine(String cuisine) {
-		return restaurantRepository.findByCuisine(cuisine)
+		return catalog().open()
 				.stream()
-				.filter(r -> r.isActive() && r.isOpen())
-				.map(this::convertToDto)
+				.filter(r -> r.getCuisine().equalsIgnoreCase(cuisine))
 				.collect(Collectors.toList());
 	}
 	
 	public List<RestaurantDto> getRestaurantsByRating(double minRating) {
-		return restaurantRepository.findByMinimumRating(minRating)
+		return catalog().open()
 				.stream()
-				.filter(r -> r.isActive() && r.isOpen())
-				.map(this::convertToDto)
+				.filter(r -> r.getRating() >= minRating)
 				.collect(Collectors.toList());
 	}
 	
 	public List<RestaurantDto> getRestaurantsByDeliveryTime(int maxDeliveryTime) {
-		return restaurantRepository.findByMaxDeliveryTime(maxDeliveryTime)
+		return catalog().open()
 				.stream()
-				.filter(r -> r.isActive() && r.isOpen())
-				.map(this::convertToDto)
+				.filter(r -> r.getDeliveryTime() <= maxDeliveryTime)
 				.collect(Collectors.toList());
 	}
 	
+	/**
+	 * All filters, the sort and the page limit go into one query. Free text is resolved to ids through the
+	 * search index first, with the same filters applied to the catalog entries inside the index search;
+	 * when ordered by relevance the (at most SEARCH_LIMIT) matches are ranked in memory, any other order
+	 * pages through every match in the query.
+	 */
+	public Page<RestaurantDto> queryRestaurants(RestaurantQuery query, int page, int size) {
+		int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		int pageNumber = Math.max(0, page);
+		Specification<Restaurant> spec = Specification.where(RestaurantSpecifications.isOpen())
+				.and(RestaurantSpecifications.fetchOwner())
+				.and(RestaurantSpecifications.cuisineIs(query.getCuisine()))
+				.and(RestaurantSpecifications.ratingAtLeast(query.getMinRating()))
+				.and(RestaurantSpecifications.deliveryTimeAtMost(query.getMaxDeliveryTime()))
+				.and(RestaurantSpecifications.deliveryFeeAtMost(query.getMaxDeliveryFee()));
+		
+		List<Long> ranked = null;
+		if (query.getQ() != null && !query.getQ().isBlank()) {
+			boolean byRelevance = query.getOrderBy() == null || query.getOrderBy() == RestaurantQuery.SortOrder.RELEVANCE;
+			Optional<List<Long>> hits = searchIndex.searchRestaurants(query.getQ(),
+					byRelevance ? SEARCH_LIMIT : Integer.MAX_VALUE, matching(catalog(), query));
+			if (hits.isPresent()) {
+				ranked = hits.get();
+				spec = spec.and(RestaurantSpecifications.idIn(ranked));
+			} else {
+				spec = spec.and(RestaurantSpecifications.nameOrCuisineContains(query.getQ()));
+			}
+		}
+		
+		RestaurantQuery.SortOrder orderBy = query.getOrderBy();
+		if (orderBy == null) {
+			orderBy = ranked != null ? RestaurantQuery.SortOrder.RELEVANCE : RestaurantQuery.SortOrder.RATING;
+		}
+		if (orderBy == RestaurantQuery.SortOrder.RELEVANCE && ranked != null) {
+			Map<Long, Integer> rank = new HashMap<>();
+			for (int i = 0; i < ranked.size(); i++) rank.put(ranked.get(i), i);
+			List<RestaurantDto> matches = restaurantRepository.findAll(spec)
+					.stream()
+					.sorted(Comparator.comparing(r -> rank.get(r.getId())))
+					.map(this::convertToDto)
+					.collect(Collectors.toList());
+			int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+			int to = Math.min(from + pageSize, matches.size());
+			return new PageImpl<>(matches.subList(from, to), PageRequest.of(pageNumber, pageSize), matches.size());
+		}
+		return restaurantRepository.findAll(spec, PageRequest.of(pageNumber, pageSize, sortFor(orderBy)))
+				.map(this::convertToDto);
+	}
+	
 	public List<RestaurantDto> getRestaurantsByOwner(Long ownerId) {
-		return restaurantRepository.findByOwnerId(ownerId)
-				.stream()
-				.filter(r -> r.isActive() && r.isOpen())
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+		List<RestaurantDto> restaurants = restaurantRepository.findOpenDtosByOwnerId(ownerId);
+		deliveryTimeStats.annotate(restaurants);
+		return restaurants;
 	}
 	
+	@Transactional
 	public RestaurantDto createRestaurant(RestaurantRequest request) {
 		Restaurant restaurant = new Restaurant();
 		applyRequest(restaurant, request);
 		Restaurant saved = restaurantRepository.save(restaurant);
-		return convertToDto(saved);
+		RestaurantDto dto = convertToDto(saved);
+		eventPublisher.publishEvent(new RestaurantChangedEvent(dto.getId(), dto));
+		return dto;
 	}
 	
+	@Transactional
 	public RestaurantDto updateRestaurant(Long id, RestaurantRequest request) {
 		Restaurant restaurant = restaurantRepository.findById(id)
 				.orElseThrow(() -> new NotFoundException("Restaurant not found"));
 		applyRequest(restaurant, request);
 		Restaurant saved = restaurantRepository.save(restaurant);
-		return convertToDto(saved);
+		// order summaries carry the name, so past orders follow a rename
+		orderSummaryRepository.renameRestaurant(saved.getId(), saved.getName());
+		RestaurantDto dto = convertToDto(saved);
+		eventPublisher.publishEvent(new RestaurantChangedEvent(dto.getId(), dto));
+		return dto;
 	}
 	
+	@Transactional
 	public void deleteRestaurant(Long id) {
 		Restaurant restaurant = restaurantRepository.findById(id)
 				.orElseThrow(() -> new NotFoundException("Restaurant not found"));
 		restaurantRepository.delete(restaurant);
+		eventPublisher.publishEvent(new RestaurantChangedEvent(id, null));
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmCatalog() {
+		restaurantCatalog.rebuild(this::loadCatalog);
+	}
+	
+	// Picks up changes made outside this node (other instances, manual SQL)
+	@Scheduled(fixedDelayString = "${catalog.restaurants.refresh-interval-ms:60000}",
+			initialDelayString = "${catalog.restaurants.refresh-interval-ms:60000}")
+	public void refreshCatalog() {
+		restaurantCatalog.rebuild(this::loadCatalog);
+	}
+	
+	private RestaurantCatalog.Snapshot catalog() {
+		return restaurantCatalog.snapshot(this::loadCatalog);
+	}
+	
+	// typical delivery times are taken at build time and follow the stats on each refresh
+	private List<RestaurantDto> loadCatalog() {
+		List<RestaurantDto> restaurants = restaurantRepository.findActiveDtos();
+		deliveryTimeStats.annotate(restaurants);
+		return restaurants;
+	}
+	
+	// closed restaurants are dropped inside the index search so they do not use up SEARCH_LIMIT
+	private static LongPredicate isOpenIn(RestaurantCatalog.Snapshot catalog) {
+		return id -> {
+			RestaurantDto restaurant = catalog.byId().get(id);
+			return restaurant != null && restaurant.isOpen();
+		};
+	}
+	
+	// the specification filters again in SQL; this only keeps non-matches from using up the search limit
+	private static LongPredicate matching(RestaurantCatalog.Snapshot catalog, RestaurantQuery query) {
+		String cuisine = query.getCuisine() == null || query.getCuisine().isBlank() ? null : query.getCuisine().trim();
+		return id -> {
+			RestaurantDto restaurant = catalog.byId().get(id);
+			return restaurant != null && restaurant.isOpen()
+					&& (cuisine == null || restaurant.getCuisine().equalsIgnoreCase(cuisine))
+					&& (query.getMinRating() == null || restaurant.getRating() >= query.getMinRating())
+					&& (query.getMaxDeliveryTime() == null || restaurant.getDeliveryTime() <= query.getMaxDeliveryTime())
+					&& (query.getMaxDeliveryFee() == null || restaurant.getDeliveryFee() <= query.getMaxDeliveryFee());
+		};
+	}
+	
+	// id breaks ties so page boundaries are stable
+	private static Sort sortFor(RestaurantQuery.SortOrder orderBy) {
+		Sort sort = switch (orderBy) {
+			case DELIVERY_TIME -> Sort.by(Sort.Direction.ASC, "deliveryTime");
+			case DELIVERY_FEE -> Sort.by(Sort.Direction.ASC, "deliveryFee");
+			case NEWEST -> Sort.by(Sort.Direction.DESC, "createdAt");
+			case NAME -> Sort.by(Sort.Direction.ASC, "name");
+			case RATING, RELEVANCE -> Sort.by(Sort.Direction.DESC, "rating");
+		};
+		return sort.and(Sort.by(Sort.Direction.ASC, "id"));
 	}
 	
 	private void applyRequest(Restaurant restaurant, RestaurantRequest request) {
@@ -143,6 +290,8 @@ public class RestaurantService {
 		restaurant.setDeliveryTime(request.getDeliveryTime());
 		restaurant.setDeliveryFee(request.getDeliveryFee());
 		restaurant.setMinimumOrder(request.getMinimumOrder());
+		restaurant.setLatitude(request.getLatitude());
+		restaurant.setLongitude(request.getLongitude());
 		if (request.getActive() != null) restaurant.setActive(request.getActive());
 		if (request.getOpen() != null) restaurant.setOpen(request.getOpen());
 	}
@@ -164,6 +313,8 @@ public class RestaurantService {
 		dto.setDeliveryTime(restaurant.getDeliveryTime());
 		dto.setDeliveryFee(restaurant.getDeliveryFee());
 		dto.setMinimumOrder(restaurant.getMinimumOrder());
+		dto.setLatitude(restaurant.getLatitude());
+		dto.setLongitude(restaurant.getLongitude());
 		dto.setCreatedAt(restaurant.getCreatedAt());
 		dto.setUpdatedAt(restaurant.getUpdatedAt());
 		
@@ -171,6 +322,7 @@ public class RestaurantService {
 			dto.setOwnerId(restaurant.getOwner().getId());
 			dto.setOwnerName(restaurant.getOwner().getFirstName() + " " + restaurant.getOwner().getLastName());
 		}
+		deliveryTimeStats.annotate(List.of(dto));
 		
 		return dto;
 	}
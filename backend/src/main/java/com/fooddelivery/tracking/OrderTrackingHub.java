@@ -0,0 +1,315 @@
+package com.fooddelivery.tracking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.dto.OrderTrackingEvent;
+import com.fooddelivery.dto.OrderTrackingEvent.EventType;
+import com.fooddelivery.event.OrderPaymentStatusChangedEvent;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process publish/subscribe hub behind the order tracking SSE streams. Connections are async
+ * SseEmitters, so no request thread is held while a client listens; each subscriber has a bounded
+ * queue drained on a virtual thread. A subscriber that falls behind is disconnected and resumes
+ * through Last-Event-ID from the topic's replay buffer, or gets a RESYNC event if the gap is gone.
+ * Heartbeats have their own thread so slow @Scheduled jobs cannot delay them past proxy idle timeouts.
+ */
+@Component
+@Slf4j
+public class OrderTrackingHub {
+
+	private final ObjectMapper objectMapper;
+	private final long timeoutMs;
+	private final int replaySize;
+	private final int queueCapacity;
+	private final int maxSubscribers;
+	private final long topicIdleMs;
+
+	private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+	private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "sse-heartbeat");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// starts from the clock so event ids keep growing across restarts
+	private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+	private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+
+	private final Counter dropped;
+
+	private record Frame(long id, String data) {
+	}
+
+	public OrderTrackingHub(ObjectMapper objectMapper,
+			MeterRegistry meterRegistry,
+			@Value("${tracking.sse.timeout-ms:1800000}") long timeoutMs,
+			@Value("${tracking.sse.replay-size:32}") int replaySize,
+			@Value("${tracking.sse.queue-capacity:64}") int queueCapacity,
+			@Value("${tracking.sse.max-subscribers:20000}") int maxSubscribers,
+			@Value("${tracking.sse.topic-idle-ms:600000}") long topicIdleMs,
+			@Value("${tracking.sse.heartbeat-ms:15000}") long heartbeatMs) {
+		this.objectMapper = objectMapper;
+		this.timeoutMs = timeoutMs;
+		this.replaySize = replaySize;
+		this.queueCapacity = queueCapacity;
+		this.maxSubscribers = maxSubscribers;
+		this.topicIdleMs = topicIdleMs;
+		this.dropped = Counter.builder("tracking.sse.dropped").register(meterRegistry);
+		Gauge.builder("tracking.sse.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+		Gauge.builder("tracking.sse.topics", topics, Map::size).register(meterRegistry);
+		heartbeats.scheduleAtFixedRate(this::heartbeatSafely, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Call before reading the order snapshot and pass the result to {@link #subscribeToOrder}: changes
+	 * published after this point are buffered and replayed on top of the snapshot.
+	 */
+	public long openOrderTopic(Long orderId) {
+		topics.computeIfAbsent(orderTopic(orderId), k -> new Topic(sequence.get()));
+		return sequence.get();
+	}
+
+	public SseEmitter subscribeToOrder(Long orderId, Long lastEventId, OrderTrackingEvent snapshot, long snapshotSequence) {
+		return subscribe(orderTopic(orderId), lastEventId, snapshot, snapshotSequence);
+	}
+
+	public SseEmitter subscribeToUser(Long userId, Long lastEventId) {
+		return subscribe(userTopic(userId), lastEventId, null, sequence.get());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+		publish(new OrderTrackingEvent(EventType.STATUS, event.getOrderId(), event.getStatus(), null, event.getChangedAt()),
+				orderTopic(event.getOrderId()), userTopic(event.getUserId()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderPaymentStatusChanged(OrderPaymentStatusChangedEvent event) {
+		publish(new OrderTrackingEvent(EventType.PAYMENT_STATUS, event.getOrderId(), null, event.getStatus(), event.getChangedAt()),
+				orderTopic(event.getOrderId()), userTopic(event.getUserId()));
+	}
+
+	private void heartbeatSafely() {
+		try {
+			heartbeat();
+		} catch (RuntimeException ex) {
+			// an exception escaping would cancel every later heartbeat
+			log.warn("Tracking heartbeat failed: {}", ex.getMessage());
+		}
+	}
+
+	void heartbeat() {
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, Topic> entry : topics.entrySet()) {
+			Topic topic = entry.getValue();
+			topic.subscribers.forEach(Subscriber::heartbeat);
+			// the replay buffer of a topic nobody listens to is only kept for a while
+			synchronized (topic) {
+				if (topic.subscribers.isEmpty() && now - topic.lastActivity > topicIdleMs) {
+					topics.remove(entry.getKey(), topic);
+				}
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		heartbeats.shutdownNow();
+		topics.values().forEach(topic -> topic.subscribers.forEach(Subscriber::close));
+		sender.shutdown();
+	}
+
+	private SseEmitter subscribe(String key, Long lastEventId, OrderTrackingEvent snapshot, long snapshotSequence) {
+		if (subscriberCount.incrementAndGet() > maxSubscribers) {
+			subscriberCount.decrementAndGet();
+			throw new ServiceUnavailableException("Too many live tracking connections, please retry shortly");
+		}
+		Subscriber subscriber = new Subscriber(key, new SseEmitter(timeoutMs));
+		SseEmitter emitter = subscriber.emitter;
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(error -> subscriber.close());
+
+		while (true) {
+			Topic topic = topics.computeIfAbsent(key, k -> new Topic(sequence.get()));
+			synchronized (topic) {
+				if (topics.get(key) != topic) {
+					continue; // removed by the idle sweep in between
+				}
+				if (lastEventId != null && lastEventId >= topic.evictedUpTo) {
+					replay(topic, subscriber, lastEventId);
+				} else if (snapshot != null) {
+					subscriber.offer(new Frame(snapshotSequence, toJson(snapshot)));
+					replay(topic, subscriber, snapshotSequence);
+				} else if (lastEventId != null) {
+					subscriber.offer(new Frame(sequence.get(),
+							toJson(new OrderTrackingEvent(EventType.RESYNC, null, null, null, LocalDateTime.now()))));
+				}
+				topic.subscribers.add(subscriber);
+				topic.lastActivity = System.currentTimeMillis();
+			}
+			break;
+		}
+		// flushes the response headers even when there is nothing to replay
+		subscriber.heartbeat();
+		return emitter;
+	}
+
+	private static void replay(Topic topic, Subscriber subscriber, long after) {
+		topic.replay.stream().filter(frame -> frame.id() > after).forEach(subscriber::offer);
+	}
+
+	private void publish(OrderTrackingEvent event, String... keys) {
+		Frame frame = new Frame(sequence.incrementAndGet(), toJson(event));
+		for (String key : keys) {
+			// topics exist only while someone listens or recently listened; new subscribers start from a snapshot
+			Topic topic = topics.get(key);
+			if (topic == null) {
+				continue;
+			}
+			// offered under the lock so subscribers see frames in id order and never between replay and live
+			synchronized (topic) {
+				topic.replay.addLast(frame);
+				if (topic.replay.size() > replaySize) {
+					topic.evictedUpTo = topic.replay.removeFirst().id();
+				}
+				topic.lastActivity = System.currentTimeMillis();
+				topic.subscribers.forEach(subscriber -> subscriber.offer(frame));
+			}
+		}
+	}
+
+	private String toJson(OrderTrackingEvent event) {
+		try {
+			return objectMapper.writeValueAsString(event);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize tracking event", ex);
+		}
+	}
+
+	private static String orderTopic(Long orderId) {
+		return "order:" + orderId;
+	}
+
+	private static String userTopic(Long userId) {
+		return "user:" + userId;
+	}
+
+	private static final class Topic {
+		private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+		private final Deque<Frame> replay = new ArrayDeque<>();
+		// events up to this id are not in the replay buffer
+		private long evictedUpTo;
+		private volatile long lastActivity = System.currentTimeMillis();
+
+		private Topic(long createdAt) {
+			this.evictedUpTo = createdAt;
+		}
+	}
+
+	private final class Subscriber {
+		private static final Frame HEARTBEAT = new Frame(0, null);
+
+		private final String topic;
+		private final SseEmitter emitter;
+		private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(queueCapacity);
+		private final AtomicBoolean draining = new AtomicBoolean();
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Subscriber(String topic, SseEmitter emitter) {
+			this.topic = topic;
+			this.emitter = emitter;
+		}
+
+		void offer(Frame frame) {
+			if (closed.get()) {
+				return;
+			}
+			if (!queue.offer(frame)) {
+				// too slow to keep up; it reconnects with Last-Event-ID and catches up from the replay buffer
+				dropped.increment();
+				close();
+				return;
+			}
+			scheduleDrain();
+		}
+
+		void heartbeat() {
+			// a heartbeat is only useful when the queue is idle
+			if (queue.isEmpty()) {
+				offer(HEARTBEAT);
+			}
+		}
+
+		private void scheduleDrain() {
+			if (draining.compareAndSet(false, true)) {
+				sender.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				Frame frame;
+				while (!closed.get() && (frame = queue.poll()) != null) {
+					if (frame == HEARTBEAT) {
+						emitter.send(SseEmitter.event().comment("heartbeat"));
+					} else {
+						emitter.send(SseEmitter.event().id(Long.toString(frame.id())).data(frame.data()));
+					}
+				}
+			} catch (IOException | IllegalStateException ex) {
+				close();
+			} finally {
+				draining.set(false);
+				if (!closed.get() && !queue.isEmpty()) {
+					scheduleDrain();
+				}
+			}
+		}
+
+		void close() {
+			if (!closed.compareAndSet(false, true)) {
+				return;
+			}
+			subscriberCount.decrementAndGet();
+			Topic current = topics.get(topic);
+			if (current != null) {
+				current.subscribers.remove(this);
+			}
+			queue.clear();
+			try {
+				emitter.complete();
+			} catch (IllegalStateException ex) {
+				log.debug("Tracking emitter for {} already completed", topic);
+			}
+		}
+	}
+}
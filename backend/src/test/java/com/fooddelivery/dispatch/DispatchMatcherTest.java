@@ -0,0 +1,205 @@
+package com.fooddelivery.dispatch;
+
+import com.fooddelivery.repository.JdbcOrderAssignmentWriter;
+import com.fooddelivery.repository.JdbcOrderAssignmentWriter.Assignment;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.RiderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DispatchMatcherTest {
+
+	private static final double LAT = 12.97;
+	private static final double LON = 77.59;
+	// roughly 1.1 km of latitude
+	private static final double KM = 0.01;
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final JdbcOrderAssignmentWriter assignmentWriter = mock(JdbcOrderAssignmentWriter.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RiderRegistry riderRegistry = new RiderRegistry(mock(RiderRepository.class), orderRepository,
+			meterRegistry, 0.01, 60_000);
+	private final DispatchMatcher matcher = new DispatchMatcher(orderRepository, assignmentWriter, riderRegistry,
+			meterRegistry, true, 500, 5, 5, 20, 0.5);
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void eachOrderGetsItsNearestFreeRider() {
+		LocalDateTime now = LocalDateTime.now();
+		RiderState nearA = rider(1L, LAT + 0.2 * KM, LON);
+		RiderState nearB = rider(2L, LAT + 2 * KM, LON);
+		rider(3L, LAT + 4 * KM, LON);
+		readyOrders(order(10L, LAT, LON, now), order(20L, LAT + 2.1 * KM, LON, now));
+		confirmAll();
+
+		matcher.match();
+
+		assertThat(nearA.getOrderId()).isEqualTo(10L);
+		assertThat(nearB.getOrderId()).isEqualTo(20L);
+		assertThat(matcher.lastRound().assigned()).isEqualTo(2);
+		assertThat(matcher.lastRound().unmatched()).isZero();
+	}
+
+	@Test
+	void longerWaitingOrderWinsAContestedRider() {
+		LocalDateTime now = LocalDateTime.now();
+		RiderState only = rider(1L, LAT + KM, LON);
+		// the fresh order is closer, but the other one has been ready for twenty minutes
+		readyOrders(order(10L, LAT + 0.9 * KM, LON, now), order(20L, LAT, LON, now.minusMinutes(20)));
+		confirmAll();
+
+		matcher.match();
+
+		assertThat(only.getOrderId()).isEqualTo(20L);
+		assertThat(matcher.lastRound().assigned()).isEqualTo(1);
+		assertThat(matcher.lastRound().unmatched()).isEqualTo(1);
+	}
+
+	@Test
+	void ridersWhoseAssignmentWasNotWrittenAreFreedAgain() {
+		LocalDateTime now = LocalDateTime.now();
+		RiderState taken = rider(1L, LAT, LON);
+		RiderState kept = rider(2L, LAT + 3 * KM, LON);
+		readyOrders(order(10L, LAT, LON, now), order(20L, LAT + 3 * KM, LON, now));
+		// order 10 was picked up by another node in the meantime
+		when(assignmentWriter.assignAll(any())).thenReturn(Set.of(20L));
+
+		matcher.match();
+
+		assertThat(taken.getOrderId()).isNull();
+		assertThat(taken.status(riderRegistry.staleBefore())).isEqualTo(RiderStatus.AVAILABLE);
+		assertThat(kept.getOrderId()).isEqualTo(20L);
+		assertThat(matcher.lastRound().assigned()).isEqualTo(1);
+	}
+
+	@Test
+	void failedWriteFreesEveryRiderOfTheRound() {
+		RiderState rider = rider(1L, LAT, LON);
+		readyOrders(order(10L, LAT, LON, LocalDateTime.now()));
+		when(assignmentWriter.assignAll(any())).thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+		matcher.match();
+
+		assertThat(rider.getOrderId()).isNull();
+		assertThat(matcher.lastRound().assigned()).isZero();
+		assertThat(matcher.lastRound().unmatched()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentRoundsNeverGiveARiderTwoOrdersOrAnOrderTwoRiders() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		List<RiderState> riders = new ArrayList<>();
+		for (long id = 1; id <= 20; id++) {
+			riders.add(rider(id, LAT + (id % 5) * 0.3 * KM, LON + (id / 5) * 0.3 * KM));
+		}
+		List<OrderRepository.DispatchOrderRow> orders = new ArrayList<>();
+		for (long id = 1; id <= 40; id++) {
+			orders.add(order(100 + id, LAT + (id % 7) * 0.2 * KM, LON + (id % 3) * 0.2 * KM, now.minusMinutes(id % 10)));
+		}
+		when(orderRepository.findUnassignedReadyOrders(any())).thenReturn(orders);
+		// like the conditional UPDATE: only the first write for an order wins
+		Map<Long, String> written = new ConcurrentHashMap<>();
+		when(assignmentWriter.assignAll(any())).thenAnswer(invocation -> {
+			Set<Long> confirmed = new HashSet<>();
+			for (Assignment assignment : invocation.<List<Assignment>>getArgument(0)) {
+				if (written.putIfAbsent(assignment.orderId(), assignment.riderPhone()) == null) {
+					confirmed.add(assignment.orderId());
+				}
+			}
+			return confirmed;
+		});
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> rounds = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			rounds.add(executor.submit(() -> {
+				start.await();
+				matcher.match();
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> round : rounds) {
+			round.get();
+		}
+
+		// every rider holds at most one order, and it is the one the database says is theirs
+		Map<Long, Long> held = new HashMap<>();
+		for (RiderState rider : riders) {
+			if (rider.getOrderId() != null) {
+				assertThat(held.put(rider.getOrderId(), rider.getId())).isNull();
+				assertThat(written.get(rider.getOrderId())).isEqualTo(rider.getPhone());
+			}
+		}
+		// and no written order is left without its rider
+		assertThat(held).isNotEmpty().hasSameSizeAs(written);
+	}
+
+	private RiderState rider(Long id, double latitude, double longitude) {
+		RiderState rider = riderRegistry.register(id, "Rider " + id, "90000000" + String.format("%02d", id));
+		riderRegistry.ping(id, latitude, longitude, true);
+		return rider;
+	}
+
+	private void readyOrders(OrderRepository.DispatchOrderRow... orders) {
+		when(orderRepository.findUnassignedReadyOrders(any())).thenReturn(List.of(orders));
+	}
+
+	private void confirmAll() {
+		when(assignmentWriter.assignAll(any())).thenAnswer(invocation -> {
+			Set<Long> confirmed = new HashSet<>();
+			invocation.<List<Assignment>>getArgument(0).forEach(assignment -> confirmed.add(assignment.orderId()));
+			return confirmed;
+		});
+	}
+
+	private static OrderRepository.DispatchOrderRow order(Long orderId, double latitude, double longitude,
+			LocalDateTime readySince) {
+		return new OrderRepository.DispatchOrderRow() {
+			@Override
+			public Long getOrderId() {
+				return orderId;
+			}
+
+			@Override
+			public Double getLatitude() {
+				return latitude;
+			}
+
+			@Override
+			public Double getLongitude() {
+				return longitude;
+			}
+
+			@Override
+			public LocalDateTime getReadySince() {
+				return readySince;
+			}
+		};
+	}
+}
@@ -0,0 +1,146 @@
+package com.fooddelivery.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final IdempotencyFilter filter = new IdempotencyFilter(
+			new IdempotencyStore(repository, new SimpleMeterRegistry(), 86_400_000, 1_000, 100),
+			new ObjectMapper().findAndRegisterModules());
+
+	@BeforeEach
+	void authenticate() {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user@example.com", null, "ROLE_USER"));
+		when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void retryGetsTheStoredResponseWithoutRunningTheRequestAgain() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		FilterChain chain = (request, response) -> {
+			calls.incrementAndGet();
+			response.setContentType("application/json");
+			response.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+		};
+
+		MockHttpServletResponse first = run(request("k1", "{\"a\":1}"), chain);
+		MockHttpServletResponse retry = run(request("k1", "{\"a\":1}"), chain);
+
+		assertThat(calls).hasValue(1);
+		assertThat(retry.getStatus()).isEqualTo(200);
+		assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(retry.getContentAsByteArray()).containsExactly(first.getContentAsByteArray());
+	}
+
+	@Test
+	void reusedKeyWithDifferentBodyIsUnprocessable() throws Exception {
+		FilterChain chain = (request, response) -> response.getOutputStream().write(new byte[] {1});
+
+		run(request("k2", "{\"a\":1}"), chain);
+		MockHttpServletResponse reused = run(request("k2", "{\"a\":2}"), chain);
+
+		assertThat(reused.getStatus()).isEqualTo(422);
+		assertThat(reused.getContentAsString()).contains("IDEMPOTENCY_KEY_REUSED");
+	}
+
+	@Test
+	void serverErrorReleasesTheKey() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		FilterChain failing = (request, response) -> {
+			calls.incrementAndGet();
+			((HttpServletResponse) response).setStatus(503);
+		};
+
+		MockHttpServletResponse first = run(request("k3", "{}"), failing);
+		MockHttpServletResponse retry = run(request("k3", "{}"), failing);
+
+		assertThat(first.getStatus()).isEqualTo(503);
+		assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+		assertThat(calls).hasValue(2);
+		verify(repository, times(2)).release(anyString(), anyString());
+		verify(repository, never()).complete(anyString(), anyString(), any(Integer.class), any(), any());
+	}
+
+	@Test
+	void nonBlockingReaderGetsTheBufferedBody() throws Exception {
+		AtomicReference<String> read = new AtomicReference<>();
+		FilterChain chain = (request, response) -> {
+			ServletInputStream in = request.getInputStream();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			in.setReadListener(new ReadListener() {
+				@Override
+				public void onDataAvailable() throws IOException {
+					byte[] buffer = new byte[4];
+					int n;
+					while (in.isReady() && !in.isFinished() && (n = in.read(buffer)) != -1) {
+						out.write(buffer, 0, n);
+					}
+				}
+
+				@Override
+				public void onAllDataRead() {
+					read.set(out.toString(StandardCharsets.UTF_8));
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					read.set("error: " + t);
+				}
+			});
+		};
+
+		run(request("k4", "{\"items\":[1,2,3]}"), chain);
+
+		assertThat(read).hasValue("{\"items\":[1,2,3]}");
+	}
+
+	private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String key, String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+		request.setContextPath("/api");
+		request.setServletPath("/orders");
+		request.addHeader(IdempotencyFilter.HEADER, key);
+		request.setContentType("application/json");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
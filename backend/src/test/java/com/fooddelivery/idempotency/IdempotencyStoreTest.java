@@ -0,0 +1,161 @@
+package com.fooddelivery.idempotency;
+
+import com.fooddelivery.entity.IdempotencyRecord;
+import com.fooddelivery.idempotency.IdempotencyStore.Claim;
+import com.fooddelivery.idempotency.IdempotencyStore.Outcome;
+import com.fooddelivery.idempotency.IdempotencyStore.StoredResponse;
+import com.fooddelivery.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+	private static final String KEY = "scope-key";
+	private static final String HASH = "request-hash";
+
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentDuplicatesWaitForTheFirstAndReplayItsBytes() throws Exception {
+		when(repository.claim(eq(KEY), eq(HASH), any(), any())).thenReturn(1);
+		IdempotencyStore store = store(5_000);
+
+		assertThat(store.begin(KEY, HASH).outcome()).isEqualTo(Outcome.EXECUTE);
+
+		List<Future<Claim>> duplicates = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			duplicates.add(executor.submit(() -> store.begin(KEY, HASH)));
+		}
+		Thread.sleep(100);
+		assertThat(duplicates).noneMatch(Future::isDone);
+
+		byte[] body = "{\"id\":42,\"orderNumber\":\"ORD0000000000001\"}".getBytes(StandardCharsets.UTF_8);
+		store.complete(KEY, HASH, new StoredResponse(200, "application/json", body));
+
+		for (Future<Claim> duplicate : duplicates) {
+			Claim claim = duplicate.get(1, TimeUnit.SECONDS);
+			assertThat(claim.outcome()).isEqualTo(Outcome.REPLAY);
+			assertThat(claim.response().status()).isEqualTo(200);
+			assertThat(claim.response().contentType()).isEqualTo("application/json");
+			assertThat(claim.response().body()).containsExactly(body);
+		}
+		// only the first caller reached the database
+		verify(repository, times(1)).claim(anyString(), anyString(), any(), any());
+		verify(repository).complete(KEY, HASH, 200, "application/json", body);
+	}
+
+	@Test
+	void sameKeyWithDifferentRequestIsAMismatch() throws Exception {
+		when(repository.claim(eq(KEY), eq(HASH), any(), any())).thenReturn(1);
+		IdempotencyStore store = store(5_000);
+
+		assertThat(store.begin(KEY, HASH).outcome()).isEqualTo(Outcome.EXECUTE);
+		assertThat(store.begin(KEY, "other-hash").outcome()).isEqualTo(Outcome.MISMATCH);
+	}
+
+	@Test
+	void storedResponseForDifferentRequestIsAMismatchAfterRestart() throws Exception {
+		when(repository.claim(eq(KEY), eq("other-hash"), any(), any())).thenReturn(0);
+		when(repository.findById(KEY)).thenReturn(Optional.of(record(HASH, 200, "done")));
+		IdempotencyStore store = store(5_000);
+
+		assertThat(store.begin(KEY, "other-hash").outcome()).isEqualTo(Outcome.MISMATCH);
+	}
+
+	@Test
+	void storedResponseIsReplayedAfterRestart() throws Exception {
+		when(repository.claim(eq(KEY), eq(HASH), any(), any())).thenReturn(0);
+		when(repository.findById(KEY)).thenReturn(Optional.of(record(HASH, 201, "created")));
+		IdempotencyStore store = store(5_000);
+
+		Claim claim = store.begin(KEY, HASH);
+
+		assertThat(claim.outcome()).isEqualTo(Outcome.REPLAY);
+		assertThat(claim.response().status()).isEqualTo(201);
+		assertThat(claim.response().body()).containsExactly("created".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void releasedKeyLetsTheWaiterExecute() throws Exception {
+		when(repository.claim(eq(KEY), eq(HASH), any(), any())).thenReturn(1);
+		IdempotencyStore store = store(5_000);
+
+		assertThat(store.begin(KEY, HASH).outcome()).isEqualTo(Outcome.EXECUTE);
+		Future<Claim> waiter = executor.submit(() -> store.begin(KEY, HASH));
+		Thread.sleep(100);
+
+		store.release(KEY, HASH);
+
+		assertThat(waiter.get(1, TimeUnit.SECONDS).outcome()).isEqualTo(Outcome.EXECUTE);
+		verify(repository).release(KEY, HASH);
+	}
+
+	@Test
+	void waiterGivesUpAfterTheInFlightTimeout() throws Exception {
+		when(repository.claim(eq(KEY), eq(HASH), any(), any())).thenReturn(1);
+		IdempotencyStore store = store(200);
+
+		assertThat(store.begin(KEY, HASH).outcome()).isEqualTo(Outcome.EXECUTE);
+
+		long started = System.nanoTime();
+		Claim claim = timed(() -> store.begin(KEY, HASH));
+
+		assertThat(claim.outcome()).isEqualTo(Outcome.IN_PROGRESS);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(200);
+	}
+
+	@Test
+	void keyRunningOnAnotherInstanceIsInProgressAfterTheTimeout() throws Exception {
+		when(repository.claim(eq(KEY), eq(HASH), any(), any())).thenReturn(0);
+		when(repository.findById(KEY)).thenReturn(Optional.of(record(HASH, null, null)));
+		when(repository.takeOver(eq(KEY), eq(HASH), any(), any(), any())).thenReturn(0);
+		IdempotencyStore store = store(300);
+
+		Claim claim = timed(() -> store.begin(KEY, HASH));
+
+		assertThat(claim.outcome()).isEqualTo(Outcome.IN_PROGRESS);
+		verify(repository, never()).complete(anyString(), anyString(), any(Integer.class), any(), any());
+	}
+
+	private IdempotencyStore store(long inFlightTimeoutMs) {
+		return new IdempotencyStore(repository, new SimpleMeterRegistry(), 86_400_000, inFlightTimeoutMs, 100);
+	}
+
+	private Claim timed(Callable<Claim> call) throws Exception {
+		return executor.submit(call).get(5, TimeUnit.SECONDS);
+	}
+
+	private static IdempotencyRecord record(String requestHash, Integer statusCode, String body) {
+		LocalDateTime now = LocalDateTime.now();
+		return new IdempotencyRecord(KEY, requestHash, statusCode, statusCode == null ? null : "text/plain",
+				body == null ? null : body.getBytes(StandardCharsets.UTF_8), now, now.plusDays(1));
+	}
+}
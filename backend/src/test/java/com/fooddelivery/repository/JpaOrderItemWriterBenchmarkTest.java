@@ -0,0 +1,163 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.Category;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput of the batch-write profile against the same writes sent one statement at a time
+ * (Session#setJdbcBatchSize(1)); both use the pooled ids, IDENTITY ids could not be batched at all.
+ * H2 runs as a TCP server so every statement pays a loopback round trip, which is what batching saves.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles({"h2", "batch-write"})
+@Import(JpaOrderItemWriter.class)
+class JpaOrderItemWriterBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaOrderItemWriterBenchmarkTest.class);
+
+    private static final int ITEMS = 2_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private OrderItemWriter orderItemWriter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Order order;
+    private MenuItem menuItem;
+
+    // daemon threads and no stop(): the cached context still drops the schema when the JVM exits
+    @DynamicPropertySource
+    static void tcpDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        Server server = Server.createTcpServer("-tcpPort", "0", "-tcpDaemon", "-ifNotExists").start();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:batch_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    }
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("diner@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Dana");
+        user.setLastName("Diner");
+        user.setPhone("9000000001");
+        user.setAddress("1 Test Street");
+        entityManager.persist(user);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Test Kitchen");
+        restaurant.setDescription("Test");
+        restaurant.setAddress("2 Test Street");
+        restaurant.setPhone("9000000002");
+        restaurant.setEmail("kitchen@example.com");
+        restaurant.setCuisine("Indian");
+        entityManager.persist(restaurant);
+
+        Category category = new Category();
+        category.setName("Mains");
+        category.setDescription("Mains");
+        entityManager.persist(category);
+
+        menuItem = new MenuItem();
+        menuItem.setName("Dish");
+        menuItem.setDescription("Dish");
+        menuItem.setPrice(100);
+        menuItem.setRestaurant(restaurant);
+        menuItem.setCategory(category);
+        entityManager.persist(menuItem);
+
+        order = new Order();
+        order.setOrderNumber("ORD1");
+        order.setUser(user);
+        order.setRestaurant(restaurant);
+        order.setDeliveryAddress("1 Test Street");
+        order.setDeliveryPhone("9000000001");
+        order.setPaymentMethod("CASH_ON_DELIVERY");
+        entityManager.persist(order);
+        entityManager.flush();
+    }
+
+    @Test
+    void batchedInsertsOutrunSingleStatements() {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        // warm up both paths so class loading and JIT do not count against the first one measured
+        insertTimed(session, 1);
+        insertTimed(session, BATCH_SIZE);
+
+        long[] single = new long[ROUNDS];
+        long[] batched = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            single[round] = insertTimed(session, 1);
+            batched[round] = insertTimed(session, BATCH_SIZE);
+        }
+        long singleMedian = median(single);
+        long batchedMedian = median(batched);
+        log.info("Inserting {} order items: {} rows/s one statement each, {} rows/s in batches of {}", ITEMS,
+                rowsPerSecond(singleMedian), rowsPerSecond(batchedMedian), BATCH_SIZE);
+
+        assertThat(batchedMedian).isLessThan(singleMedian);
+    }
+
+    private long insertTimed(Session session, int batchSize) {
+        List<OrderItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setMenuItem(menuItem);
+            item.setQuantity(1);
+            item.setUnitPrice(100);
+            item.setTotalPrice(100);
+            items.add(item);
+        }
+        session.setJdbcBatchSize(batchSize);
+        try {
+            long start = System.nanoTime();
+            orderItemWriter.insertAll(order.getId(), items);
+            session.flush();
+            return System.nanoTime() - start;
+        } finally {
+            session.setJdbcBatchSize(null);
+            // later rounds must not dirty-check the items written before
+            items.forEach(session::detach);
+        }
+    }
+
+    private static long rowsPerSecond(long nanos) {
+        return ITEMS * 1_000_000_000L / nanos;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,131 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.Category;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The batch-write profile: orm-batch-write.xml swaps the OrderItem ids to the pooled table generator,
+ * so persist() assigns ids without touching order_items and the inserts go out in JDBC batches at flush.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles({"h2", "batch-write"})
+@Import(JpaOrderItemWriter.class)
+class JpaOrderItemWriterTest {
+
+    private static final int ITEMS = 120;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private OrderItemWriter orderItemWriter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Order order;
+    private MenuItem menuItem;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("diner@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Dana");
+        user.setLastName("Diner");
+        user.setPhone("9000000001");
+        user.setAddress("1 Test Street");
+        entityManager.persist(user);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Test Kitchen");
+        restaurant.setDescription("Test");
+        restaurant.setAddress("2 Test Street");
+        restaurant.setPhone("9000000002");
+        restaurant.setEmail("kitchen@example.com");
+        restaurant.setCuisine("Indian");
+        entityManager.persist(restaurant);
+
+        Category category = new Category();
+        category.setName("Mains");
+        category.setDescription("Mains");
+        entityManager.persist(category);
+
+        menuItem = new MenuItem();
+        menuItem.setName("Dish");
+        menuItem.setDescription("Dish");
+        menuItem.setPrice(100);
+        menuItem.setRestaurant(restaurant);
+        menuItem.setCategory(category);
+        entityManager.persist(menuItem);
+
+        order = new Order();
+        order.setOrderNumber("ORD1");
+        order.setUser(user);
+        order.setRestaurant(restaurant);
+        order.setDeliveryAddress("1 Test Street");
+        order.setDeliveryPhone("9000000001");
+        order.setPaymentMethod("CASH_ON_DELIVERY");
+        entityManager.persist(order);
+        entityManager.flush();
+    }
+
+    @Test
+    void itemsGetPooledIdsAndAreInsertedInBatches() {
+        assertThat(orderItemWriter).isInstanceOf(JpaOrderItemWriter.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setMenuItem(menuItem);
+            item.setQuantity(1);
+            item.setUnitPrice(100);
+            item.setTotalPrice(100);
+            items.add(item);
+        }
+        orderItemWriter.insertAll(order.getId(), items);
+
+        // ids are handed out from the pool before anything is written
+        long first = items.get(0).getId();
+        assertThat(items).extracting(OrderItem::getId)
+                .containsExactlyElementsOf(LongStream.range(first, first + ITEMS).boxed().toList());
+        assertThat(statistics.getEntityInsertCount()).isZero();
+
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEMS);
+        // one statement per batch instead of one per item
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo((ITEMS + BATCH_SIZE - 1) / BATCH_SIZE);
+        entityManager.clear();
+        assertThat(entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order.id = :orderId", Long.class)
+                .setParameter("orderId", order.getId())
+                .getSingleResult()).isEqualTo(ITEMS);
+    }
+}
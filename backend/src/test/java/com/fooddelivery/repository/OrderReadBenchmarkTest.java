@@ -0,0 +1,162 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.Category;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency and allocation of GET /orders/{id} through the projections against loading the Order entity
+ * graph it replaced, measured on the test thread with every read starting from an empty persistence context.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class OrderReadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReadBenchmarkTest.class);
+
+    private static final int ORDERS = 50;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("diner@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Dana");
+        user.setLastName("Diner");
+        user.setPhone("9000000001");
+        user.setAddress("1 Test Street");
+        entityManager.persist(user);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Test Kitchen");
+        restaurant.setDescription("Test");
+        restaurant.setAddress("2 Test Street");
+        restaurant.setPhone("9000000002");
+        restaurant.setEmail("kitchen@example.com");
+        restaurant.setCuisine("Indian");
+        entityManager.persist(restaurant);
+
+        Category category = new Category();
+        category.setName("Mains");
+        category.setDescription("Mains");
+        entityManager.persist(category);
+
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName("Dish " + i);
+            menuItem.setDescription("Dish " + i);
+            menuItem.setPrice(100 + i);
+            menuItem.setRestaurant(restaurant);
+            menuItem.setCategory(category);
+            menuItems.add(entityManager.persist(menuItem));
+        }
+
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = new Order();
+            order.setOrderNumber("ORD" + o);
+            order.setUser(user);
+            order.setRestaurant(restaurant);
+            order.setDeliveryAddress("1 Test Street");
+            order.setDeliveryPhone("9000000001");
+            order.setPaymentMethod("CASH_ON_DELIVERY");
+            entityManager.persist(order);
+            for (MenuItem menuItem : menuItems) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setMenuItem(menuItem);
+                item.setQuantity(1);
+                item.setUnitPrice(menuItem.getPrice());
+                item.setTotalPrice(menuItem.getPrice());
+                entityManager.persist(item);
+            }
+            orderIds.add(order.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectionsOutrunTheEntityGraph() {
+        LongConsumer entityRead = id -> {
+            Order order = orderRepository.findById(id).orElseThrow();
+            assertThat(order.getUser().getFirstName() + order.getRestaurant().getName()).isNotEmpty();
+            order.getOrderItems().forEach(item -> item.getMenuItem().getName());
+        };
+        LongConsumer projectionRead = id -> {
+            OrderDto order = orderRepository.findDtoById(id).orElseThrow();
+            assertThat(order.getUserName() + order.getRestaurantName()).isNotEmpty();
+            assertThat(orderRepository.findItemDtosByOrderId(id)).hasSize(ITEMS_PER_ORDER);
+        };
+        // warm up both paths so class loading and JIT do not count against the first one measured
+        readTimed(entityRead, new long[1], new long[1], 0);
+        readTimed(projectionRead, new long[1], new long[1], 0);
+
+        long[] entityNanos = new long[ROUNDS];
+        long[] entityBytes = new long[ROUNDS];
+        long[] projectionNanos = new long[ROUNDS];
+        long[] projectionBytes = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            readTimed(entityRead, entityNanos, entityBytes, round);
+            readTimed(projectionRead, projectionNanos, projectionBytes, round);
+        }
+        log.info("Reading {} orders of {} items as entities: {} us and {} KB per order", ORDERS, ITEMS_PER_ORDER,
+                median(entityNanos) / ORDERS / 1_000, median(entityBytes) / ORDERS / 1_024);
+        log.info("Reading {} orders of {} items as projections: {} us and {} KB per order", ORDERS, ITEMS_PER_ORDER,
+                median(projectionNanos) / ORDERS / 1_000, median(projectionBytes) / ORDERS / 1_024);
+
+        assertThat(median(projectionNanos)).isLessThan(median(entityNanos));
+        assertThat(median(projectionBytes)).isLessThan(median(entityBytes));
+    }
+
+    private void readTimed(LongConsumer read, long[] nanos, long[] bytes, int round) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (Long id : orderIds) {
+            read.accept(id);
+            // every request starts with an empty persistence context
+            entityManager.clear();
+        }
+        nanos[round] = System.nanoTime() - start;
+        bytes[round] = threads.getCurrentThreadAllocatedBytes() - allocated;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
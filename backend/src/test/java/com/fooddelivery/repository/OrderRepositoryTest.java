@@ -0,0 +1,141 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.Category;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The read paths behind GET /orders/{id}: one statement per call and no managed
+ * entities, where loading the entity costs the order, its items and their menu items.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("diner@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Dana");
+        user.setLastName("Diner");
+        user.setPhone("9000000001");
+        user.setAddress("1 Test Street");
+        entityManager.persist(user);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Test Kitchen");
+        restaurant.setDescription("Test");
+        restaurant.setAddress("2 Test Street");
+        restaurant.setPhone("9000000002");
+        restaurant.setEmail("kitchen@example.com");
+        restaurant.setCuisine("Indian");
+        entityManager.persist(restaurant);
+
+        Category category = new Category();
+        category.setName("Mains");
+        category.setDescription("Mains");
+        entityManager.persist(category);
+
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName("Dish " + i);
+            menuItem.setDescription("Dish " + i);
+            menuItem.setPrice(100 + i);
+            menuItem.setRestaurant(restaurant);
+            menuItem.setCategory(category);
+            menuItems.add(entityManager.persist(menuItem));
+        }
+
+        for (int o = 0; o < 5; o++) {
+            Order order = new Order();
+            order.setOrderNumber("ORD" + o);
+            order.setUser(user);
+            order.setRestaurant(restaurant);
+            order.setDeliveryAddress("1 Test Street");
+            order.setDeliveryPhone("9000000001");
+            order.setPaymentMethod("CASH_ON_DELIVERY");
+            entityManager.persist(order);
+            for (MenuItem menuItem : menuItems) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setMenuItem(menuItem);
+                item.setQuantity(1);
+                item.setUnitPrice(menuItem.getPrice());
+                item.setTotalPrice(menuItem.getPrice());
+                entityManager.persist(item);
+            }
+            orderIds.add(order.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void orderDtoIsOneStatementWithoutEntities() {
+        OrderDto order = orderRepository.findDtoById(orderIds.get(0)).orElseThrow();
+
+        assertThat(order.getOrderNumber()).isEqualTo("ORD0");
+        assertThat(order.getUserName()).isEqualTo("Dana Diner");
+        assertThat(order.getRestaurantName()).isEqualTo("Test Kitchen");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void orderItemsAreOneStatementWithoutEntities() {
+        List<OrderDto.OrderItemDto> items = orderRepository.findItemDtosByOrderId(orderIds.get(0));
+
+        assertThat(items).extracting(OrderDto.OrderItemDto::getMenuItemName).containsExactly("Dish 0", "Dish 1", "Dish 2");
+        assertThat(items).extracting(OrderDto.OrderItemDto::getUnitPrice).containsExactly(100.0, 101.0, 102.0);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void loadingTheEntityGraphCostsMoreStatementsAndEntities() {
+        Order order = orderRepository.findById(orderIds.get(0)).orElseThrow();
+        order.getOrderItems().forEach(item -> item.getMenuItem().getName());
+
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(1);
+        // the order, its three items and their menu items
+        assertThat(statistics.getEntityLoadCount()).isGreaterThanOrEqualTo(7);
+    }
+}
@@ -0,0 +1,70 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.RestaurantOwner;
+import com.fooddelivery.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class RestaurantRepositoryTest {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void ownerIsServedFromTheSecondLevelCacheWithoutCredentials() {
+        User user = new User();
+        user.setEmail("owner@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Olga");
+        user.setLastName("Owner");
+        user.setPhone("9000000003");
+        user.setAddress("3 Test Street");
+        entityManager.persist(user);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Owned Kitchen");
+        restaurant.setDescription("Test");
+        restaurant.setAddress("4 Test Street");
+        restaurant.setPhone("9000000004");
+        restaurant.setEmail("owned@example.com");
+        restaurant.setCuisine("Thai");
+        restaurant.setOwner(RestaurantOwner.of(user));
+        Long id = entityManager.persistAndFlush(restaurant).getId();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CacheRegionStatistics owners = statistics.getDomainDataRegionStatistics("restaurantOwners");
+
+        assertThat(restaurantRepository.findById(id).orElseThrow().getOwner().getFirstName()).isEqualTo("Olga");
+        assertThat(owners.getPutCount()).isEqualTo(1);
+        entityManager.clear();
+
+        long statements = statistics.getPrepareStatementCount();
+        RestaurantOwner owner = restaurantRepository.findById(id).orElseThrow().getOwner();
+        assertThat(owner.getFirstName() + " " + owner.getLastName()).isEqualTo("Olga Owner");
+        assertThat(owners.getHitCount()).isEqualTo(1);
+        // the restaurant was written in this still open transaction, so only its row is read again
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.KitchenStatusDto;
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.event.OrderCreatedEvent;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+class KitchenSchedulerTest {
+
+	private static final long RESTAURANT_ID = 3L;
+	private static final int DELIVERY_MINUTES = 30;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void ordersBeyondTheFreeSlotsWaitForTheFirstToFinish() {
+		KitchenScheduler scheduler = scheduler(2);
+		LocalDateTime now = LocalDateTime.now();
+
+		for (long orderId = 1; orderId <= 3; orderId++) {
+			scheduler.onOrderCreated(created(orderId, 10, now));
+		}
+
+		assertEta(scheduler, 1L, now.plusMinutes(10 + DELIVERY_MINUTES));
+		assertEta(scheduler, 2L, now.plusMinutes(10 + DELIVERY_MINUTES));
+		assertEta(scheduler, 3L, now.plusMinutes(20 + DELIVERY_MINUTES));
+		KitchenStatusDto status = scheduler.status(RESTAURANT_ID, DELIVERY_MINUTES);
+		assertThat(status.getQueuedOrders()).isEqualTo(3);
+		assertThat(status.getWaitMinutes()).isEqualTo(10);
+		assertThat(scheduler.quote(RESTAURANT_ID, 5, DELIVERY_MINUTES))
+				.isCloseTo(now.plusMinutes(10 + 5 + DELIVERY_MINUTES), within(5, ChronoUnit.SECONDS));
+	}
+
+	@Test
+	void orderBeingPreparedHoldsItsSlotFromWhenItStarted() {
+		KitchenScheduler scheduler = scheduler(1);
+		LocalDateTime now = LocalDateTime.now();
+		scheduler.onOrderCreated(created(1L, 10, now.minusMinutes(8)));
+		scheduler.onOrderCreated(created(2L, 10, now));
+
+		scheduler.onOrderStatusChanged(changed(1L, OrderStatus.PREPARING, now.minusMinutes(5)));
+
+		assertEta(scheduler, 1L, now.plusMinutes(5 + DELIVERY_MINUTES));
+		assertEta(scheduler, 2L, now.plusMinutes(15 + DELIVERY_MINUTES));
+		KitchenStatusDto status = scheduler.status(RESTAURANT_ID, DELIVERY_MINUTES);
+		assertThat(status.getPreparingOrders()).isEqualTo(1);
+		assertThat(status.getQueuedOrders()).isEqualTo(1);
+	}
+
+	@Test
+	void closedOrdersLeaveTheScheduleAndFreeTheirSlot() {
+		KitchenScheduler scheduler = scheduler(1);
+		LocalDateTime now = LocalDateTime.now();
+		scheduler.onOrderCreated(created(1L, 10, now));
+		scheduler.onOrderCreated(created(2L, 10, now));
+
+		scheduler.onOrderStatusChanged(changed(1L, OrderStatus.CANCELLED, now));
+
+		assertThat(scheduler.estimatedDeliveryTime(1L)).isEmpty();
+		assertEta(scheduler, 2L, now.plusMinutes(10 + DELIVERY_MINUTES));
+	}
+
+	@Test
+	void ordersPlacedOnAnotherInstanceAreTrackedFromTheirFirstStatusChange() {
+		KitchenScheduler scheduler = scheduler(1);
+		LocalDateTime now = LocalDateTime.now();
+
+		scheduler.onOrderStatusChanged(changed(1L, OrderStatus.CONFIRMED, now));
+
+		// default prep time, since the items are only known where the order was placed
+		assertEta(scheduler, 1L, now.plusMinutes(15 + DELIVERY_MINUTES));
+	}
+
+	@Test
+	void concurrentOrdersForOneKitchenAreAllScheduledBackToBack() throws Exception {
+		KitchenScheduler scheduler = scheduler(1);
+		LocalDateTime now = LocalDateTime.now();
+		int threads = 8;
+		int perThread = 50;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			long first = t * (long) perThread + 1;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (long orderId = first; orderId < first + perThread; orderId++) {
+					scheduler.onOrderCreated(created(orderId, 1, now));
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+
+		// one slot and one minute each: every order gets its own minute, none lost or doubled up
+		Set<Long> minutes = new HashSet<>();
+		for (long orderId = 1; orderId <= threads * perThread; orderId++) {
+			LocalDateTime eta = scheduler.estimatedDeliveryTime(orderId).orElseThrow();
+			minutes.add(Math.round(ChronoUnit.SECONDS.between(now, eta) / 60.0) - DELIVERY_MINUTES);
+		}
+		assertThat(minutes).hasSize(threads * perThread);
+		assertThat(minutes).allMatch(minute -> minute >= 1 && minute <= threads * perThread);
+		assertThat(scheduler.status(RESTAURANT_ID, DELIVERY_MINUTES).getQueuedOrders()).isEqualTo(threads * perThread);
+	}
+
+	private static KitchenScheduler scheduler(int slots) {
+		return new KitchenScheduler(mock(OrderRepository.class), new SimpleMeterRegistry(), slots, 15);
+	}
+
+	private static OrderCreatedEvent created(Long orderId, int prepMinutes, LocalDateTime placedAt) {
+		return new OrderCreatedEvent(orderId, 1L, RESTAURANT_ID, prepMinutes, DELIVERY_MINUTES, placedAt);
+	}
+
+	private static OrderStatusChangedEvent changed(Long orderId, OrderStatus status, LocalDateTime changedAt) {
+		return new OrderStatusChangedEvent(orderId, 1L, RESTAURANT_ID, null, status, null, changedAt);
+	}
+
+	private static void assertEta(KitchenScheduler scheduler, Long orderId, LocalDateTime expected) {
+		assertThat(scheduler.estimatedDeliveryTime(orderId)).hasValueSatisfying(
+				eta -> assertThat(eta).isCloseTo(expected, within(5, ChronoUnit.SECONDS)));
+	}
+}
@@ -0,0 +1,148 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.LiveOrderStatsDto;
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.event.OrderCreatedEvent;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import com.fooddelivery.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiveOrderCountersTest {
+
+	private static final long RESTAURANT_ID = 3L;
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LiveOrderCounters counters = new LiveOrderCounters(orderRepository, meterRegistry);
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void eventsMoveOrdersBetweenStatuses() {
+		counters.onOrderCreated(created(1L));
+		counters.onOrderCreated(created(2L));
+		counters.onOrderStatusChanged(changed(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+		counters.onOrderStatusChanged(changed(2L, OrderStatus.PENDING, OrderStatus.CANCELLED));
+
+		LiveOrderStatsDto stats = counters.stats(RESTAURANT_ID);
+		assertThat(stats.getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 0L)
+				.containsEntry(OrderStatus.CONFIRMED, 1L)
+				.containsEntry(OrderStatus.CANCELLED, 1L);
+		assertThat(stats.getOpenOrders()).isEqualTo(1);
+		assertThat(stats.getTotalOrders()).isEqualTo(2);
+	}
+
+	@Test
+	void reconcileCorrectsDriftToTheDatabaseCount() {
+		counters.onOrderCreated(created(1L));
+		when(orderRepository.countByRestaurantAndStatus()).thenReturn(List.of(
+				row(RESTAURANT_ID, OrderStatus.PENDING, 4), row(RESTAURANT_ID, OrderStatus.DELIVERED, 9)));
+
+		counters.reconcile();
+
+		LiveOrderStatsDto stats = counters.stats(RESTAURANT_ID);
+		assertThat(stats.getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 4L)
+				.containsEntry(OrderStatus.DELIVERED, 9L);
+		assertThat(stats.getReconciledAt()).isNotNull();
+		assertThat(meterRegistry.get("orders.live.counters.corrections").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void eventThatLandsWhileTheQueryRunsIsNotOverwritten() {
+		counters.onOrderCreated(created(1L));
+		when(orderRepository.countByRestaurantAndStatus()).thenAnswer(invocation -> {
+			// committed after the query read its rows, so the count below does not include it
+			counters.onOrderCreated(created(2L));
+			return List.of(row(RESTAURANT_ID, OrderStatus.PENDING, 1), row(RESTAURANT_ID, OrderStatus.DELIVERED, 5));
+		}).thenReturn(List.of(row(RESTAURANT_ID, OrderStatus.PENDING, 2), row(RESTAURANT_ID, OrderStatus.DELIVERED, 5)));
+
+		counters.reconcile();
+
+		// the untouched counter is corrected, the one that moved is left for the next round
+		assertThat(counters.stats(RESTAURANT_ID).getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 2L)
+				.containsEntry(OrderStatus.DELIVERED, 5L);
+
+		counters.reconcile();
+
+		assertThat(counters.stats(RESTAURANT_ID).getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 2L);
+		assertThat(meterRegistry.get("orders.live.counters.corrections").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentEventsAreAllCounted() throws Exception {
+		int threads = 8;
+		int perThread = 1_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			long first = t * (long) perThread;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (long orderId = first; orderId < first + perThread; orderId++) {
+					counters.onOrderCreated(created(orderId));
+					counters.onOrderStatusChanged(changed(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+					if (orderId % 2 == 0) {
+						counters.onOrderStatusChanged(changed(orderId, OrderStatus.CONFIRMED, OrderStatus.DELIVERED));
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+
+		LiveOrderStatsDto stats = counters.stats(RESTAURANT_ID);
+		assertThat(stats.getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 0L)
+				.containsEntry(OrderStatus.CONFIRMED, threads * perThread / 2L)
+				.containsEntry(OrderStatus.DELIVERED, threads * perThread / 2L);
+		assertThat(stats.getTotalOrders()).isEqualTo(threads * perThread);
+	}
+
+	private static OrderCreatedEvent created(Long orderId) {
+		return new OrderCreatedEvent(orderId, 1L, RESTAURANT_ID, 10, 30, LocalDateTime.now());
+	}
+
+	private static OrderStatusChangedEvent changed(Long orderId, OrderStatus from, OrderStatus to) {
+		LocalDateTime now = LocalDateTime.now();
+		return new OrderStatusChangedEvent(orderId, 1L, RESTAURANT_ID, from, to, now, now);
+	}
+
+	private static OrderRepository.StatusCountRow row(Long restaurantId, OrderStatus status, long count) {
+		return new OrderRepository.StatusCountRow() {
+			@Override
+			public Long getRestaurantId() {
+				return restaurantId;
+			}
+
+			@Override
+			public OrderStatus getStatus() {
+				return status;
+			}
+
+			@Override
+			public long getOrderCount() {
+				return count;
+			}
+		};
+	}
+}
@@ -0,0 +1,222 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.entity.Order.OrderStatus;
+import com.fooddelivery.entity.Order.PaymentStatus;
+import com.fooddelivery.entity.OrderSummary;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.NotFoundException;
+import com.fooddelivery.service.OrderExportService.Format;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({OrderExportService.class, OrderExportServiceTest.FetchSizeRecorder.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OrderExportServiceTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+	// fetch sizes the export asked the driver for
+	private static final List<Integer> FETCH_SIZES = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	private OrderExportService exportService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Long restaurantId;
+
+	@BeforeEach
+	void setUp() {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setName("Export Kitchen");
+		restaurant.setDescription("Test");
+		restaurant.setAddress("5 Test Street");
+		restaurant.setPhone("9000000005");
+		restaurant.setEmail("export@example.com");
+		restaurant.setCuisine("Thai");
+		restaurantId = entityManager.persistAndFlush(restaurant).getId();
+		FETCH_SIZES.clear();
+	}
+
+	@Test
+	void ndjsonHasOneLinePerMatchingOrderOldestFirst() throws Exception {
+		summary(1L, restaurantId, START.plusMinutes(2), OrderStatus.DELIVERED, "Ann Lee");
+		summary(2L, restaurantId, START, OrderStatus.DELIVERED, "Bo Chen");
+		summary(3L, restaurantId, START.plusMinutes(1), OrderStatus.CANCELLED, "Cy Diaz");
+		summary(4L, restaurantId, START.plusDays(1), OrderStatus.DELIVERED, "Di Ede");
+		summary(5L, restaurantId + 1, START, OrderStatus.DELIVERED, "Ed Fox");
+		entityManager.flush();
+		entityManager.clear();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = exportService.exportRestaurantOrders(restaurantId, START, START.plusHours(1),
+				Set.of(OrderStatus.DELIVERED), Format.NDJSON, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(count).isEqualTo(2);
+		assertThat(lines).hasSize(2);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertThat(first.get("id").asLong()).isEqualTo(2L);
+		assertThat(first.get("userName").asText()).isEqualTo("Bo Chen");
+		assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(1L);
+	}
+
+	@Test
+	void csvQuotesSeparatorsAndNeutralizesFormulas() throws Exception {
+		summary(1L, restaurantId, START, OrderStatus.DELIVERED, "Lee, Ann \"Annie\"");
+		summary(2L, restaurantId, START.plusMinutes(1), OrderStatus.DELIVERED, "=HYPERLINK(\"x\")");
+		entityManager.flush();
+		entityManager.clear();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		exportService.exportRestaurantOrders(restaurantId, null, null, null, Format.CSV, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(3);
+		assertThat(lines[0]).startsWith("id,orderNumber,userId,userName,");
+		assertThat(lines[1]).startsWith("1,ORD-1,7,\"Lee, Ann \"\"Annie\"\"\",");
+		assertThat(lines[1]).contains(",12.50,DELIVERED,COMPLETED,2026-05-01T12:00,");
+		assertThat(lines[2]).startsWith("2,ORD-2,7,\"'=HYPERLINK(\"\"x\"\")\",");
+	}
+
+	@Test
+	void largeExportIsWrittenInChunksWithABoundedPersistenceContext() throws Exception {
+		int orders = 2_000;
+		for (long id = 1; id <= orders; id++) {
+			summary(id, restaurantId, START.plusSeconds(id), OrderStatus.DELIVERED, "Customer " + id);
+			if (id % 500 == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		Session session = entityManager.getEntityManager().unwrap(Session.class);
+		// samples how many rows the session holds each time a buffer full of output reaches the response
+		List<Integer> managed = new ArrayList<>();
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) {
+				managed.add(session.getStatistics().getEntityCount());
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				managed.add(session.getStatistics().getEntityCount());
+			}
+		};
+
+		long count = exportService.exportRestaurantOrders(restaurantId, null, null, null, Format.NDJSON, out);
+
+		assertThat(count).isEqualTo(orders);
+		// the MySQL driver's row-by-row streaming mode
+		assertThat(FETCH_SIZES).containsExactly(Integer.MIN_VALUE);
+		// output leaves while rows are still being read, not once at the end
+		assertThat(managed).hasSizeGreaterThan(2);
+		assertThat(managed).allMatch(entities -> entities <= 500, "at most one clear interval of rows");
+	}
+
+	@Test
+	void exportChecksRejectUnknownRestaurantAndEmptyRange() {
+		assertThatThrownBy(() -> exportService.checkExport(restaurantId + 1, null, null))
+				.isInstanceOf(NotFoundException.class);
+		assertThatThrownBy(() -> exportService.checkExport(restaurantId, START, START))
+				.isInstanceOf(BadRequestException.class);
+		exportService.checkExport(restaurantId, START, null);
+	}
+
+	private void summary(Long id, Long restaurantId, LocalDateTime createdAt, OrderStatus status, String userName) {
+		entityManager.persist(new OrderSummary(id, "ORD-" + id, 7L, userName, restaurantId, "Export Kitchen", 2, 12.5,
+				status, PaymentStatus.COMPLETED, createdAt, null, null, createdAt, createdAt, false));
+	}
+
+	/**
+	 * H2 refuses the negative fetch size that switches the MySQL driver to streaming, so statements
+	 * record what they were asked for and hand H2 the default instead.
+	 */
+	@TestConfiguration
+	static class FetchSizeRecorder {
+
+		@Bean
+		static BeanPostProcessor fetchSizeRecordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource ? new DelegatingDataSource(dataSource) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							return recording(super.getConnection());
+						}
+					} : bean;
+				}
+			};
+		}
+
+		private static Connection recording(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+						Object result = invoke(connection, method, args);
+						return result instanceof PreparedStatement statement ? recording(statement) : result;
+					});
+		}
+
+		private static PreparedStatement recording(PreparedStatement statement) {
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+						if (method.getName().equals("setFetchSize")) {
+							FETCH_SIZES.add((Integer) args[0]);
+							return null;
+						}
+						return invoke(statement, method, args);
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
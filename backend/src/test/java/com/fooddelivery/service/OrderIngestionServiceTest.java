@@ -0,0 +1,171 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.MenuItemDto;
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.dto.OrderRequest;
+import com.fooddelivery.dto.OrderSubmissionDto;
+import com.fooddelivery.dto.OrderSubmissionDto.SubmissionStatus;
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.exception.BadRequestException;
+import com.fooddelivery.exception.NotFoundException;
+import com.fooddelivery.exception.ServiceUnavailableException;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.routing.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIngestionServiceTest {
+
+	private static final long USER_ID = 5L;
+	private static final long RESTAURANT_ID = 3L;
+	private static final long SOLD_OUT = 99L;
+
+	private final OrderService orderService = mock(OrderService.class);
+	private final RestaurantService restaurantService = mock(RestaurantService.class);
+	private final MenuItemService menuItemService = mock(MenuItemService.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicLong ids = new AtomicLong();
+	private OrderIngestionService ingestion;
+
+	@BeforeEach
+	void setUp() {
+		RestaurantDto restaurant = new RestaurantDto();
+		restaurant.setId(RESTAURANT_ID);
+		when(restaurantService.getRestaurantById(RESTAURANT_ID)).thenReturn(restaurant);
+		when(menuItemService.findAvailableMenuItem(any(), any())).thenReturn(Optional.of(new MenuItemDto()));
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		when(orderService.createOrder(any(), anyLong(), anyString())).thenAnswer(invocation -> {
+			OrderRequest request = invocation.getArgument(0);
+			// stands in for a check that only the database can make, such as stock running out
+			if (request.getItems().get(0).getMenuItemId() == SOLD_OUT) {
+				throw new BadRequestException("Menu item " + SOLD_OUT + " is sold out");
+			}
+			OrderDto order = new OrderDto();
+			order.setId(ids.incrementAndGet());
+			return order;
+		});
+	}
+
+	@AfterEach
+	void shutDown() throws InterruptedException {
+		ingestion.stop();
+	}
+
+	@Test
+	void queuedOrdersAreStoredInOneGroupedTransaction() throws Exception {
+		ingestion = ingestion(100, 10);
+		List<OrderSubmissionDto> accepted = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			accepted.add(ingestion.submit(request(1L), USER_ID));
+		}
+		assertThat(accepted).allMatch(s -> s.getStatus() == SubmissionStatus.QUEUED);
+
+		ingestion.start();
+
+		for (OrderSubmissionDto submission : accepted) {
+			OrderSubmissionDto stored = awaitStored(submission.getOrderNumber());
+			assertThat(stored.getStatus()).isEqualTo(SubmissionStatus.CREATED);
+			assertThat(stored.getOrderId()).isNotNull();
+		}
+		verify(transactionTemplate, times(1)).execute(any());
+		assertThat(meterRegistry.get("orders.ingestion.commit.batch.size").summary().max()).isEqualTo(5);
+	}
+
+	@Test
+	void failedGroupIsRetriedOrderByOrder() throws Exception {
+		ingestion = ingestion(100, 10);
+		String first = ingestion.submit(request(1L), USER_ID).getOrderNumber();
+		String soldOut = ingestion.submit(request(SOLD_OUT), USER_ID).getOrderNumber();
+		String last = ingestion.submit(request(2L), USER_ID).getOrderNumber();
+
+		ingestion.start();
+
+		assertThat(awaitStored(first).getStatus()).isEqualTo(SubmissionStatus.CREATED);
+		assertThat(awaitStored(last).getStatus()).isEqualTo(SubmissionStatus.CREATED);
+		OrderSubmissionDto failed = awaitStored(soldOut);
+		assertThat(failed.getStatus()).isEqualTo(SubmissionStatus.FAILED);
+		assertThat(failed.getMessage()).isEqualTo("Menu item " + SOLD_OUT + " is sold out");
+		// the group, then each of its three orders on its own
+		verify(transactionTemplate, times(4)).execute(any());
+		assertThat(meterRegistry.get("orders.ingestion.failed").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void fullQueueRejectsTheSubmission() {
+		ingestion = ingestion(2, 10);
+		ingestion.submit(request(1L), USER_ID);
+		ingestion.submit(request(1L), USER_ID);
+
+		assertThatThrownBy(() -> ingestion.submit(request(1L), USER_ID)).isInstanceOf(ServiceUnavailableException.class);
+		assertThat(meterRegistry.get("orders.ingestion.rejected").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("orders.ingestion.queue.depth").gauge().value()).isEqualTo(2);
+	}
+
+	@Test
+	void submissionIsOnlyVisibleToItsOwner() {
+		ingestion = ingestion(100, 10);
+		String orderNumber = ingestion.submit(request(1L), USER_ID).getOrderNumber();
+
+		assertThat(ingestion.getSubmission(orderNumber, USER_ID).getStatus()).isEqualTo(SubmissionStatus.QUEUED);
+		assertThatThrownBy(() -> ingestion.getSubmission(orderNumber, USER_ID + 1)).isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void stopStoresEverythingAlreadyQueued() throws Exception {
+		ingestion = ingestion(1_000, 7);
+		List<String> orderNumbers = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			orderNumbers.add(ingestion.submit(request(1L), USER_ID).getOrderNumber());
+		}
+
+		ingestion.start();
+		ingestion.stop();
+
+		assertThat(orderNumbers).allSatisfy(orderNumber -> assertThat(
+				ingestion.getSubmission(orderNumber, USER_ID).getStatus()).isEqualTo(SubmissionStatus.CREATED));
+		assertThat(meterRegistry.get("orders.ingestion.queue.depth").gauge().value()).isZero();
+		assertThat(meterRegistry.get("orders.ingestion.commit.batch.size").summary().max()).isEqualTo(7);
+	}
+
+	private OrderIngestionService ingestion(int queueCapacity, int maxBatch) {
+		return new OrderIngestionService(orderService, restaurantService, menuItemService, new OrderNumberGenerator(1),
+				mock(OrderRepository.class), transactionTemplate, mock(ReadYourWritesTracker.class), meterRegistry,
+				"async", queueCapacity, 1, maxBatch, 600_000);
+	}
+
+	private OrderSubmissionDto awaitStored(String orderNumber) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		OrderSubmissionDto submission;
+		while ((submission = ingestion.getSubmission(orderNumber, USER_ID)).getStatus() == SubmissionStatus.QUEUED) {
+			assertThat(System.currentTimeMillis()).as("order %s still queued", orderNumber).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+		return submission;
+	}
+
+	private static OrderRequest request(Long menuItemId) {
+		return new OrderRequest(RESTAURANT_ID, List.of(new OrderRequest.OrderItemRequest(menuItemId, 1, null)),
+				"1 Test Street, Test City", "9000000001", null, "CASH_ON_DELIVERY");
+	}
+}
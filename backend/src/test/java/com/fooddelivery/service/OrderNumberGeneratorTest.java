@@ -0,0 +1,114 @@
+package com.fooddelivery.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderNumberGeneratorTest {
+
+	private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+	private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+	@Test
+	void concurrentCallersNeverGetTheSameNumber() throws Exception {
+		int threads = 16;
+		int callsPerThread = 20_000;
+		OrderNumberGenerator generator = new OrderNumberGenerator(7);
+		Set<String> numbers = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < callsPerThread; i++) {
+						numbers.add(generator.next());
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(numbers).hasSize(threads * callsPerThread);
+	}
+
+	@Test
+	void sequenceRollsOverIntoTheNextMillisecond() {
+		long frozen = EPOCH + 1_000_000;
+		OrderNumberGenerator generator = new OrderNumberGenerator(3, () -> frozen);
+
+		String previous = null;
+		long lastMillis = 0;
+		for (int i = 0; i < 4096 * 2 + 1; i++) {
+			String number = generator.next();
+			if (previous != null) {
+				assertThat(number).isGreaterThan(previous);
+			}
+			previous = number;
+			lastMillis = millisOf(number);
+		}
+		// two full sequences used up the frozen millisecond and the next one
+		assertThat(lastMillis).isEqualTo(frozen - EPOCH + 2);
+		assertThat(nodeOf(previous)).isEqualTo(3);
+		assertThat(sequenceOf(previous)).isZero();
+	}
+
+	@Test
+	void clockSteppingBackKeepsNumbersIncreasing() {
+		long[] now = {EPOCH + 5_000};
+		OrderNumberGenerator generator = new OrderNumberGenerator(0, () -> now[0]);
+
+		String before = generator.next();
+		now[0] -= 1_000;
+		String after = generator.next();
+
+		assertThat(after).isGreaterThan(before);
+		assertThat(millisOf(after)).isEqualTo(millisOf(before));
+	}
+
+	@Test
+	void rejectsNodeIdOutOfRange() {
+		assertThatThrownBy(() -> new OrderNumberGenerator(1024))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new OrderNumberGenerator(-1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static long decode(String number) {
+		assertThat(number).startsWith("ORD").hasSize(16);
+		long id = 0;
+		for (char c : number.substring(3).toCharArray()) {
+			id = (id << 5) | ALPHABET.indexOf(c);
+		}
+		return id;
+	}
+
+	private static long millisOf(String number) {
+		return decode(number) >>> 22;
+	}
+
+	private static long nodeOf(String number) {
+		return (decode(number) >>> 12) & 1023;
+	}
+
+	private static long sequenceOf(String number) {
+		return decode(number) & 4095;
+	}
+}
@@ -0,0 +1,158 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderRollup;
+import com.fooddelivery.entity.OrderRollup.Granularity;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.repository.JdbcOrderRollupWriter;
+import com.fooddelivery.repository.OrderRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deltas recorded inside a transaction reach order_rollups through the beforeCommit upsert, so the
+ * tests drive their own transactions instead of running inside the usual rolled-back test transaction.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({OrderRollupService.class, JdbcOrderRollupWriter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderRollupServiceTest {
+
+	private static final LocalDateTime ORDER_TIME = LocalDateTime.of(2026, 3, 14, 18, 25);
+
+	@Autowired
+	private OrderRollupService rollupService;
+
+	@Autowired
+	private OrderRollupRepository rollupRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		rollupRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void deltasOfATransactionAreMergedAndWrittenWhenItCommits() {
+		transactionTemplate.executeWithoutResult(status -> {
+			rollupService.recordOrderPlaced(order(1L, ORDER_TIME, 100));
+			rollupService.recordOrderPlaced(order(1L, ORDER_TIME.plusMinutes(20), 50));
+			rollupService.recordCancelled(1L, ORDER_TIME, 100);
+			// nothing is written before the commit
+			assertThat(rollupRepository.count()).isZero();
+		});
+
+		OrderRollup hour = bucket(Granularity.HOUR, 1L, ORDER_TIME.withMinute(0));
+		assertThat(hour.getOrderCount()).isEqualTo(2);
+		assertThat(hour.getGross()).isEqualTo(150);
+		assertThat(hour.getCancelledOrders()).isEqualTo(1);
+		assertThat(hour.getCancelledGross()).isEqualTo(100);
+		OrderRollup day = bucket(Granularity.DAY, 1L, ORDER_TIME.toLocalDate().atStartOfDay());
+		assertThat(day.getOrderCount()).isEqualTo(2);
+		assertThat(rollupRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void laterTransactionsAddToTheExistingBuckets() {
+		transactionTemplate.executeWithoutResult(status -> rollupService.recordOrderPlaced(order(1L, ORDER_TIME, 100)));
+		transactionTemplate.executeWithoutResult(status -> rollupService.recordPaymentStatusChange(1L, ORDER_TIME,
+				Order.PaymentStatus.PENDING, Order.PaymentStatus.COMPLETED));
+		transactionTemplate.executeWithoutResult(status -> rollupService.recordPaymentStatusChange(1L, ORDER_TIME,
+				Order.PaymentStatus.COMPLETED, Order.PaymentStatus.REFUNDED));
+
+		OrderRollup hour = bucket(Granularity.HOUR, 1L, ORDER_TIME.withMinute(0));
+		assertThat(hour.getOrderCount()).isEqualTo(1);
+		assertThat(hour.getPaymentsCompleted()).isZero();
+		assertThat(hour.getPaymentsRefunded()).isEqualTo(1);
+	}
+
+	@Test
+	void rolledBackTransactionLeavesNoTrace() {
+		transactionTemplate.executeWithoutResult(status -> {
+			rollupService.recordOrderPlaced(order(1L, ORDER_TIME, 100));
+			status.setRollbackOnly();
+		});
+
+		assertThat(rollupRepository.count()).isZero();
+	}
+
+	@Test
+	void deltaOutsideATransactionIsWrittenAtOnce() {
+		rollupService.recordCancelled(1L, ORDER_TIME, 40);
+
+		assertThat(bucket(Granularity.HOUR, 1L, ORDER_TIME.withMinute(0)).getCancelledOrders()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentTransactionsOnSharedBucketsLoseNoDelta() throws Exception {
+		int threads = 8;
+		int perThread = 25;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				boolean reversed = t % 2 == 0;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < perThread; i++) {
+						// recorded in opposite orders; the sorted upsert locks them in one order anyway
+						transactionTemplate.executeWithoutResult(status -> {
+							rollupService.recordOrderPlaced(order(reversed ? 2L : 1L, ORDER_TIME, 10));
+							rollupService.recordOrderPlaced(order(reversed ? 1L : 2L, ORDER_TIME, 10));
+						});
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (Long restaurantId : List.of(1L, 2L)) {
+			OrderRollup day = bucket(Granularity.DAY, restaurantId, ORDER_TIME.toLocalDate().atStartOfDay());
+			assertThat(day.getOrderCount()).isEqualTo(threads * perThread);
+			assertThat(day.getGross()).isEqualTo(threads * perThread * 10.0);
+		}
+	}
+
+	private OrderRollup bucket(Granularity granularity, Long restaurantId, LocalDateTime start) {
+		return rollupRepository.findById(new OrderRollup.Key(granularity, restaurantId, start)).orElseThrow();
+	}
+
+	private static Order order(Long restaurantId, LocalDateTime orderTime, double total) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(restaurantId);
+		Order order = new Order();
+		order.setRestaurant(restaurant);
+		order.setOrderTime(orderTime);
+		order.setTotal(total);
+		return order;
+	}
+}
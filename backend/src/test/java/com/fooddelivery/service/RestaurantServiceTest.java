@@ -0,0 +1,117 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.dto.RestaurantQuery;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.repository.OrderSummaryRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.search.SearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestaurantServiceTest {
+
+	private static final int RESTAURANTS = 300;
+
+	private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+	private final SearchIndex searchIndex = mock(SearchIndex.class);
+	private RestaurantService restaurantService;
+
+	@BeforeEach
+	void setUp() {
+		// every restaurant matches the text; odd ids are Italian, every tenth is closed
+		List<RestaurantDto> restaurants = new ArrayList<>();
+		for (long id = 1; id <= RESTAURANTS; id++) {
+			RestaurantDto dto = new RestaurantDto();
+			dto.setId(id);
+			dto.setName("Pizza " + id);
+			dto.setCuisine(id % 2 == 1 ? "Italian" : "American");
+			dto.setActive(true);
+			dto.setOpen(id % 10 != 0);
+			dto.setRating(id % 5);
+			dto.setDeliveryTime(20 + (int) (id % 40));
+			dto.setDeliveryFee(id % 7);
+			restaurants.add(dto);
+		}
+		when(restaurantRepository.findActiveDtos()).thenReturn(restaurants);
+		when(searchIndex.searchRestaurants(eq("pizza"), anyInt(), any())).thenAnswer(invocation -> {
+			int limit = invocation.getArgument(1);
+			LongPredicate accept = invocation.getArgument(2);
+			return Optional.of(LongStream.rangeClosed(1, RESTAURANTS).filter(accept).limit(limit).boxed().toList());
+		});
+		when(restaurantRepository.findAll(any(Specification.class), any(Pageable.class)))
+				.thenReturn(new PageImpl<Restaurant>(List.of()));
+		restaurantService = new RestaurantService(restaurantRepository, mock(OrderSummaryRepository.class),
+				new RestaurantCatalog(new SimpleMeterRegistry()), searchIndex, mock(ApplicationEventPublisher.class),
+				mock(KitchenScheduler.class), mock(DeliveryTimeStats.class), mock(LiveOrderCounters.class));
+	}
+
+	@Test
+	void nonRelevanceSortSearchesWithoutTheCap() {
+		RestaurantQuery query = new RestaurantQuery();
+		query.setQ("pizza");
+		query.setOrderBy(RestaurantQuery.SortOrder.DELIVERY_FEE);
+
+		restaurantService.queryRestaurants(query, 0, 20);
+
+		ArgumentCaptor<Integer> limit = ArgumentCaptor.forClass(Integer.class);
+		verify(searchIndex).searchRestaurants(eq("pizza"), limit.capture(), any());
+		assertThat(limit.getValue()).isEqualTo(Integer.MAX_VALUE);
+	}
+
+	@Test
+	void filtersRunInsideTheIndexSearch() {
+		RestaurantQuery query = new RestaurantQuery();
+		query.setQ("pizza");
+		query.setCuisine(" italian ");
+		query.setMinRating(2.0);
+		query.setMaxDeliveryTime(50);
+		query.setMaxDeliveryFee(4.0);
+
+		restaurantService.queryRestaurants(query, 0, 20);
+
+		ArgumentCaptor<Integer> limit = ArgumentCaptor.forClass(Integer.class);
+		ArgumentCaptor<LongPredicate> accept = ArgumentCaptor.forClass(LongPredicate.class);
+		verify(searchIndex).searchRestaurants(eq("pizza"), limit.capture(), accept.capture());
+		// relevance keeps the cap, but only over restaurants that pass every filter
+		assertThat(limit.getValue()).isEqualTo(100);
+		List<Long> accepted = LongStream.rangeClosed(1, RESTAURANTS).filter(accept.getValue()).boxed().toList();
+		assertThat(accepted).isNotEmpty().allSatisfy(id -> {
+			assertThat(id % 2).isEqualTo(1);
+			assertThat(id % 10).isNotZero();
+			assertThat(id % 5).isGreaterThanOrEqualTo(2);
+			assertThat(20 + id % 40).isLessThanOrEqualTo(50);
+			assertThat(id % 7).isLessThanOrEqualTo(4);
+		});
+		assertThat(accepted).hasSize((int) LongStream.rangeClosed(1, RESTAURANTS)
+				.filter(id -> id % 2 == 1 && id % 10 != 0 && id % 5 >= 2 && 20 + id % 40 <= 50 && id % 7 <= 4)
+				.count());
+	}
+
+	@Test
+	void plainSearchSkipsClosedRestaurantsBeforeTheLimit() {
+		List<RestaurantDto> results = restaurantService.searchRestaurants("pizza");
+
+		assertThat(results).hasSize(100).allMatch(RestaurantDto::isOpen);
+	}
+}
@@ -0,0 +1,190 @@
+package com.fooddelivery.tracking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fooddelivery.dto.OrderTrackingEvent;
+import com.fooddelivery.dto.OrderTrackingEvent.EventType;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.event.OrderStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class OrderTrackingHubTest {
+
+	private static final long USER_ID = 7L;
+	private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private OrderTrackingHub hub;
+	private MockMvc mockMvc;
+
+	@RestController
+	static class Streams {
+		private final OrderTrackingHub hub;
+
+		Streams(OrderTrackingHub hub) {
+			this.hub = hub;
+		}
+
+		@GetMapping("/users/{id}/events")
+		SseEmitter userEvents(@PathVariable Long id,
+				@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+			return hub.subscribeToUser(id, lastEventId);
+		}
+	}
+
+	@AfterEach
+	void shutDown() {
+		hub.shutdown();
+	}
+
+	@Test
+	void subscribersReceiveEventsPublishedForTheirTopic() throws Exception {
+		start(32, 64, 600_000);
+		MockHttpServletResponse stream = connect(null);
+
+		publish(1L, Order.OrderStatus.CONFIRMED);
+		publish(1L, Order.OrderStatus.PREPARING);
+
+		awaitContent(stream, body -> body.contains("PREPARING"));
+		assertThat(eventIds(stream)).hasSize(2).isSorted();
+		assertThat(stream.getContentAsString()).containsSubsequence("CONFIRMED", "PREPARING");
+	}
+
+	@Test
+	void reconnectWithLastEventIdReplaysOnlyWhatWasMissed() throws Exception {
+		start(32, 64, 600_000);
+		// keeps the topic and its replay buffer alive while the second client is away
+		MockHttpServletResponse first = connect(null);
+		publish(1L, Order.OrderStatus.CONFIRMED);
+		publish(1L, Order.OrderStatus.PREPARING);
+		publish(2L, Order.OrderStatus.CONFIRMED);
+		awaitContent(first, body -> eventIds(first).size() == 3);
+		List<Long> ids = eventIds(first);
+
+		MockHttpServletResponse resumed = connect(ids.get(0));
+
+		awaitContent(resumed, body -> eventIds(resumed).size() == 2);
+		assertThat(eventIds(resumed)).containsExactly(ids.get(1), ids.get(2));
+		assertThat(resumed.getContentAsString()).doesNotContain(EventType.RESYNC.name());
+	}
+
+	@Test
+	void reconnectBehindTheReplayBufferGetsResync() throws Exception {
+		start(2, 64, 600_000);
+		MockHttpServletResponse first = connect(null);
+		for (long orderId = 1; orderId <= 4; orderId++) {
+			publish(orderId, Order.OrderStatus.CONFIRMED);
+		}
+		awaitContent(first, body -> eventIds(first).size() == 4);
+
+		MockHttpServletResponse resumed = connect(eventIds(first).get(0));
+
+		awaitContent(resumed, body -> body.contains(EventType.RESYNC.name()));
+		// only the resync; the client reloads its state instead of receiving a partial history
+		assertThat(eventIds(resumed)).hasSize(1);
+	}
+
+	@Test
+	void subscriberThatFallsBehindIsDroppedAndCanResumeFromTheBuffer() throws Exception {
+		start(32, 4, 600_000);
+		SseEmitter slow = hub.subscribeToUser(USER_ID, null);
+		long before = hub.openOrderTopic(99L);
+
+		// send() is synchronized on the emitter, so holding it stalls the subscriber's drain thread
+		synchronized (slow) {
+			for (long orderId = 1; orderId <= 10; orderId++) {
+				publish(orderId, Order.OrderStatus.CONFIRMED);
+			}
+		}
+
+		assertThat(meterRegistry.get("tracking.sse.dropped").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("tracking.sse.subscribers").gauge().value()).isZero();
+		// the topic kept its buffer, so a reconnect replays what the client missed instead of resyncing
+		MockHttpServletResponse resumed = connect(before + 7);
+		awaitContent(resumed, body -> eventIds(resumed).size() == 3);
+		assertThat(eventIds(resumed)).containsExactly(before + 8, before + 9, before + 10);
+	}
+
+	@Test
+	void heartbeatSweepsIdleTopicsWithoutSubscribers() throws Exception {
+		start(32, 1, 0);
+		SseEmitter slow = hub.subscribeToUser(USER_ID, null);
+		long before = hub.openOrderTopic(99L);
+		// one frame stuck in send(), one in the queue and the third does not fit
+		synchronized (slow) {
+			for (long orderId = 1; orderId <= 3; orderId++) {
+				publish(orderId, Order.OrderStatus.CONFIRMED);
+			}
+		}
+		assertThat(meterRegistry.get("tracking.sse.subscribers").gauge().value()).isZero();
+		assertThat(meterRegistry.get("tracking.sse.topics").gauge().value()).isEqualTo(2);
+		Thread.sleep(5);
+
+		hub.heartbeat();
+
+		assertThat(meterRegistry.get("tracking.sse.topics").gauge().value()).isZero();
+		// with the buffer gone a resuming client cannot be caught up
+		MockHttpServletResponse resumed = connect(before);
+		awaitContent(resumed, body -> body.contains(EventType.RESYNC.name()));
+	}
+
+	private void start(int replaySize, int queueCapacity, long topicIdleMs) {
+		hub = new OrderTrackingHub(objectMapper, meterRegistry, 60_000, replaySize, queueCapacity, 100,
+				topicIdleMs, 60_000);
+		mockMvc = MockMvcBuilders.standaloneSetup(new Streams(hub)).build();
+	}
+
+	private MockHttpServletResponse connect(Long lastEventId) throws Exception {
+		var request = get("/users/{id}/events", USER_ID);
+		if (lastEventId != null) {
+			request.header("Last-Event-ID", lastEventId);
+		}
+		MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		return response;
+	}
+
+	private void publish(Long orderId, Order.OrderStatus status) {
+		LocalDateTime now = LocalDateTime.now();
+		hub.onOrderStatusChanged(new OrderStatusChangedEvent(orderId, USER_ID, 3L, null, status, now, now));
+	}
+
+	private static void awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.test(response.getContentAsString())) {
+			assertThat(System.currentTimeMillis()).as("stream content: %s", response.getContentAsString())
+					.isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private static List<Long> eventIds(MockHttpServletResponse response) {
+		try {
+			Matcher matcher = EVENT_ID.matcher(response.getContentAsString());
+			return matcher.results().map(result -> Long.parseLong(result.group(1))).toList();
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
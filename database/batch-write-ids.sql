@@ -0,0 +1,15 @@
+-- Seeds the pooled id generator used by the batch-write profile.
+-- Run once before the first start with that profile; safe to re-run (it only moves ids forward).
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'order_items', COALESCE(MAX(id), 0) + 1 FROM order_items
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'payments', COALESCE(MAX(id), 0) + 1 FROM payments
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
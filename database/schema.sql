@@ -47,6 +47,8 @@ CREATE TABLE restaurants (
     delivery_time INT DEFAULT 30,
     delivery_fee DECIMAL(10,2) DEFAULT 0.0,
     minimum_order DECIMAL(10,2) DEFAULT 0.0,
+    latitude DOUBLE,
+    longitude DOUBLE,
     owner_id BIGINT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -96,6 +98,7 @@ CREATE TABLE orders (
     delivery_person_phone VARCHAR(15),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (restaurant_id) REFERENCES restaurants(id)
 );
@@ -115,6 +118,44 @@ CREATE TABLE order_items (
     FOREIGN KEY (menu_item_id) REFERENCES menu_items(id)
 );
 
+-- Order history read model, one row per order, written in the same transaction as the order
+CREATE TABLE order_summaries (
+    order_id BIGINT PRIMARY KEY,
+    order_number VARCHAR(50) NOT NULL,
+    user_id BIGINT NOT NULL,
+    user_name VARCHAR(255),
+    restaurant_id BIGINT NOT NULL,
+    restaurant_name VARCHAR(255),
+    item_count INT NOT NULL,
+    total DECIMAL(10,2) NOT NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'PREPARING', 'READY_FOR_DELIVERY', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED') NOT NULL,
+    payment_status ENUM('PENDING', 'COMPLETED', 'FAILED', 'REFUNDED') NOT NULL,
+    order_time TIMESTAMP NULL,
+    estimated_delivery_time TIMESTAMP NULL,
+    actual_delivery_time TIMESTAMP NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    FOREIGN KEY (order_id) REFERENCES orders(id)
+);
+
+-- Analytics rollups: orders per restaurant and hour/day of placement, kept up to date by order and payment writes
+CREATE TABLE order_rollups (
+    granularity VARCHAR(5) NOT NULL,
+    restaurant_id BIGINT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    gross DECIMAL(14,2) NOT NULL DEFAULT 0,
+    tax DECIMAL(14,2) NOT NULL DEFAULT 0,
+    delivery_fees DECIMAL(14,2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_gross DECIMAL(14,2) NOT NULL DEFAULT 0,
+    payments_completed BIGINT NOT NULL DEFAULT 0,
+    payments_failed BIGINT NOT NULL DEFAULT 0,
+    payments_refunded BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NULL,
+    PRIMARY KEY (granularity, restaurant_id, bucket_start)
+);
+
 -- Payments table
 CREATE TABLE payments (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -134,6 +175,32 @@ CREATE TABLE payments (
     FOREIGN KEY (order_id) REFERENCES orders(id)
 );
 
+-- Idempotency-Key responses (scope_key = SHA-256 of user + key, status_code NULL while in flight)
+CREATE TABLE idempotency_keys (
+    scope_key CHAR(64) PRIMARY KEY,
+    request_hash CHAR(64) NOT NULL,
+    status_code INT,
+    content_type VARCHAR(255),
+    response_body LONGBLOB,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Delivery riders; live locations are kept in memory by the dispatcher
+CREATE TABLE riders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    phone VARCHAR(15) NOT NULL UNIQUE,
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Written every second on the primary by read-replica routing; replica lag is the age of the row a replica sees
+CREATE TABLE replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
 -- Indexes for better performance
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_phone ON users(phone);
@@ -142,11 +209,31 @@ CREATE INDEX idx_restaurants_cuisine ON restaurants(cuisine);
 CREATE INDEX idx_restaurants_rating ON restaurants(rating);
 CREATE INDEX idx_menu_items_restaurant ON menu_items(restaurant_id);
 CREATE INDEX idx_menu_items_category ON menu_items(category_id);
+CREATE INDEX idx_menu_items_restaurant_name ON menu_items(restaurant_id, is_available, name, id);
 CREATE INDEX idx_orders_user ON orders(user_id);
 CREATE INDEX idx_orders_restaurant ON orders(restaurant_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_payment_status ON orders(payment_status);
+-- Live order counters: GROUP BY restaurant and status from the index alone
+CREATE INDEX idx_orders_restaurant_status ON orders(restaurant_id, status);
+-- Dispatch: ready orders without a rider, and open deliveries per rider
+CREATE INDEX idx_orders_status_rider ON orders(status, delivery_person_phone, updated_at);
+-- Keyset pagination on (created_at DESC, id DESC)
+CREATE INDEX idx_orders_user_created ON orders(user_id, created_at, id);
+CREATE INDEX idx_orders_restaurant_created ON orders(restaurant_id, created_at, id);
+-- Order history lists, served from the read model
+CREATE INDEX idx_order_summaries_user_created ON order_summaries(user_id, created_at, order_id);
+CREATE INDEX idx_order_summaries_restaurant_created ON order_summaries(restaurant_id, created_at, order_id);
+CREATE INDEX idx_restaurants_open_created ON restaurants(is_active, is_open, created_at, id);
+-- Composite filters and sorts behind /restaurants/query
+CREATE INDEX idx_restaurants_open_cuisine_rating ON restaurants(is_active, is_open, cuisine, rating);
+CREATE INDEX idx_restaurants_open_rating ON restaurants(is_active, is_open, rating, id);
+CREATE INDEX idx_restaurants_open_delivery_time ON restaurants(is_active, is_open, delivery_time, id);
 CREATE INDEX idx_order_items_order ON order_items(order_id);
+-- Rollup rebuilds read one day of orders at a time; the all-restaurant series scans buckets by time
+CREATE INDEX idx_orders_order_time ON orders(order_time);
+CREATE INDEX idx_order_rollups_bucket ON order_rollups(granularity, bucket_start);
 CREATE INDEX idx_payments_order ON payments(order_id);
 CREATE INDEX idx_payments_razorpay_order ON payments(razorpay_order_id);
-CREATE INDEX idx_payments_razorpay_payment ON payments(razorpay_payment_id);
\ No newline at end of file
+CREATE INDEX idx_payments_razorpay_payment ON payments(razorpay_payment_id);
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
@@ -0,0 +1,76 @@
+const API_BASE_URL = process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080/api';
+
+// Minimal Server-Sent Events reader over fetch, because EventSource cannot send the Authorization header.
+// Reconnects with Last-Event-ID so the server can replay what was missed. Returns an unsubscribe function.
+export const subscribe = (path, onEvent) => {
+	let lastEventId = null;
+	let stopped = false;
+	let controller = null;
+	let retryMs = 1000;
+
+	const dispatch = (id, data) => {
+		if (id) lastEventId = id;
+		if (data.length === 0) return;
+		try {
+			onEvent(JSON.parse(data.join('\n')));
+		} catch (e) {
+			// ignore malformed frames
+		}
+	};
+
+	const connect = async () => {
+		controller = new AbortController();
+		try {
+			const headers = {};
+			const token = localStorage.getItem('token');
+			if (token) headers.Authorization = `Bearer ${token}`;
+			if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+			const res = await fetch(`${API_BASE_URL}${path}`, { headers, signal: controller.signal });
+			if ([401, 403, 404].includes(res.status)) return;
+			if (!res.ok || !res.body) throw new Error(`Tracking stream failed: ${res.status}`);
+			retryMs = 1000;
+			const reader = res.body.getReader();
+			const decoder = new TextDecoder();
+			let buffer = '';
+			let id = null;
+			let data = [];
+			for (;;) {
+				const { value, done } = await reader.read();
+				if (done) break;
+				buffer += decoder.decode(value, { stream: true });
+				let newline;
+				while ((newline = buffer.indexOf('\n')) >= 0) {
+					let line = buffer.slice(0, newline);
+					buffer = buffer.slice(newline + 1);
+					if (line.endsWith('\r')) line = line.slice(0, -1);
+					if (line === '') {
+						dispatch(id, data);
+						id = null;
+						data = [];
+					} else if (!line.startsWith(':')) {
+						const colon = line.indexOf(':');
+						const field = colon < 0 ? line : line.slice(0, colon);
+						let fieldValue = colon < 0 ? '' : line.slice(colon + 1);
+						if (fieldValue.startsWith(' ')) fieldValue = fieldValue.slice(1);
+						if (field === 'id') id = fieldValue;
+						else if (field === 'data') data.push(fieldValue);
+					}
+				}
+			}
+		} catch (e) {
+			if (e.name === 'AbortError') return;
+		}
+		if (!stopped) {
+			setTimeout(connect, retryMs);
+			retryMs = Math.min(retryMs * 2, 30000);
+		}
+	};
+
+	connect();
+	return () => {
+		stopped = true;
+		if (controller) controller.abort();
+	};
+};
+
+export default subscribe;
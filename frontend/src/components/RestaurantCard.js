@@ -14,7 +14,7 @@ const RestaurantCard = ({ restaurant }) => {
 				<CardContent>
 					<Typography variant="h6" sx={{ fontWeight: 700 }} noWrap>{restaurant.name}</Typography>
 					<Typography variant="body2" color="text.secondary" noWrap>{restaurant.description}</Typography>
-					<Typography variant="body2" sx={{ mt: 1 }} color="text.secondary">{restaurant.cuisine} • {restaurant.deliveryTime} mins</Typography>
+					<Typography variant="body2" sx={{ mt: 1 }} color="text.secondary">{restaurant.cuisine} • {restaurant.typicalDeliveryTime ?? restaurant.deliveryTime} mins</Typography>
 				</CardContent>
 			</CardActionArea>
 		</Card>
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import { Container, Typography, Box, Paper, Table, TableHead, TableRow, TableCell, TableBody, TableContainer, CircularProgress, Alert, FormControl, InputLabel, Select, MenuItem } from '@mui/material';
+import { Container, Typography, Box, Paper, Table, TableHead, TableRow, TableCell, TableBody, TableContainer, CircularProgress, Alert, FormControl, InputLabel, Select, MenuItem, Checkbox, Button } from '@mui/material';
 import api from '../api/client';
 import { useToast } from '../components/ToastProvider';
 
@@ -13,6 +13,8 @@ const AdminOrders = () => {
 	const [selectedRestaurant, setSelectedRestaurant] = useState('');
 	const [loading, setLoading] = useState(true);
 	const [error, setError] = useState('');
+	const [selected, setSelected] = useState([]);
+	const [bulkStatus, setBulkStatus] = useState('READY_FOR_DELIVERY');
 
 	const fetchRestaurants = async () => {
 		const res = await api.get('/restaurants');
@@ -29,6 +31,7 @@ const AdminOrders = () => {
 		try {
 			const res = await api.get(`/orders/restaurant/${restaurantId}`);
 			setOrders(res.data || []);
+			setSelected([]);
 		} catch (e) {
 			setError(e?.message || 'Failed to load orders');
 		} finally {
@@ -48,6 +51,18 @@ const AdminOrders = () => {
 			showToast(e?.message || 'Failed to update status', 'error');
 		}
 	};
+	const toggleSelected = (id) => setSelected(prev => prev.includes(id) ? prev.filter(x => x !== id) : [...prev, id]);
+	const toggleAll = () => setSelected(prev => prev.length === orders.length ? [] : orders.map(o => o.id));
+	const updateSelectedStatus = async () => {
+		try {
+			const res = await api.put('/orders/status', { orderIds: selected, status: bulkStatus });
+			const skipped = res.data.results.filter(r => r.outcome !== 'UPDATED' && r.outcome !== 'UNCHANGED').length;
+			showToast(`${res.data.updated} order(s) updated${skipped ? `, ${skipped} skipped` : ''}`, skipped ? 'warning' : 'success');
+			await fetchOrders(selectedRestaurant);
+		} catch (e) {
+			showToast(e?.message || 'Failed to update statuses', 'error');
+		}
+	};
 	const updatePaymentStatus = async (id, paymentStatus) => {
 		try {
 			await api.put(`/orders/${id}/payment-status`, null, { params: { paymentStatus } });
@@ -70,6 +85,18 @@ const AdminOrders = () => {
 				</FormControl>
 			</Box>
 			{error && <Alert severity="error" sx={{ mb: 2 }}>{error}</Alert>}
+			{selected.length > 0 && (
+				<Paper sx={{ p: 1.5, mb: 2, display: 'flex', alignItems: 'center', gap: 2 }}>
+					<Typography>{selected.length} selected</Typography>
+					<FormControl size="small" sx={{ minWidth: 200 }}>
+						<InputLabel id="bulk-status-label">Move to</InputLabel>
+						<Select labelId="bulk-status-label" value={bulkStatus} label="Move to" onChange={(e) => setBulkStatus(e.target.value)}>
+							{statuses.map(s => <MenuItem key={s} value={s}>{s}</MenuItem>)}
+						</Select>
+					</FormControl>
+					<Button variant="contained" onClick={updateSelectedStatus}>Apply</Button>
+				</Paper>
+			)}
 			{loading ? (
 				<Box sx={{ display: 'flex', justifyContent: 'center', py: 6 }}>
 					<CircularProgress />
@@ -79,6 +106,9 @@ const AdminOrders = () => {
 					<Table size="small">
 						<TableHead>
 							<TableRow>
+								<TableCell padding="checkbox">
+									<Checkbox checked={orders.length > 0 && selected.length === orders.length} indeterminate={selected.length > 0 && selected.length < orders.length} onChange={toggleAll} />
+								</TableCell>
 								<TableCell>Order #</TableCell>
 								<TableCell>Restaurant</TableCell>
 								<TableCell>Total</TableCell>
@@ -90,7 +120,10 @@ const AdminOrders = () => {
 						</TableHead>
 						<TableBody>
 							{orders.map((o) => (
-								<TableRow key={o.id}>
+								<TableRow key={o.id} selected={selected.includes(o.id)}>
+									<TableCell padding="checkbox">
+										<Checkbox checked={selected.includes(o.id)} onChange={() => toggleSelected(o.id)} />
+									</TableCell>
 									<TableCell>#{o.orderNumber}</TableCell>
 									<TableCell>{o.restaurantName}</TableCell>
 									<TableCell>₹{o.total.toFixed(2)}</TableCell>
@@ -110,7 +143,7 @@ const AdminOrders = () => {
 											</Select>
 										</FormControl>
 									</TableCell>
-									<TableCell>{o.userEmail}</TableCell>
+									<TableCell>{o.userName}</TableCell>
 									<TableCell>{new Date(o.createdAt).toLocaleString()}</TableCell>
 								</TableRow>
 							))}
@@ -15,6 +15,8 @@ const emptyForm = {
 	deliveryTime: 30,
 	deliveryFee: 5.0,
 	minimumOrder: 10.0,
+	latitude: null,
+	longitude: null,
 	active: true,
 	open: true,
 };
@@ -66,6 +68,8 @@ const AdminRestaurants = () => {
 			deliveryTime: r.deliveryTime ?? 30,
 			deliveryFee: r.deliveryFee ?? 5.0,
 			minimumOrder: r.minimumOrder ?? 10.0,
+			latitude: r.latitude ?? null,
+			longitude: r.longitude ?? null,
 			active: r.active ?? true,
 			open: r.open ?? true,
 		});
@@ -212,6 +216,12 @@ const AdminRestaurants = () => {
 							<Grid item xs={12} sm={6}>
 								<TextField fullWidth type="number" label="Minimum Order (₹)" value={form.minimumOrder} onChange={(e) => setForm({ ...form, minimumOrder: Number(e.target.value) })} error={!!formErrors.minimumOrder} helperText={formErrors.minimumOrder} />
 							</Grid>
+							<Grid item xs={12} sm={6}>
+								<TextField fullWidth type="number" label="Latitude" value={form.latitude ?? ''} onChange={(e) => setForm({ ...form, latitude: e.target.value === '' ? null : Number(e.target.value) })} helperText="Pickup point for rider dispatch" />
+							</Grid>
+							<Grid item xs={12} sm={6}>
+								<TextField fullWidth type="number" label="Longitude" value={form.longitude ?? ''} onChange={(e) => setForm({ ...form, longitude: e.target.value === '' ? null : Number(e.target.value) })} />
+							</Grid>
 							<Grid item xs={12} sm={6}>
 								<FormControlLabel control={<Switch checked={!!form.active} onChange={(e) => setForm({ ...form, active: e.target.checked })} />} label="Active" />
 							</Grid>
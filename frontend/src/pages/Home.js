@@ -84,7 +84,7 @@ const Home = () => {
 	const filtered = useMemo(() => {
 		let list = restaurants;
 		if (category !== 'All') list = list.filter(r => r.cuisine === category);
-		if (onlyFast) list = list.filter(r => r.deliveryTime <= 30);
+		if (onlyFast) list = list.filter(r => (r.typicalDeliveryTime ?? r.deliveryTime) <= 30);
 		if (minRating > 0) list = list.filter(r => (r.rating || 0) >= minRating);
 		return list;
 	}, [restaurants, category, onlyFast, minRating]);
@@ -17,7 +17,8 @@ import {
   Divider,
 } from '@mui/material';
 import { AccessTime as TimeIcon, LocalShipping as DeliveryIcon, CheckCircle as CheckIcon } from '@mui/icons-material';
-import { fetchOrderById, updateOrderStatus } from '../store/slices/orderSlice';
+import { fetchOrderById, updateOrderStatus, applyTrackingEvent } from '../store/slices/orderSlice';
+import { subscribe } from '../api/events';
 
 const OrderDetail = () => {
   const { id } = useParams();
@@ -28,6 +29,14 @@ const OrderDetail = () => {
     dispatch(fetchOrderById(id));
   }, [dispatch, id]);
 
+  useEffect(() => subscribe(`/orders/${id}/events`, (event) => {
+    if (event.type === 'RESYNC') {
+      dispatch(fetchOrderById(id));
+    } else {
+      dispatch(applyTrackingEvent(event));
+    }
+  }), [dispatch, id]);
+
   // If ETA exists and is in the past, auto-update to DELIVERED.
   useEffect(() => {
     if (!currentOrder) return;
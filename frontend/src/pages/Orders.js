@@ -14,7 +14,8 @@ import {
   Button,
 } from '@mui/material';
 import { AccessTime as TimeIcon, Receipt as ReceiptIcon } from '@mui/icons-material';
-import { fetchUserOrders } from '../store/slices/orderSlice';
+import { fetchUserOrders, applyTrackingEvent } from '../store/slices/orderSlice';
+import { subscribe } from '../api/events';
 
 const Orders = () => {
   const dispatch = useDispatch();
@@ -30,6 +31,17 @@ const Orders = () => {
     dispatch(fetchUserOrders());
   }, [dispatch, isAuthenticated, navigate]);
 
+  useEffect(() => {
+    if (!isAuthenticated) return undefined;
+    return subscribe('/orders/user/events', (event) => {
+      if (event.type === 'RESYNC') {
+        dispatch(fetchUserOrders());
+      } else {
+        dispatch(applyTrackingEvent(event));
+      }
+    });
+  }, [dispatch, isAuthenticated]);
+
   const getStatusColor = (status) => {
     switch (status) {
       case 'PENDING':
@@ -151,32 +163,12 @@ const Orders = () => {
 
                   <Box sx={{ mb: 2 }}>
                     <Typography variant="body2" color="text.secondary">
-                      <strong>Delivery Address:</strong> {order.deliveryAddress}
-                    </Typography>
-                    <Typography variant="body2" color="text.secondary">
-                      <strong>Phone:</strong> {order.deliveryPhone}
-                    </Typography>
-                    {order.deliveryInstructions && (
-                      <Typography variant="body2" color="text.secondary">
-                        <strong>Instructions:</strong> {order.deliveryInstructions}
-                      </Typography>
-                    )}
-                  </Box>
-
-                  <Box sx={{ mb: 2 }}>
-                    <Typography variant="subtitle2" gutterBottom>
-                      Order Items:
+                      {/* the list comes from order summaries; items and address are on the detail page */}
+                      {(() => {
+                        const count = order.itemCount ?? order.orderItems?.reduce((sum, item) => sum + item.quantity, 0) ?? 0;
+                        return `${count} ${count === 1 ? 'item' : 'items'}`;
+                      })()}
                     </Typography>
-                    {order.orderItems.map((item, index) => (
-                      <Box key={index} sx={{ display: 'flex', justifyContent: 'space-between', mb: 0.5 }}>
-                        <Typography variant="body2">
-                          {item.menuItemName} x{item.quantity}
-                        </Typography>
-                        <Typography variant="body2">
-                          ₹{item.totalPrice.toFixed(2)}
-                        </Typography>
-                      </Box>
-                    ))}
                   </Box>
 
                   <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center' }}>
@@ -70,7 +70,7 @@ const RestaurantDetail = () => {
 								</Box>
 								<Box>
 									<Typography variant="h4" sx={{ fontWeight: 800 }}>{restaurant.name}</Typography>
-									<Typography variant="body1" color="text.secondary">{restaurant.cuisine} • {restaurant.deliveryTime} mins</Typography>
+									<Typography variant="body1" color="text.secondary">{restaurant.cuisine} • {restaurant.typicalDeliveryTime ?? restaurant.deliveryTime} mins</Typography>
 									<Box sx={{ mt: 1, display: 'flex', gap: 1, flexWrap: 'wrap' }}>
 										<Chip size="small" label={`${restaurant.rating} ★`} />
 										{restaurant.costForTwo && (<Chip size="small" label={`₹${restaurant.costForTwo} for two`} />)}
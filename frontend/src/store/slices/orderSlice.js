@@ -3,17 +3,45 @@ import axios from 'axios';
 
 const API_BASE_URL = process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080/api';
 
+const SUBMISSION_POLL_MS = 500;
+const SUBMISSION_TIMEOUT_MS = 30000;
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+// In async ingestion mode the backend answers 202 with just the order number; wait until the order is
+// stored so callers (e.g. the online payment) always get a real order with an id.
+const waitForSubmission = async (orderNumber, headers) => {
+  const deadline = Date.now() + SUBMISSION_TIMEOUT_MS;
+  while (Date.now() < deadline) {
+    const { data } = await axios.get(`${API_BASE_URL}/orders/submissions/${orderNumber}`, { headers });
+    if (data.status === 'CREATED') {
+      const order = await axios.get(`${API_BASE_URL}/orders/${data.orderId}`, { headers });
+      return order.data;
+    }
+    if (data.status === 'FAILED') {
+      throw new Error(data.message || 'Failed to create order');
+    }
+    await sleep(SUBMISSION_POLL_MS);
+  }
+  throw new Error(`Order ${orderNumber} is still being processed, check My Orders shortly`);
+};
+
 // Async thunks
 export const createOrder = createAsyncThunk(
   'order/createOrder',
   async (orderData, { rejectWithValue }) => {
     try {
       const token = localStorage.getItem('token');
-      const response = await axios.post(`${API_BASE_URL}/orders`, orderData, {
-        headers: { Authorization: `Bearer ${token}` }
-      });
+      const headers = { Authorization: `Bearer ${token}` };
+      const response = await axios.post(`${API_BASE_URL}/orders`, orderData, { headers });
+      if (response.status === 202) {
+        return await waitForSubmission(response.data.orderNumber, headers);
+      }
       return response.data;
     } catch (error) {
+      if (!error.response && error.message) {
+        return rejectWithValue({ message: error.message });
+      }
       return rejectWithValue(error.response?.data || 'Failed to create order');
     }
   }
@@ -83,6 +111,17 @@ const orderSlice = createSlice({
     clearCurrentOrder: (state) => {
       state.currentOrder = null;
     },
+    // live status pushed over /orders/{id}/events or /orders/user/events
+    applyTrackingEvent: (state, action) => {
+      const { orderId, status, paymentStatus } = action.payload;
+      const apply = (order) => {
+        if (!order || order.id !== orderId) return;
+        if (status) order.status = status;
+        if (paymentStatus) order.paymentStatus = paymentStatus;
+      };
+      apply(state.currentOrder);
+      state.orders.forEach(apply);
+    },
   },
   extraReducers: (builder) => {
     builder
@@ -148,5 +187,5 @@ const orderSlice = createSlice({
   },
 });
 
-export const { clearError, clearCurrentOrder } = orderSlice.actions;
+export const { clearError, clearCurrentOrder, applyTrackingEvent } = orderSlice.actions;
 export default orderSlice.reducer;
\ No newline at end of file